@@ -2,8 +2,12 @@ package com.wificdmx.wifiapi;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.scheduling.annotation.EnableAsync;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@EnableAsync
 public class WifiApiApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,31 @@
+package com.wificdmx.wifiapi.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Formats Caffeine statistics for the health endpoint.
+ */
+final class CacheStatistics {
+
+    private CacheStatistics() {
+    }
+
+    /**
+     * @param cache Cache built with {@code recordStats()}
+     * @return Size and hit/miss/eviction counters
+     */
+    static Map<String, Object> of(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+}
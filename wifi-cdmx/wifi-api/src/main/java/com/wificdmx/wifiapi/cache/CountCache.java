@@ -0,0 +1,68 @@
+package com.wificdmx.wifiapi.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wificdmx.wifiapi.config.WifiCacheProperties;
+import com.wificdmx.wifiapi.service.WifiPointsLoadedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache of row counts by filter, so paginated responses can report totals without running
+ * a count query on every request. Bounded by {@code wifi.cache.counts.max-size}, expired after
+ * {@code wifi.cache.counts.ttl} and cleared whenever the data loader changes the stored WiFi points.
+ */
+@Component
+@Slf4j
+public class CountCache {
+
+    private static final String ALL = "all";
+
+    private final Cache<String, Long> cache;
+
+    public CountCache(WifiCacheProperties properties) {
+        WifiCacheProperties.Spec spec = properties.getCounts();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(spec.getMaxSize())
+                .expireAfterWrite(spec.getTtl())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @param counter Counts every WiFi point on a miss
+     * @return Number of WiFi points
+     */
+    public long countAll(LongSupplier counter) {
+        return cache.get(ALL, key -> counter.getAsLong());
+    }
+
+    /**
+     * @param alcaldiaKey Alcaldia lookup key, so every spelling of a name shares one entry
+     * @param counter Counts the WiFi points of the alcaldia on a miss
+     * @return Number of WiFi points in the alcaldia
+     */
+    public long countByAlcaldia(String alcaldiaKey, LongSupplier counter) {
+        return cache.get("alcaldia:" + alcaldiaKey, key -> counter.getAsLong());
+    }
+
+    /**
+     * Drops every entry after the dataset has been reloaded or synchronized.
+     */
+    @EventListener(WifiPointsLoadedEvent.class)
+    public void invalidateAll() {
+        log.info("Invalidating count cache ({} entries, {})", cache.estimatedSize(), cache.stats());
+        cache.invalidateAll();
+    }
+
+    /**
+     * @return Size and hit/miss/eviction counters, for the health endpoint
+     */
+    public Map<String, Object> getStats() {
+        return CacheStatistics.of(cache);
+    }
+}
@@ -0,0 +1,183 @@
+package com.wificdmx.wifiapi.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wificdmx.wifiapi.config.WifiCacheProperties;
+import com.wificdmx.wifiapi.dto.WifiPointDTO;
+import com.wificdmx.wifiapi.search.NearbySearchEngine;
+import com.wificdmx.wifiapi.service.WifiPointsLoadedEvent;
+import com.wificdmx.wifiapi.spatial.BoundingBox;
+import com.wificdmx.wifiapi.spatial.GeoUtils;
+import com.wificdmx.wifiapi.spatial.Geohash;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache in front of the nearby search, keyed by dataset version and the geohash cell of the query
+ * coordinates. Queries from anywhere in the same cell share one set of candidates, fetched around the
+ * cell center, which is re-ranked by exact distance to the real coordinates on every request.
+ *
+ * <p>The version is read before the engine runs, so candidates fetched from the previous dataset
+ * are never served once the store has swapped in the next one, whichever order the listeners of
+ * {@link WifiPointsLoadedEvent} run in. The entries of old versions are dropped after every load.
+ *
+ * <p>The candidates are chosen so the result is the same as an uncached search. With {@code h}
+ * the distance from the cell center to its corners, every point a query in the cell can return is
+ * within {@code radius + h} of the center, or within {@code d_k + 2h} without a radius, where
+ * {@code d_k} is the distance from the center to its k-th nearest point. Cells needing more than
+ * {@code wifi.cache.nearby.max-candidates} points are answered by the search engine directly.
+ */
+@Component
+@Slf4j
+public class NearbyResultCache {
+
+    /**
+     * Widens the candidate radius slightly so differences between the engines' distance formulas never drop a point
+     */
+    private static final double REACH_SLACK = 1.01;
+
+    /**
+     * Marks cells whose candidates exceed the limit
+     */
+    private static final Candidates UNCACHEABLE = new Candidates(List.of(), 0);
+
+    private final Cache<Key, Candidates> cache;
+    private final boolean enabled;
+    private final int precision;
+    private final int maxCandidates;
+
+    public NearbyResultCache(WifiCacheProperties properties) {
+        WifiCacheProperties.NearbySpec spec = properties.getNearby();
+        this.enabled = spec.isEnabled();
+        this.precision = spec.getPrecision();
+        this.maxCandidates = spec.getMaxCandidates();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(spec.getMaxSize())
+                .expireAfterWrite(spec.getTtl())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Finds nearby WiFi points through the cache.
+     *
+     * @param version Version of the current dataset, read before searching
+     * @param lat Latitude of reference point
+     * @param lon Longitude of reference point
+     * @param radiusKm Maximum distance in kilometers (optional)
+     * @param pageable Pagination parameters
+     * @param engine Search engine used on a miss
+     * @return Page of WiFi points ordered by distance, with distance to the given coordinates
+     */
+    public Page<WifiPointDTO> findNearby(long version, double lat, double lon, Double radiusKm, Pageable pageable,
+                                        NearbySearchEngine engine) {
+        long limit = pageable.getOffset() + pageable.getPageSize();
+        if (!enabled || limit > maxCandidates) {
+            return engine.findNearby(lat, lon, radiusKm, pageable);
+        }
+
+        Key key = new Key(version, Geohash.encode(lat, lon, precision), radiusKm, (int) limit);
+        Candidates candidates = cache.get(key, k -> load(k, engine));
+        if (candidates == UNCACHEABLE) {
+            return engine.findNearby(lat, lon, radiusKm, pageable);
+        }
+        return candidates.rank(lat, lon, radiusKm, pageable);
+    }
+
+    /**
+     * Drops every entry after the dataset has been reloaded or synchronized.
+     */
+    @EventListener(WifiPointsLoadedEvent.class)
+    public void invalidateAll() {
+        log.info("Invalidating nearby cache ({} entries, {})", cache.estimatedSize(), cache.stats());
+        cache.invalidateAll();
+    }
+
+    /**
+     * @return Size and hit/miss/eviction counters, for the health endpoint
+     */
+    public Map<String, Object> getStats() {
+        return CacheStatistics.of(cache);
+    }
+
+    private Candidates load(Key key, NearbySearchEngine engine) {
+        BoundingBox cell = Geohash.bounds(key.cell());
+        double centerLat = (cell.minLat() + cell.maxLat()) / 2;
+        double centerLon = (cell.minLon() + cell.maxLon()) / 2;
+        double halfDiagonal = Math.max(
+                GeoUtils.haversineKm(centerLat, centerLon, cell.maxLat(), cell.maxLon()),
+                GeoUtils.haversineKm(centerLat, centerLon, cell.minLat(), cell.minLon()));
+
+        long total = -1;
+        double reach;
+        if (key.radiusKm() == null) {
+            Page<WifiPointDTO> nearest = engine.findNearby(centerLat, centerLon, null, PageRequest.of(0, key.limit()));
+            total = nearest.getTotalElements();
+            if (nearest.getNumberOfElements() < key.limit()) {
+                // Fewer points than requested: all of them are candidates
+                return new Candidates(nearest.getContent(), total);
+            }
+            double kthDistance = nearest.getContent().get(key.limit() - 1).getDistancia();
+            reach = (kthDistance + 2 * halfDiagonal) * REACH_SLACK;
+        } else {
+            reach = (key.radiusKm() + halfDiagonal) * REACH_SLACK;
+        }
+
+        Page<WifiPointDTO> ball = engine.findNearby(centerLat, centerLon, reach, PageRequest.of(0, maxCandidates));
+        if (ball.getTotalElements() > maxCandidates) {
+            log.debug("Nearby cell {} needs {} candidates, not cached", key.cell(), ball.getTotalElements());
+            return UNCACHEABLE;
+        }
+        return new Candidates(ball.getContent(), total);
+    }
+
+    /**
+     * Cache key: dataset version, geohash cell, radius and number of results up to the end of the requested page.
+     */
+    private record Key(long version, String cell, Double radiusKm, int limit) {
+    }
+
+    /**
+     * Candidate points of a cell.
+     *
+     * @param points Candidates, with distances to the cell center
+     * @param total Total of the unrestricted search, or -1 when the radius count is derived from the candidates
+     */
+    private record Candidates(List<WifiPointDTO> points, long total) {
+
+        Page<WifiPointDTO> rank(double lat, double lon, Double radiusKm, Pageable pageable) {
+            List<WifiPointDTO> ranked = new ArrayList<>(points.size());
+            for (WifiPointDTO point : points) {
+                double distance = GeoUtils.haversineKm(lat, lon, point.getLatitud(), point.getLongitud());
+                if (radiusKm != null && distance > radiusKm) {
+                    continue;
+                }
+                // Copies, so the cached candidates are never modified
+                ranked.add(WifiPointDTO.builder()
+                        .puntoId(point.getPuntoId())
+                        .programa(point.getPrograma())
+                        .latitud(point.getLatitud())
+                        .longitud(point.getLongitud())
+                        .alcaldia(point.getAlcaldia())
+                        .distancia(distance)
+                        .build());
+            }
+            ranked.sort(Comparator.comparingDouble(WifiPointDTO::getDistancia));
+
+            int from = (int) Math.min(pageable.getOffset(), ranked.size());
+            int to = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), ranked.size());
+            return new PageImpl<>(new ArrayList<>(ranked.subList(from, to)), pageable,
+                    total >= 0 ? total : ranked.size());
+        }
+    }
+}
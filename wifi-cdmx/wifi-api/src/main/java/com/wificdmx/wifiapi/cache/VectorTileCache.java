@@ -0,0 +1,72 @@
+package com.wificdmx.wifiapi.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wificdmx.wifiapi.config.WifiCacheProperties;
+import com.wificdmx.wifiapi.service.WifiPointsLoadedEvent;
+import com.wificdmx.wifiapi.tile.VectorTile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Cache of encoded vector tiles, keyed by dataset version and tile coordinates.
+ * A tile never changes within a dataset version, so entries do not expire: the cache is bounded by
+ * the total size of the tiles ({@code wifi.cache.tiles.max-size}), and a new dataset version simply
+ * stops asking for the old entries. They are also dropped after every data load to free the memory.
+ */
+@Component
+@Slf4j
+public class VectorTileCache {
+
+    /**
+     * Approximate bytes held by an entry besides the tile data
+     */
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private final Cache<Key, VectorTile> cache;
+
+    public VectorTileCache(WifiCacheProperties properties) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getTiles().getMaxSize().toBytes())
+                .weigher((Key key, VectorTile tile) -> tile.data().length + ENTRY_OVERHEAD)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @param version Version of the dataset the tile is built from
+     * @param zoom Zoom level
+     * @param x Tile column
+     * @param y Tile row
+     * @param encoder Builds the tile on a miss
+     * @return Cached or newly built tile
+     */
+    public VectorTile get(long version, int zoom, int x, int y, Supplier<VectorTile> encoder) {
+        return cache.get(new Key(version, zoom, x, y), key -> encoder.get());
+    }
+
+    /**
+     * Drops every entry after the dataset has been reloaded or synchronized.
+     */
+    @EventListener(WifiPointsLoadedEvent.class)
+    public void invalidateAll() {
+        log.info("Invalidating vector tile cache ({} entries, {})", cache.estimatedSize(), cache.stats());
+        cache.invalidateAll();
+    }
+
+    /**
+     * @return Size and hit/miss/eviction counters, for the health endpoint
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = CacheStatistics.of(cache);
+        stats.put("weightedKb", cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0) / 1024).orElse(0L));
+        return stats;
+    }
+
+    private record Key(long version, int zoom, int x, int y) {
+    }
+}
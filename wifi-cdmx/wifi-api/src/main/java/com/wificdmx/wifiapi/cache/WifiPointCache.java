@@ -0,0 +1,63 @@
+package com.wificdmx.wifiapi.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wificdmx.wifiapi.config.WifiCacheProperties;
+import com.wificdmx.wifiapi.dto.WifiPointDTO;
+import com.wificdmx.wifiapi.service.WifiPointsLoadedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of WiFi point DTOs by ID, backed by Caffeine.
+ * Bounded by {@code wifi.cache.by-id.max-size} and expired after {@code wifi.cache.by-id.ttl};
+ * cleared whenever the data loader changes the stored WiFi points.
+ * IDs that are not found are not cached.
+ */
+@Component
+@Slf4j
+public class WifiPointCache {
+
+    private final Cache<String, WifiPointDTO> cache;
+
+    public WifiPointCache(WifiCacheProperties properties) {
+        WifiCacheProperties.Spec spec = properties.getById();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(spec.getMaxSize())
+                .expireAfterWrite(spec.getTtl())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached DTO, or loads and caches it on a miss.
+     * Concurrent misses for the same ID call the loader only once.
+     *
+     * @param id WiFi point ID
+     * @param loader Loads the DTO on a miss; exceptions propagate and nothing is cached
+     * @return WiFi point DTO
+     */
+    public WifiPointDTO get(String id, Function<String, WifiPointDTO> loader) {
+        return cache.get(id, loader);
+    }
+
+    /**
+     * Drops every entry after the dataset has been reloaded or synchronized.
+     */
+    @EventListener(WifiPointsLoadedEvent.class)
+    public void invalidateAll() {
+        log.info("Invalidating WiFi point cache ({} entries, {})", cache.estimatedSize(), cache.stats());
+        cache.invalidateAll();
+    }
+
+    /**
+     * @return Size and hit/miss/eviction counters, for the health endpoint
+     */
+    public Map<String, Object> getStats() {
+        return CacheStatistics.of(cache);
+    }
+}
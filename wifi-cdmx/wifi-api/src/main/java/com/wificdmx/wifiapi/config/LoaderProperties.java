@@ -0,0 +1,60 @@
+package com.wificdmx.wifiapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the Excel data load ({@code wifi.loader.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "wifi.loader")
+public class LoaderProperties {
+
+    /**
+     * Location of the Excel file, resolved by the application's ResourceLoader: {@code classpath:} for the bundled
+     * file, {@code file:} for one outside the jar
+     */
+    private String source = "classpath:data/00-2025-wifi_gratuito_en_cdmx.xlsx";
+
+    /**
+     * Excel reader: streaming (SAX event API, constant memory) or workbook (full XSSFWorkbook in memory)
+     */
+    private String reader = "streaming";
+
+    /**
+     * Bulk writer: copy (PostgreSQL COPY FROM STDIN), jdbc-batch (batched INSERTs) or jpa (saveAll)
+     */
+    private String writer = "copy";
+
+    /**
+     * Startup behavior when the table already has data: sync (upsert changed rows, delete removed ones) or skip
+     */
+    private String existingData = "sync";
+
+    /**
+     * Largest share of the stored rows a sync may delete; a file that would delete more is rejected as truncated
+     */
+    private double maxDeleteFraction = 0.5;
+
+    /**
+     * Rows per import chunk; each chunk is written in its own transaction (one JDBC batch, JPA flush or COPY)
+     */
+    private int batchSize = 1000;
+
+    /**
+     * Threads persisting chunks in parallel; each one holds a pooled connection while writing
+     */
+    private int writerThreads = 4;
+
+    /**
+     * Chunks buffered between two pipeline stages before the producing stage blocks
+     */
+    private int queueCapacity = 8;
+
+    /**
+     * How often the import pipeline logs rows per stage and queue depth
+     */
+    private Duration progressInterval = Duration.ofSeconds(1);
+}
@@ -0,0 +1,103 @@
+package com.wificdmx.wifiapi.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the in-memory caches ({@code wifi.cache.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "wifi.cache")
+public class WifiCacheProperties {
+
+    /**
+     * Cache of WiFi points by ID, used by findById
+     */
+    private Spec byId = new Spec(10_000, Duration.ofMinutes(30));
+
+    /**
+     * Cache of nearby search candidates by geohash cell
+     */
+    private NearbySpec nearby = new NearbySpec();
+
+    /**
+     * Cache of row counts by filter, used for the totals of paginated responses
+     */
+    private Spec counts = new Spec(1_000, Duration.ofMinutes(10));
+
+    /**
+     * Cache of encoded vector tiles by dataset version and tile coordinates
+     */
+    private TileSpec tiles = new TileSpec();
+
+    /**
+     * Size and expiration of one cache.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Spec {
+
+        /**
+         * Maximum number of entries; the least recently used ones are evicted first
+         */
+        private long maxSize;
+
+        /**
+         * Time after which an entry expires since it was loaded
+         */
+        private Duration ttl;
+    }
+
+    /**
+     * Nearby cache settings: cell size and how many candidates a cell may hold.
+     */
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    public static class NearbySpec extends Spec {
+
+        /**
+         * Enables the nearby cache
+         */
+        private boolean enabled = true;
+
+        /**
+         * Geohash length of the cells queries are grouped by (7 is about 153 m x 153 m)
+         */
+        private int precision = 7;
+
+        /**
+         * Candidates fetched per cell; cells that would need more are not cached
+         */
+        private int maxCandidates = 1000;
+
+        public NearbySpec() {
+            super(5_000, Duration.ofMinutes(10));
+        }
+    }
+
+    /**
+     * Vector tile cache settings. Tiles never change within a dataset version, so entries do not
+     * expire; they are bounded by their total size instead, since a tile of the whole city can be a
+     * thousand times larger than one of a few streets.
+     */
+    @Data
+    public static class TileSpec {
+
+        /**
+         * Maximum total size of the cached tiles; the least recently used ones are evicted first
+         */
+        private DataSize maxSize = DataSize.ofMegabytes(64);
+
+        /**
+         * How long browsers may reuse a tile before revalidating it with its ETag
+         */
+        private Duration maxAge = Duration.ofMinutes(1);
+    }
+}
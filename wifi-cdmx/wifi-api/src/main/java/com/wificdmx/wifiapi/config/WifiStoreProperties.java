@@ -0,0 +1,57 @@
+package com.wificdmx.wifiapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the in-memory point store ({@code wifi.store.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "wifi.store")
+public class WifiStoreProperties {
+
+    /**
+     * Serves list, ID, alcaldia, nearby batch and statistics queries from the in-memory dataset once it is built;
+     * density grids have no database equivalent and are always read from the dataset
+     */
+    private boolean enabled = true;
+
+    /**
+     * Binary snapshot of the dataset, used to restore it at startup
+     */
+    private Snapshot snapshot = new Snapshot();
+
+    /**
+     * Density heatmap precomputed with the dataset
+     */
+    private Density density = new Density();
+
+    /**
+     * Snapshot file settings.
+     */
+    @Data
+    public static class Snapshot {
+
+        /**
+         * Writes the snapshot after every successful load and restores it at startup
+         */
+        private boolean enabled = true;
+
+        /**
+         * Location of the snapshot file; its directory is created if needed
+         */
+        private String path = "snapshot/wifi-points.bin";
+    }
+
+    /**
+     * Density grid settings.
+     */
+    @Data
+    public static class Density {
+
+        /**
+         * Side of a grid cell in degrees; 0.0025 is about 280 m by 260 m in Mexico City
+         */
+        private double cellDegrees = 0.0025;
+    }
+}
@@ -0,0 +1,62 @@
+package com.wificdmx.wifiapi.controller;
+
+import com.wificdmx.wifiapi.service.DataLoaderService;
+import com.wificdmx.wifiapi.service.WifiPointService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * REST Controller for administrative operations on the dataset.
+ * Registered only with {@code wifi.admin.reload-enabled=true}, since its endpoints are unauthenticated and
+ * start work on the database; otherwise they respond 404.
+ */
+@RestController
+@ConditionalOnProperty(name = "wifi.admin.reload-enabled", havingValue = "true")
+@RequestMapping("/api/v1/admin")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Admin", description = "Administrative operations on the WiFi points dataset")
+public class AdminController {
+
+    private final DataLoaderService dataLoaderService;
+    private final WifiPointService wifiPointService;
+
+    /**
+     * Reloads the Excel file in the background.
+     *
+     * @return 202 with the version of the dataset being served, or 409 if a load is already running
+     */
+    @PostMapping("/reload")
+    @Operation(
+            summary = "Reload the dataset",
+            description = "Synchronizes the database with the Excel file in the background. The current dataset " +
+                    "keeps being served while the next one is built, and is then replaced atomically. " +
+                    "Progress and the dataset version are reported by the health endpoint"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Reload started"),
+            @ApiResponse(responseCode = "409", description = "A data load is already running")
+    })
+    public ResponseEntity<Map<String, Object>> reload() {
+        log.info("POST /api/v1/admin/reload");
+        boolean started = dataLoaderService.reload();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", started ? "RELOADING" : "ALREADY_RUNNING");
+        response.put("datasetVersion", wifiPointService.getStoreStats().get("version"));
+        return ResponseEntity.status(started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT).body(response);
+    }
+}
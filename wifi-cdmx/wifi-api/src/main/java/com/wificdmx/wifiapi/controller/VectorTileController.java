@@ -0,0 +1,74 @@
+package com.wificdmx.wifiapi.controller;
+
+import com.wificdmx.wifiapi.config.WifiCacheProperties;
+import com.wificdmx.wifiapi.tile.VectorTile;
+import com.wificdmx.wifiapi.tile.VectorTileService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST Controller serving the WiFi points as Mapbox Vector Tiles.
+ */
+@RestController
+@RequestMapping("/api/v1/tiles")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Tiles", description = "WiFi points as vector tiles for map libraries")
+public class VectorTileController {
+
+    private final VectorTileService vectorTileService;
+    private final WifiCacheProperties cacheProperties;
+
+    /**
+     * Get the vector tile of the WiFi points at the given tile coordinates.
+     * The response carries a strong ETag; a request whose If-None-Match matches it gets a 304
+     * without a body.
+     *
+     * @param z Zoom level
+     * @param x Tile column
+     * @param y Tile row
+     * @return MVT bytes with ETag and Cache-Control headers
+     */
+    @GetMapping(value = "/{z}/{x}/{y}.mvt", produces = VectorTileService.MEDIA_TYPE)
+    @Operation(
+            summary = "Get a vector tile of the WiFi points",
+            description = "Returns the WiFi points of an XYZ tile (Web Mercator) as a Mapbox Vector Tile with one point " +
+                    "layer, " + VectorTileService.LAYER + ", whose features carry puntoId, programa and alcaldia. " +
+                    "Tiles are cached per dataset version and revalidated with their ETag"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tile returned; empty when it holds no point"),
+            @ApiResponse(responseCode = "304", description = "The tile matches the If-None-Match ETag"),
+            @ApiResponse(responseCode = "400", description = "Tile coordinates out of range")
+    })
+    public ResponseEntity<byte[]> getTile(
+            @PathVariable
+            @Parameter(description = "Zoom level (0 to " + VectorTileService.MAX_ZOOM + ")", example = "12")
+            int z,
+            @PathVariable
+            @Parameter(description = "Tile column (0 to 2^z - 1)", example = "918")
+            int x,
+            @PathVariable
+            @Parameter(description = "Tile row (0 to 2^z - 1)", example = "1827")
+            int y
+    ) {
+        log.debug("GET /api/v1/tiles/{}/{}/{}.mvt", z, x, y);
+        VectorTile tile = vectorTileService.getTile(z, x, y);
+        // With an ETag on the entity, Spring answers a matching If-None-Match with 304 and no body
+        return ResponseEntity.ok()
+                .eTag(tile.etag())
+                .cacheControl(CacheControl.maxAge(cacheProperties.getTiles().getMaxAge()).cachePublic())
+                .body(tile.data());
+    }
+}
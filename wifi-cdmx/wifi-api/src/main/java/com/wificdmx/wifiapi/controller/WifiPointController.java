@@ -1,8 +1,21 @@
 package com.wificdmx.wifiapi.controller;
 
+import com.wificdmx.wifiapi.dto.NearbyBatchRequestDTO;
+import com.wificdmx.wifiapi.dto.NearbyBatchResultDTO;
+import com.wificdmx.wifiapi.dto.WifiClusterResponseDTO;
+import com.wificdmx.wifiapi.dto.WifiDensityDTO;
+import com.wificdmx.wifiapi.dto.WifiPointBatchRequestDTO;
+import com.wificdmx.wifiapi.dto.WifiPointBatchResponseDTO;
 import com.wificdmx.wifiapi.dto.WifiPointDTO;
 import com.wificdmx.wifiapi.dto.WifiPointResponseDTO;
+import com.wificdmx.wifiapi.dto.WifiPointWithinResponseDTO;
+import com.wificdmx.wifiapi.dto.WifiStatisticsDTO;
+import com.wificdmx.wifiapi.export.ExportFormat;
+import com.wificdmx.wifiapi.export.WifiPointExporter;
+import com.wificdmx.wifiapi.service.DataLoaderService;
 import com.wificdmx.wifiapi.service.WifiPointService;
+import com.wificdmx.wifiapi.spatial.ClusterIndex;
+import com.wificdmx.wifiapi.tile.VectorTileService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,12 +28,22 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.stream.Stream;
 
 /**
  * REST Controller for WiFi Point operations.
@@ -34,17 +57,26 @@ import java.util.HashMap;
 public class WifiPointController {
 
     private final WifiPointService wifiPointService;
+    private final DataLoaderService dataLoaderService;
+    private final ObjectMapper objectMapper;
+    private final WifiPointExporter wifiPointExporter;
+    private final VectorTileService vectorTileService;
 
     /**
      * Get all WiFi points with pagination.
      *
+     * @param after Cursor for keyset pagination (optional)
+     * @param count Whether to include totals (page-number mode)
      * @param pageable Pagination parameters (page, size, sort)
      * @return Paginated list of WiFi points
      */
     @GetMapping
     @Operation(
             summary = "Get all WiFi points",
-            description = "Retrieves a paginated list of all WiFi access points in CDMX"
+            description = "Retrieves a paginated list of all WiFi access points in CDMX. " +
+                    "With the after parameter (empty for the first page, then the nextCursor of each response) " +
+                    "pages are read in ID order by keyset, with constant cost at any depth and without totals. " +
+                    "With count=false page-number requests skip the totals as well"
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -55,12 +87,22 @@ public class WifiPointController {
             @ApiResponse(responseCode = "400", description = "Invalid pagination parameters")
     })
     public ResponseEntity<WifiPointResponseDTO> getAllWifiPoints(
+            @RequestParam(required = false)
+            @Parameter(description = "Keyset cursor: empty for the first page, then nextCursor of the previous page")
+            String after,
+            @RequestParam(defaultValue = "true")
+            @Parameter(description = "Include totalElements and totalPages; false skips counting", example = "false")
+            boolean count,
             @PageableDefault(size = 20, sort = "puntoId")
             @Parameter(description = "Pagination parameters (page, size, sort)")
             Pageable pageable
     ) {
+        if (after != null) {
+            log.info("GET /api/v1/wifi-points - After: {}, Size: {}", after, pageable.getPageSize());
+            return ResponseEntity.ok(wifiPointService.findAllAfter(after, pageable.getPageSize()));
+        }
         log.info("GET /api/v1/wifi-points - Page: {}, Size: {}", pageable.getPageNumber(), pageable.getPageSize());
-        WifiPointResponseDTO response = wifiPointService.findAll(pageable);
+        WifiPointResponseDTO response = wifiPointService.findAll(pageable, count);
         return ResponseEntity.ok(response);
     }
 
@@ -93,17 +135,77 @@ public class WifiPointController {
         return ResponseEntity.ok(wifiPoint);
     }
 
+    /**
+     * Get many WiFi points by ID in one request.
+     *
+     * @param request IDs to look up
+     * @return WiFi points found, in request order, and the missing IDs
+     */
+    @PostMapping("/batch")
+    @Operation(
+            summary = "Get WiFi points by ID in batch",
+            description = "Looks up to " + WifiPointService.MAX_BATCH_IDS + " WiFi points by ID in one request and " +
+                    "one database query. Results follow the order of the IDs; IDs that do not exist are listed " +
+                    "in missing instead of failing the request"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Lookup completed",
+                    content = @Content(schema = @Schema(implementation = WifiPointBatchResponseDTO.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "No IDs, a blank ID, or too many IDs")
+    })
+    public ResponseEntity<WifiPointBatchResponseDTO> getWifiPointsByIds(
+            @RequestBody WifiPointBatchRequestDTO request
+    ) {
+        log.info("POST /api/v1/wifi-points/batch - IDs: {}", request.getIds() == null ? 0 : request.getIds().size());
+        return ResponseEntity.ok(wifiPointService.findByIds(request.getIds()));
+    }
+
+    /**
+     * Get many WiFi points by ID in one request, with the IDs in the query string.
+     *
+     * @param ids Comma-separated IDs to look up
+     * @return WiFi points found, in request order, and the missing IDs
+     */
+    @GetMapping("/batch")
+    @Operation(
+            summary = "Get WiFi points by ID in batch (query string)",
+            description = "Same as POST /batch with the IDs given as ids=A,B,C or repeated ids parameters. " +
+                    "Prefer POST for long lists, which may exceed URL length limits"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Lookup completed",
+                    content = @Content(schema = @Schema(implementation = WifiPointBatchResponseDTO.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "No IDs, a blank ID, or too many IDs")
+    })
+    public ResponseEntity<WifiPointBatchResponseDTO> getWifiPointsByIdsQuery(
+            @RequestParam
+            @Parameter(description = "WiFi point IDs", example = "PILARES-001,PILARES-002", required = true)
+            List<String> ids
+    ) {
+        log.info("GET /api/v1/wifi-points/batch - IDs: {}", ids.size());
+        return ResponseEntity.ok(wifiPointService.findByIds(ids));
+    }
+
     /**
      * Get WiFi points by alcaldia (borough).
      *
      * @param alcaldia Alcaldia name
+     * @param after Cursor for keyset pagination (optional)
+     * @param count Whether to include totals (page-number mode)
      * @param pageable Pagination parameters
      * @return Paginated list of WiFi points in the specified alcaldia
      */
     @GetMapping("/alcaldia/{alcaldia}")
     @Operation(
             summary = "Get WiFi points by alcaldia",
-            description = "Retrieves WiFi points filtered by alcaldia (borough) with pagination"
+            description = "Retrieves WiFi points filtered by alcaldia (borough) with pagination. " +
+                    "Supports keyset pagination with the after parameter and count=false, as the list endpoint"
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -117,13 +219,23 @@ public class WifiPointController {
             @PathVariable
             @Parameter(description = "Alcaldia name", example = "Iztapalapa")
             String alcaldia,
+            @RequestParam(required = false)
+            @Parameter(description = "Keyset cursor: empty for the first page, then nextCursor of the previous page")
+            String after,
+            @RequestParam(defaultValue = "true")
+            @Parameter(description = "Include totalElements and totalPages; false skips counting", example = "false")
+            boolean count,
             @PageableDefault(size = 20, sort = "puntoId")
             @Parameter(description = "Pagination parameters (page, size, sort)")
             Pageable pageable
     ) {
+        if (after != null) {
+            log.info("GET /api/v1/wifi-points/alcaldia/{} - After: {}, Size: {}", alcaldia, after, pageable.getPageSize());
+            return ResponseEntity.ok(wifiPointService.findByAlcaldiaAfter(alcaldia, after, pageable.getPageSize()));
+        }
         log.info("GET /api/v1/wifi-points/alcaldia/{} - Page: {}, Size: {}",
                 alcaldia, pageable.getPageNumber(), pageable.getPageSize());
-        WifiPointResponseDTO response = wifiPointService.findByAlcaldia(alcaldia, pageable);
+        WifiPointResponseDTO response = wifiPointService.findByAlcaldia(alcaldia, pageable, count);
         return ResponseEntity.ok(response);
     }
 
@@ -133,13 +245,15 @@ public class WifiPointController {
      *
      * @param lat Latitude of reference point
      * @param lon Longitude of reference point
+     * @param radiusKm Optional search radius in kilometers
      * @param pageable Pagination parameters
      * @return Paginated list of WiFi points with distance information
      */
     @GetMapping("/nearby")
     @Operation(
             summary = "Find nearby WiFi points",
-            description = "Finds WiFi points near the specified coordinates using Haversine formula. Returns results ordered by distance."
+            description = "Finds WiFi points near the specified coordinates using Haversine formula. Returns results ordered by distance. " +
+                    "When radiusKm is given, only points within that distance are returned and counted."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -156,32 +270,343 @@ public class WifiPointController {
             @RequestParam
             @Parameter(description = "Longitude (-180 to 180)", example = "-99.1332", required = true)
             Double lon,
+            @RequestParam(required = false)
+            @Parameter(description = "Search radius in kilometers (optional)", example = "1")
+            Double radiusKm,
             @PageableDefault(size = 20)
             @Parameter(description = "Pagination parameters (page, size)")
             Pageable pageable
     ) {
-        log.info("GET /api/v1/wifi-points/nearby?lat={}&lon={} - Page: {}, Size: {}",
-                lat, lon, pageable.getPageNumber(), pageable.getPageSize());
-        Page<WifiPointDTO> response = wifiPointService.findNearby(lat, lon, pageable);
+        log.info("GET /api/v1/wifi-points/nearby?lat={}&lon={}&radiusKm={} - Page: {}, Size: {}",
+                lat, lon, radiusKm, pageable.getPageNumber(), pageable.getPageSize());
+        Page<WifiPointDTO> response = wifiPointService.findNearby(lat, lon, radiusKm, pageable);
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get the WiFi points inside a rectangle, such as the viewport of a map.
+     *
+     * @param minLat Southern edge
+     * @param minLon Western edge
+     * @param maxLat Northern edge
+     * @param maxLon Eastern edge
+     * @param limit Maximum number of points to return
+     * @return WiFi points inside the rectangle, and whether the limit cut the result
+     */
+    @GetMapping("/within")
+    @Operation(
+            summary = "Find WiFi points inside a rectangle",
+            description = "Returns the WiFi points inside a latitude/longitude rectangle (edges included), such as " +
+                    "the viewport of a map, from a spatial index, so the cost grows with the points inside it. " +
+                    "At most limit points are returned (up to " + WifiPointService.MAX_WITHIN_LIMIT + "); truncated " +
+                    "is true when the rectangle holds more"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieved WiFi points",
+                    content = @Content(schema = @Schema(implementation = WifiPointWithinResponseDTO.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Invalid coordinates, swapped edges or invalid limit")
+    })
+    public ResponseEntity<WifiPointWithinResponseDTO> getWifiPointsWithin(
+            @RequestParam
+            @Parameter(description = "Southern edge (-90 to 90)", example = "19.42", required = true)
+            Double minLat,
+            @RequestParam
+            @Parameter(description = "Western edge (-180 to 180)", example = "-99.15", required = true)
+            Double minLon,
+            @RequestParam
+            @Parameter(description = "Northern edge (-90 to 90)", example = "19.44", required = true)
+            Double maxLat,
+            @RequestParam
+            @Parameter(description = "Eastern edge (-180 to 180)", example = "-99.12", required = true)
+            Double maxLon,
+            @RequestParam(defaultValue = "1000")
+            @Parameter(description = "Maximum number of points to return", example = "1000")
+            int limit
+    ) {
+        log.info("GET /api/v1/wifi-points/within?minLat={}&minLon={}&maxLat={}&maxLon={}&limit={}",
+                minLat, minLon, maxLat, maxLon, limit);
+        return ResponseEntity.ok(wifiPointService.findWithin(minLat, minLon, maxLat, maxLon, limit));
+    }
+
+    /**
+     * Find the clusters of WiFi points to draw in a map viewport at a zoom level.
+     *
+     * @param minLat Southern edge
+     * @param minLon Western edge
+     * @param maxLat Northern edge
+     * @param maxLon Eastern edge
+     * @param zoom Map zoom level
+     * @param limit Maximum number of clusters to return
+     * @return Clusters inside the rectangle, and whether the limit cut the result
+     */
+    @GetMapping("/clusters")
+    @Operation(
+            summary = "Find clusters of WiFi points for a map viewport",
+            description = "Groups the WiFi points by Web Mercator grid cells of 64 pixels at the given zoom level and " +
+                    "returns the clusters whose position (the mean of their points) is inside the rectangle, with the " +
+                    "number of points of each; a single-point cluster includes the point. Clusters are precomputed for " +
+                    "zoom levels up to " + ClusterIndex.MAX_ZOOM + "; beyond it every point is returned on its own"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieved clusters",
+                    content = @Content(schema = @Schema(implementation = WifiClusterResponseDTO.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Invalid coordinates, swapped edges, or invalid zoom or limit")
+    })
+    public ResponseEntity<WifiClusterResponseDTO> getWifiPointClusters(
+            @RequestParam
+            @Parameter(description = "Southern edge (-90 to 90)", example = "19.05", required = true)
+            Double minLat,
+            @RequestParam
+            @Parameter(description = "Western edge (-180 to 180)", example = "-99.37", required = true)
+            Double minLon,
+            @RequestParam
+            @Parameter(description = "Northern edge (-90 to 90)", example = "19.60", required = true)
+            Double maxLat,
+            @RequestParam
+            @Parameter(description = "Eastern edge (-180 to 180)", example = "-98.94", required = true)
+            Double maxLon,
+            @RequestParam
+            @Parameter(description = "Map zoom level (0 to " + WifiPointService.MAX_ZOOM + ")", example = "11", required = true)
+            int zoom,
+            @RequestParam(defaultValue = "1000")
+            @Parameter(description = "Maximum number of clusters to return", example = "1000")
+            int limit
+    ) {
+        log.info("GET /api/v1/wifi-points/clusters?minLat={}&minLon={}&maxLat={}&maxLon={}&zoom={}&limit={}",
+                minLat, minLon, maxLat, maxLon, zoom, limit);
+        return ResponseEntity.ok(wifiPointService.findClusters(minLat, minLon, maxLat, maxLon, zoom, limit));
+    }
+
+    /**
+     * Find the number of WiFi points in each cell of a grid covering a rectangle, for heatmaps.
+     *
+     * @param minLat Southern edge
+     * @param minLon Western edge
+     * @param maxLat Northern edge
+     * @param maxLon Eastern edge
+     * @param step Grid cells merged along each axis
+     * @param programa Programa to count, or every point if absent
+     * @param format json, or binary for the counts as little-endian 32-bit integers with the grid in headers
+     * @return Density grid
+     */
+    @GetMapping("/density")
+    @Operation(
+            summary = "Find the density of WiFi points for a heatmap",
+            description = "Counts the WiFi points in each cell of a latitude/longitude grid covering the rectangle, " +
+                    "in total or for one programa. Counts are precomputed in memory after every data load, so the " +
+                    "query costs as much as the cells returned; step merges step x step grid cells into one. With " +
+                    "format=binary the body is the counts as little-endian 32-bit integers, row by row from the " +
+                    "north-west, and the grid is described by the X-Density-* headers"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully computed the density grid",
+                    content = @Content(schema = @Schema(implementation = WifiDensityDTO.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Invalid coordinates, swapped edges, invalid step, " +
+                    "unknown programa or format, or more than " + WifiPointService.MAX_DENSITY_CELLS + " cells")
+    })
+    public ResponseEntity<?> getWifiPointDensity(
+            @RequestParam
+            @Parameter(description = "Southern edge (-90 to 90)", example = "19.05", required = true)
+            Double minLat,
+            @RequestParam
+            @Parameter(description = "Western edge (-180 to 180)", example = "-99.37", required = true)
+            Double minLon,
+            @RequestParam
+            @Parameter(description = "Northern edge (-90 to 90)", example = "19.60", required = true)
+            Double maxLat,
+            @RequestParam
+            @Parameter(description = "Eastern edge (-180 to 180)", example = "-98.94", required = true)
+            Double maxLon,
+            @RequestParam(defaultValue = "1")
+            @Parameter(description = "Grid cells merged along each axis", example = "4")
+            int step,
+            @RequestParam(required = false)
+            @Parameter(description = "Programa to count, ignoring case and accents", example = "Pilares")
+            String programa,
+            @RequestParam(defaultValue = "json")
+            @Parameter(description = "Response format: json or binary", example = "json")
+            String format
+    ) {
+        log.info("GET /api/v1/wifi-points/density?minLat={}&minLon={}&maxLat={}&maxLon={}&step={}&programa={}&format={}",
+                minLat, minLon, maxLat, maxLon, step, programa, format);
+        if (!format.equalsIgnoreCase("json") && !format.equalsIgnoreCase("binary")) {
+            throw new IllegalArgumentException("Unknown density format: " + format + " (expected json or binary)");
+        }
+        WifiDensityDTO density = wifiPointService.findDensity(minLat, minLon, maxLat, maxLon, step, programa);
+        if (format.equalsIgnoreCase("json")) {
+            return ResponseEntity.ok(density);
+        }
+
+        ByteBuffer body = ByteBuffer.allocate(density.getCounts().length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        body.asIntBuffer().put(density.getCounts());
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header("X-Density-Rows", String.valueOf(density.getRows()))
+                .header("X-Density-Cols", String.valueOf(density.getCols()))
+                .header("X-Density-Min-Lat", String.valueOf(density.getMinLat()))
+                .header("X-Density-Min-Lon", String.valueOf(density.getMinLon()))
+                .header("X-Density-Cell-Degrees", String.valueOf(density.getCellDegrees()))
+                .header("X-Density-Total", String.valueOf(density.getTotal()))
+                .header("X-Density-Max", String.valueOf(density.getMax()))
+                .body(body.array());
+    }
+
+    /**
+     * Get the number of WiFi points per alcaldia and programa.
+     *
+     * @return Counts, bounding boxes and centroids of the whole city, each alcaldia and each programa
+     */
+    @GetMapping("/stats")
+    @Operation(
+            summary = "Get WiFi point statistics",
+            description = "Returns the number of WiFi points, their bounding box and centroid for the whole city, " +
+                    "per alcaldia and per programa, largest first, and the number of points of each programa " +
+                    "within every alcaldia. Statistics are computed in memory after every data load"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieved statistics",
+                    content = @Content(schema = @Schema(implementation = WifiStatisticsDTO.class))
+            )
+    })
+    public ResponseEntity<WifiStatisticsDTO> getWifiPointStatistics() {
+        log.info("GET /api/v1/wifi-points/stats");
+        return ResponseEntity.ok(wifiPointService.getStatistics());
+    }
+
+    /**
+     * Find nearby WiFi points for many origins in one request.
+     * Origins are validated before the response starts; results are then streamed as
+     * newline-delimited JSON, one line per origin in request order, while later origins
+     * are still being searched.
+     *
+     * @param request Origins with the number of points to return and an optional radius
+     * @return NDJSON stream of {@link NearbyBatchResultDTO}
+     */
+    @PostMapping(value = "/nearby/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Find nearby WiFi points for many origins",
+            description = "Answers up to " + WifiPointService.MAX_NEARBY_ORIGINS + " origins, each with its own k " +
+                    "(1 to " + WifiPointService.MAX_NEARBY_K + ", default 1) and optional radiusKm, in one request. " +
+                    "Origins are searched in parallel against the in-memory index and results are streamed as " +
+                    "newline-delimited JSON, one line per origin in request order"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "One JSON line per origin",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = NearbyBatchResultDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "No origins, too many, or an invalid origin")
+    })
+    public ResponseEntity<StreamingResponseBody> getNearbyWifiPointsBatch(
+            @RequestBody NearbyBatchRequestDTO request
+    ) {
+        log.info("POST /api/v1/wifi-points/nearby/batch - Origins: {}",
+                request.getOrigins() == null ? 0 : request.getOrigins().size());
+        Stream<NearbyBatchResultDTO> results = wifiPointService.findNearbyBatch(request.getOrigins());
+
+        StreamingResponseBody body = outputStream -> {
+            try (results) {
+                Iterator<NearbyBatchResultDTO> iterator = results.iterator();
+                while (iterator.hasNext()) {
+                    outputStream.write(objectMapper.writeValueAsBytes(iterator.next()));
+                    outputStream.write('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Export every WiFi point in one streamed response.
+     * Rows are written as they are read, so the response starts at once and memory use does
+     * not depend on the number of points.
+     *
+     * @param format ndjson, csv or geojson
+     * @return Streamed document, offered as a file download
+     */
+    @GetMapping("/export")
+    @Operation(
+            summary = "Export all WiFi points",
+            description = "Streams every WiFi point in ID order as NDJSON (one object per line), CSV with a header " +
+                    "row, or a GeoJSON FeatureCollection. Intended for mirroring the dataset instead of paging through it"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export streamed"),
+            @ApiResponse(responseCode = "400", description = "Unknown format")
+    })
+    public ResponseEntity<StreamingResponseBody> exportWifiPoints(
+            @RequestParam(defaultValue = "ndjson")
+            @Parameter(description = "Export format: ndjson, csv or geojson", example = "csv")
+            String format
+    ) {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        log.info("GET /api/v1/wifi-points/export - Format: {}", exportFormat);
+
+        StreamingResponseBody body = outputStream -> wifiPointExporter.export(exportFormat, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("wifi-points." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
     /**
      * Health check endpoint to verify API is running.
+     * While the startup data load is running, status is LOADING and progress reports the
+     * percentage imported; the endpoint still answers 200 so the container is not restarted.
+     * A reload of data already served keeps status UP.
      *
      * @return Simple status message
      */
     @GetMapping("/health")
     @Operation(
             summary = "Health check",
-            description = "Verifies that the API is running properly"
+            description = "Verifies that the API is running properly. Status is UP once the data is loaded, " +
+                    "LOADING with a progress percentage while the initial import runs, or LOAD_FAILED. " +
+                    "While a reload runs, status stays UP and reloading is reported with its progress. " +
+                    "Also reports the cache statistics and the version and size of the in-memory dataset"
     )
-    @ApiResponse(responseCode = "200", description = "API is healthy")
+    @ApiResponse(responseCode = "200", description = "API is running")
     public ResponseEntity<Map<String, Object>> healthCheck() {
         Map<String, Object> response = new HashMap<>();
-        response.put("status", "UP");
+        switch (dataLoaderService.getState()) {
+            case READY -> {
+                response.put("status", "UP");
+                if (dataLoaderService.isRunning()) {
+                    response.put("reloading", true);
+                    response.put("progress", dataLoaderService.getRunningProgressPercent());
+                }
+            }
+            case FAILED -> response.put("status", "LOAD_FAILED");
+            default -> {
+                response.put("status", "LOADING");
+                response.put("progress", dataLoaderService.getProgressPercent());
+            }
+        }
         response.put("message", "WiFi CDMX API is running");
         response.put("totalPoints", wifiPointService.count());
+        response.put("cache", wifiPointService.getCacheStats());
+        response.put("nearbyCache", wifiPointService.getNearbyCacheStats());
+        response.put("countCache", wifiPointService.getCountCacheStats());
+        response.put("store", wifiPointService.getStoreStats());
+        response.put("tileCache", vectorTileService.getCacheStats());
         response.put("developer", "Osvaldo González");
 
         return ResponseEntity.ok(response);
@@ -0,0 +1,23 @@
+package com.wificdmx.wifiapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request body of a multi-origin nearby search.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyBatchRequestDTO {
+
+    /**
+     * Origins to search around, answered in this order
+     */
+    private List<NearbyOriginDTO> origins;
+}
@@ -0,0 +1,38 @@
+package com.wificdmx.wifiapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Answer for one origin of a multi-origin nearby search, written as one NDJSON line.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyBatchResultDTO {
+
+    /**
+     * Position of the origin in the request (zero-based)
+     */
+    private int index;
+
+    /**
+     * Latitude of the origin
+     */
+    private double lat;
+
+    /**
+     * Longitude of the origin
+     */
+    private double lon;
+
+    /**
+     * Nearest WiFi points, closest first, with {@code distancia} in kilometers
+     */
+    private List<WifiPointDTO> results;
+}
@@ -0,0 +1,36 @@
+package com.wificdmx.wifiapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One origin of a multi-origin nearby search.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyOriginDTO {
+
+    /**
+     * Latitude of the origin
+     */
+    private Double lat;
+
+    /**
+     * Longitude of the origin
+     */
+    private Double lon;
+
+    /**
+     * Number of nearest WiFi points to return; 1 when not given
+     */
+    private Integer k;
+
+    /**
+     * Maximum distance in kilometers (optional)
+     */
+    private Double radiusKm;
+}
@@ -0,0 +1,66 @@
+package com.wificdmx.wifiapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Number of WiFi points of a group (the whole city, an alcaldia or a programa), with the rectangle
+ * that holds them and their centroid.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WifiAreaStatisticsDTO {
+
+    /**
+     * Alcaldia or programa name; absent for the whole city
+     */
+    private String name;
+
+    /**
+     * Number of WiFi points
+     */
+    private long count;
+
+    /**
+     * Southern edge of the points
+     */
+    private double minLat;
+
+    /**
+     * Western edge of the points
+     */
+    private double minLon;
+
+    /**
+     * Northern edge of the points
+     */
+    private double maxLat;
+
+    /**
+     * Eastern edge of the points
+     */
+    private double maxLon;
+
+    /**
+     * Mean latitude of the points
+     */
+    private double latitud;
+
+    /**
+     * Mean longitude of the points
+     */
+    private double longitud;
+
+    /**
+     * Number of points per programa, largest first; only for alcaldias
+     */
+    private Map<String, Long> programas;
+}
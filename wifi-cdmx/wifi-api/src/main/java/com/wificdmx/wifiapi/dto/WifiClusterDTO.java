@@ -0,0 +1,39 @@
+package com.wificdmx.wifiapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cluster of WiFi points to draw on a map at a given zoom level.
+ * A cluster of a single point carries that point, so the client can draw it as a marker.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WifiClusterDTO {
+
+    /**
+     * Mean latitude of the WiFi points of the cluster
+     */
+    private double latitud;
+
+    /**
+     * Mean longitude of the WiFi points of the cluster
+     */
+    private double longitud;
+
+    /**
+     * Number of WiFi points in the cluster
+     */
+    private int count;
+
+    /**
+     * The WiFi point, when the cluster holds only one
+     */
+    private WifiPointDTO point;
+}
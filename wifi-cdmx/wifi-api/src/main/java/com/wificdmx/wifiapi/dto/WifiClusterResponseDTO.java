@@ -0,0 +1,54 @@
+package com.wificdmx.wifiapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Clusters of WiFi points inside a map viewport at a zoom level.
+ * Beyond the deepest clustered zoom, {@code clustered} is false and every item is a single point.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WifiClusterResponseDTO {
+
+    /**
+     * Clusters whose position is inside the rectangle, in no particular order
+     */
+    private List<WifiClusterDTO> content;
+
+    /**
+     * Zoom level requested
+     */
+    private int zoom;
+
+    /**
+     * Whether points were grouped; false when every item is a single point
+     */
+    private boolean clustered;
+
+    /**
+     * Number of clusters returned
+     */
+    private int count;
+
+    /**
+     * Number of WiFi points in the clusters returned
+     */
+    private long points;
+
+    /**
+     * Maximum number of clusters requested
+     */
+    private int limit;
+
+    /**
+     * Whether the rectangle holds more clusters than were returned
+     */
+    private boolean truncated;
+}
@@ -0,0 +1,74 @@
+package com.wificdmx.wifiapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Density grid of WiFi points: the number of points in each cell of a latitude/longitude grid
+ * covering a rectangle, for drawing heatmaps.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WifiDensityDTO {
+
+    /**
+     * Southern edge of the grid
+     */
+    private double minLat;
+
+    /**
+     * Western edge of the grid
+     */
+    private double minLon;
+
+    /**
+     * Northern edge of the grid
+     */
+    private double maxLat;
+
+    /**
+     * Eastern edge of the grid
+     */
+    private double maxLon;
+
+    /**
+     * Side of a cell in degrees
+     */
+    private double cellDegrees;
+
+    /**
+     * Number of rows, from north to south
+     */
+    private int rows;
+
+    /**
+     * Number of columns, from west to east
+     */
+    private int cols;
+
+    /**
+     * Programa counted; absent when every point is
+     */
+    private String programa;
+
+    /**
+     * Number of WiFi points in the grid
+     */
+    private long total;
+
+    /**
+     * Largest count of a cell
+     */
+    private int max;
+
+    /**
+     * Points per cell, row by row from the north-western cell: cell (row, col) is at {@code row * cols + col}
+     */
+    private int[] counts;
+}
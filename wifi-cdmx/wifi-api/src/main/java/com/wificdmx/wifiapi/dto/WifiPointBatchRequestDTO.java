@@ -0,0 +1,23 @@
+package com.wificdmx.wifiapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request body for looking up many WiFi points by ID in one call.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WifiPointBatchRequestDTO {
+
+    /**
+     * IDs of the WiFi points to look up
+     */
+    private List<String> ids;
+}
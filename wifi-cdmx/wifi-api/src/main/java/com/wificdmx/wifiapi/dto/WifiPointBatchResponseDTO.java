@@ -0,0 +1,40 @@
+package com.wificdmx.wifiapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response of a batch lookup by ID.
+ * Found WiFi points are listed in the order their IDs were requested; IDs that do not
+ * exist are listed in {@code missing} instead of failing the whole request.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WifiPointBatchResponseDTO {
+
+    /**
+     * WiFi points found, in request order; an ID requested twice appears once
+     */
+    private List<WifiPointDTO> content;
+
+    /**
+     * Requested IDs that do not exist, in request order
+     */
+    private List<String> missing;
+
+    /**
+     * Number of distinct IDs requested
+     */
+    private int requested;
+
+    /**
+     * Number of WiFi points found
+     */
+    private int found;
+}
@@ -1,5 +1,6 @@
 package com.wificdmx.wifiapi.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -10,8 +11,12 @@ import java.util.List;
 /**
  * Response wrapper for paginated WiFi Point queries.
  * Contains the list of WiFi points and pagination metadata.
+ * Pages requested with a cursor ({@code after}) carry {@code nextCursor} instead of the
+ * page number and totals, and pages requested without totals ({@code count=false}) have no
+ * totals; fields that are not set are left out of the JSON.
  */
 @Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -25,17 +30,17 @@ public class WifiPointResponseDTO {
     /**
      * Total number of elements across all pages
      */
-    private int totalElements;
+    private Integer totalElements;
 
     /**
      * Total number of pages
      */
-    private int totalPages;
+    private Integer totalPages;
 
     /**
      * Current page number (zero-based)
      */
-    private int currentPage;
+    private Integer currentPage;
 
     /**
      * Number of elements in the current page
@@ -51,4 +56,9 @@ public class WifiPointResponseDTO {
      * Whether this is the last page
      */
     private boolean last;
+
+    /**
+     * Cursor for the next page in keyset mode; null on the last page and in page-number mode
+     */
+    private String nextCursor;
 }
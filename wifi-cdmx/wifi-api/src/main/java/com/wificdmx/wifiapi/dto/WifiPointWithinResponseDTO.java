@@ -0,0 +1,40 @@
+package com.wificdmx.wifiapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * WiFi points inside a map viewport.
+ * At most {@code limit} points are returned; {@code truncated} tells the client that the
+ * rectangle holds more and that it should zoom in (or ask for clusters) to see them all.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WifiPointWithinResponseDTO {
+
+    /**
+     * WiFi points inside the rectangle, in no particular order
+     */
+    private List<WifiPointDTO> content;
+
+    /**
+     * Number of WiFi points returned
+     */
+    private int count;
+
+    /**
+     * Maximum number of WiFi points requested
+     */
+    private int limit;
+
+    /**
+     * Whether the rectangle holds more WiFi points than were returned
+     */
+    private boolean truncated;
+}
@@ -0,0 +1,46 @@
+package com.wificdmx.wifiapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Aggregated statistics of the WiFi points: counts, bounding boxes and centroids for the whole city,
+ * per alcaldia, per programa, and per programa within each alcaldia.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WifiStatisticsDTO {
+
+    /**
+     * Where the statistics were computed: dataset or database
+     */
+    private String source;
+
+    /**
+     * Version of the dataset they were computed with; absent when computed in the database
+     */
+    private Long version;
+
+    /**
+     * Every WiFi point; absent when there are none
+     */
+    private WifiAreaStatisticsDTO total;
+
+    /**
+     * Alcaldias, largest first
+     */
+    private List<WifiAreaStatisticsDTO> alcaldias;
+
+    /**
+     * Programas, largest first
+     */
+    private List<WifiAreaStatisticsDTO> programas;
+}
@@ -0,0 +1,66 @@
+package com.wificdmx.wifiapi.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes WiFi points as UTF-8 CSV with a header row.
+ * Fields containing a comma, a quote or a line break are quoted, with quotes doubled (RFC 4180).
+ */
+final class CsvExportWriter implements WifiPointExportWriter {
+
+    private static final String HEADER = "puntoId,programa,latitud,longitud,alcaldia";
+
+    private final Writer writer;
+
+    CsvExportWriter(OutputStream outputStream) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        try {
+            writer.write(HEADER);
+            writer.write("\r\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void write(String puntoId, String programa, double latitud, double longitud, String alcaldia)
+            throws IOException {
+        writeField(puntoId);
+        writer.write(',');
+        writeField(programa);
+        writer.write(',');
+        writer.write(Double.toString(latitud));
+        writer.write(',');
+        writer.write(Double.toString(longitud));
+        writer.write(',');
+        writeField(alcaldia);
+        writer.write("\r\n");
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    /**
+     * Flushes the buffered rows; the underlying stream stays open.
+     */
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+}
@@ -0,0 +1,86 @@
+package com.wificdmx.wifiapi.export;
+
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.OutputStream;
+import java.util.Locale;
+
+/**
+ * Formats of the full-dataset export.
+ */
+public enum ExportFormat {
+
+    /**
+     * One JSON object per line
+     */
+    NDJSON("application/x-ndjson", "ndjson") {
+        @Override
+        public WifiPointExportWriter open(OutputStream outputStream, ObjectMapper objectMapper) {
+            return new NdjsonExportWriter(outputStream, objectMapper);
+        }
+    },
+
+    /**
+     * Comma-separated values with a header row (RFC 4180)
+     */
+    CSV("text/csv", "csv") {
+        @Override
+        public WifiPointExportWriter open(OutputStream outputStream, ObjectMapper objectMapper) {
+            return new CsvExportWriter(outputStream);
+        }
+    },
+
+    /**
+     * GeoJSON FeatureCollection of Point features
+     */
+    GEOJSON("application/geo+json", "geojson") {
+        @Override
+        public WifiPointExportWriter open(OutputStream outputStream, ObjectMapper objectMapper) {
+            return new GeoJsonExportWriter(outputStream, objectMapper);
+        }
+    };
+
+    private final String mediaType;
+    private final String extension;
+
+    ExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    /**
+     * Starts a document in this format.
+     *
+     * @param outputStream Stream to write to; not closed by the writer
+     * @param objectMapper Mapper whose settings the JSON formats use
+     * @return Writer for the rows of the document
+     */
+    public abstract WifiPointExportWriter open(OutputStream outputStream, ObjectMapper objectMapper);
+
+    /**
+     * @return Content type of the document
+     */
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * @return File extension, without the dot
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * @param name Format name, ignoring case
+     * @return Matching format
+     * @throws IllegalArgumentException if the name is not a known format
+     */
+    public static ExportFormat of(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Unknown export format '" + name + "'. Expected ndjson, csv or geojson");
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.wificdmx.wifiapi.export;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes a GeoJSON FeatureCollection with one Point feature per WiFi point.
+ * Coordinates are {@code [longitud, latitud]}, as GeoJSON requires; the other fields are properties.
+ */
+final class GeoJsonExportWriter implements WifiPointExportWriter {
+
+    private final JsonGenerator generator;
+
+    GeoJsonExportWriter(OutputStream outputStream, ObjectMapper objectMapper) {
+        this.generator = objectMapper.writer()
+                .without(StreamWriteFeature.AUTO_CLOSE_TARGET)
+                .createGenerator(outputStream);
+        generator.writeStartObject();
+        generator.writeStringProperty("type", "FeatureCollection");
+        generator.writeArrayPropertyStart("features");
+    }
+
+    @Override
+    public void write(String puntoId, String programa, double latitud, double longitud, String alcaldia) {
+        generator.writeStartObject();
+        generator.writeStringProperty("type", "Feature");
+        generator.writeObjectPropertyStart("geometry");
+        generator.writeStringProperty("type", "Point");
+        generator.writeArrayPropertyStart("coordinates");
+        generator.writeNumber(longitud);
+        generator.writeNumber(latitud);
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeObjectPropertyStart("properties");
+        generator.writeStringProperty("puntoId", puntoId);
+        generator.writeStringProperty("programa", programa);
+        generator.writeStringProperty("alcaldia", alcaldia);
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.close();
+    }
+}
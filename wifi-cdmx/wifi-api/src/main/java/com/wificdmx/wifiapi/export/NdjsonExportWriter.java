@@ -0,0 +1,40 @@
+package com.wificdmx.wifiapi.export;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes each WiFi point as a JSON object on its own line, with the fields of {@code WifiPointDTO}.
+ */
+final class NdjsonExportWriter implements WifiPointExportWriter {
+
+    private final JsonGenerator generator;
+
+    NdjsonExportWriter(OutputStream outputStream, ObjectMapper objectMapper) {
+        this.generator = objectMapper.writer()
+                .without(StreamWriteFeature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("")
+                .createGenerator(outputStream);
+    }
+
+    @Override
+    public void write(String puntoId, String programa, double latitud, double longitud, String alcaldia) {
+        generator.writeStartObject();
+        generator.writeStringProperty("puntoId", puntoId);
+        generator.writeStringProperty("programa", programa);
+        generator.writeNumberProperty("latitud", latitud);
+        generator.writeNumberProperty("longitud", longitud);
+        generator.writeStringProperty("alcaldia", alcaldia);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
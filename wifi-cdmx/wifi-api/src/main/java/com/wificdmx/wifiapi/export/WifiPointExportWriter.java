@@ -0,0 +1,23 @@
+package com.wificdmx.wifiapi.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes WiFi points to an export one at a time, so nothing but the current row is held in memory.
+ * Closing the writer ends the document and flushes it, but leaves the underlying stream open.
+ */
+public interface WifiPointExportWriter extends Closeable {
+
+    /**
+     * Appends one WiFi point.
+     *
+     * @param puntoId Unique identifier
+     * @param programa Program name
+     * @param latitud Latitude
+     * @param longitud Longitude
+     * @param alcaldia Alcaldia name
+     * @throws IOException if the output cannot be written
+     */
+    void write(String puntoId, String programa, double latitud, double longitud, String alcaldia) throws IOException;
+}
@@ -0,0 +1,108 @@
+package com.wificdmx.wifiapi.export;
+
+import com.wificdmx.wifiapi.model.WifiPoint;
+import com.wificdmx.wifiapi.repository.WifiPointRepository;
+import com.wificdmx.wifiapi.store.PointTable;
+import com.wificdmx.wifiapi.store.WifiDataset;
+import com.wificdmx.wifiapi.store.WifiPointStore;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.exc.JacksonIOException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Streams every WiFi point, in ID order, to an {@link ExportFormat} document.
+ *
+ * Rows are written as they are read, so memory use does not grow with the number of points.
+ * Once the dataset is built its rows are written straight from the columns of one version;
+ * otherwise they are read through a forward-only database cursor ({@code fetchSize} rows per
+ * round trip, inside a read-only transaction) and each entity is detached once written.
+ */
+@Component
+@Slf4j
+public class WifiPointExporter {
+
+    private final WifiPointStore wifiPointStore;
+    private final WifiPointRepository wifiPointRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    public WifiPointExporter(WifiPointStore wifiPointStore,
+                             WifiPointRepository wifiPointRepository,
+                             EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper) {
+        this.wifiPointStore = wifiPointStore;
+        this.wifiPointRepository = wifiPointRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Writes the whole dataset.
+     *
+     * @param format Document format
+     * @param outputStream Stream to write to; flushed but not closed
+     * @return Number of WiFi points written
+     * @throws IOException if the output cannot be written, for example because the client disconnected
+     */
+    public long export(ExportFormat format, OutputStream outputStream) throws IOException {
+        long start = System.currentTimeMillis();
+        Optional<WifiDataset> dataset = wifiPointStore.snapshot();
+        long rows;
+        try (WifiPointExportWriter writer = format.open(outputStream, objectMapper)) {
+            rows = dataset.isPresent() ? exportDataset(dataset.get().table(), writer) : exportDatabase(writer);
+        } catch (JacksonIOException e) {
+            // JSON generators report write failures unchecked; rethrow the stream's own exception
+            throw e.getCause();
+        }
+        log.info("Exported {} WiFi points as {} from the {} in {} ms", rows, format,
+                dataset.isPresent() ? "dataset v" + dataset.get().version() : "database", System.currentTimeMillis() - start);
+        return rows;
+    }
+
+    private static long exportDataset(PointTable table, WifiPointExportWriter writer) throws IOException {
+        for (int row = 0; row < table.size(); row++) {
+            writer.write(table.puntoId(row), table.programa(row), table.lat(row), table.lon(row), table.alcaldia(row));
+        }
+        return table.size();
+    }
+
+    private long exportDatabase(WifiPointExportWriter writer) throws IOException {
+        try {
+            Long rows = transactionTemplate.execute(status -> {
+                long count = 0;
+                try (Stream<WifiPoint> wifiPoints = wifiPointRepository.streamAllInIdOrder()) {
+                    Iterator<WifiPoint> iterator = wifiPoints.iterator();
+                    while (iterator.hasNext()) {
+                        WifiPoint wifiPoint = iterator.next();
+                        writer.write(wifiPoint.getPuntoId(), wifiPoint.getPrograma(), wifiPoint.getLatitud(),
+                                wifiPoint.getLongitud(), wifiPoint.getAlcaldia());
+                        // Written rows are not kept in the persistence context
+                        entityManager.detach(wifiPoint);
+                        count++;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return count;
+            });
+            return rows != null ? rows : 0;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.wificdmx.wifiapi.loader;
+
+import com.wificdmx.wifiapi.model.WifiPoint;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Base class for bulk writers: runs {@link #doWriteChunk(List)} inside a transaction of its own.
+ */
+public abstract class AbstractTransactionalBulkWriter implements WifiPointBulkWriter {
+
+    private final TransactionTemplate transactionTemplate;
+
+    protected AbstractTransactionalBulkWriter(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public int writeChunk(List<WifiPoint> chunk) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        Integer written = transactionTemplate.execute(status -> doWriteChunk(chunk));
+        return written != null ? written : 0;
+    }
+
+    /**
+     * Writes every WiFi point of the chunk. Called with a transaction already open.
+     *
+     * @param chunk Non-empty list of WiFi points
+     * @return Number of WiFi points written
+     */
+    protected abstract int doWriteChunk(List<WifiPoint> chunk);
+}
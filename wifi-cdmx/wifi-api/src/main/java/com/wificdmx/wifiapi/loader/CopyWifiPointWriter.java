@@ -0,0 +1,106 @@
+package com.wificdmx.wifiapi.loader;
+
+import com.wificdmx.wifiapi.model.WifiPoint;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Bulk writer based on PostgreSQL {@code COPY FROM STDIN} through the driver's CopyManager.
+ * Each chunk is encoded as CSV and sent as one COPY operation, so neither the client nor
+ * the server handles individual INSERT statements.
+ * This is the default writer ({@code wifi.loader.writer=copy}).
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "wifi.loader.writer", havingValue = "copy", matchIfMissing = true)
+public class CopyWifiPointWriter extends AbstractTransactionalBulkWriter {
+
+    private static final String COPY_SQL =
+            "COPY wifi_points (punto_id, programa, latitud, longitud, alcaldia, alcaldia_key, row_hash, created_at, updated_at) " +
+            "FROM STDIN WITH (FORMAT csv)";
+
+    private final DataSource dataSource;
+
+    public CopyWifiPointWriter(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        super(transactionManager);
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    protected int doWriteChunk(List<WifiPoint> chunk) {
+        // Transaction-bound connection, released by the transaction manager on completion
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        String now = LocalDateTime.now().toString();
+
+        StringBuilder buffer = new StringBuilder(chunk.size() * 96);
+        for (WifiPoint wifiPoint : chunk) {
+            appendCsvRow(buffer, wifiPoint, now);
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+
+        try {
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+            try {
+                copyIn.writeToCopy(bytes, 0, bytes.length);
+                long copied = copyIn.endCopy();
+                log.debug("COPY stored {} WiFi points", copied);
+                return chunk.size();
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("COPY into wifi_points failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "copy";
+    }
+
+    private static void appendCsvRow(StringBuilder buffer, WifiPoint wifiPoint, String now) {
+        appendCsvText(buffer, wifiPoint.getPuntoId());
+        buffer.append(',');
+        appendCsvText(buffer, wifiPoint.getPrograma());
+        buffer.append(',').append(wifiPoint.getLatitud());
+        buffer.append(',').append(wifiPoint.getLongitud());
+        buffer.append(',');
+        appendCsvText(buffer, wifiPoint.getAlcaldia());
+        buffer.append(',');
+        appendCsvText(buffer, wifiPoint.getAlcaldiaKey());
+        buffer.append(',');
+        if (wifiPoint.getRowHash() != null) {
+            // An empty unquoted field is NULL in COPY csv format
+            buffer.append(wifiPoint.getRowHash());
+        }
+        buffer.append(',').append(now);
+        buffer.append(',').append(now);
+        buffer.append('\n');
+    }
+
+    private static void appendCsvText(StringBuilder buffer, String value) {
+        buffer.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                buffer.append('"');
+            }
+            buffer.append(c);
+        }
+        buffer.append('"');
+    }
+}
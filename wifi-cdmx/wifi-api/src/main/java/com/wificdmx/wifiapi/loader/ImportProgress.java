@@ -0,0 +1,50 @@
+package com.wificdmx.wifiapi.loader;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of a running import or sync, updated by the loader threads and read by other threads.
+ * The expected row count comes from the sheet dimension and includes invalid rows,
+ * so it is an upper bound of the rows that will be processed.
+ */
+public class ImportProgress {
+
+    private volatile long expectedRows = -1;
+    private final AtomicLong processedRows = new AtomicLong();
+
+    void expectRows(long rows) {
+        this.expectedRows = rows;
+    }
+
+    void addProcessed(long rows) {
+        processedRows.addAndGet(rows);
+    }
+
+    /**
+     * @return Data rows declared by the file, or -1 while unknown
+     */
+    public long getExpectedRows() {
+        return expectedRows;
+    }
+
+    /**
+     * @return WiFi points committed by a full load, or compared by a sync, so far
+     */
+    public long getProcessedRows() {
+        return processedRows.get();
+    }
+
+    /**
+     * Percentage of the expected rows already processed. Stays below 100 until the import
+     * is reported complete, since invalid rows are never processed.
+     *
+     * @return Progress from 0 to 99, or 0 while the row count is unknown
+     */
+    public int percent() {
+        long expected = expectedRows;
+        if (expected <= 0) {
+            return 0;
+        }
+        return (int) Math.min(99, processedRows.get() * 100 / expected);
+    }
+}
@@ -0,0 +1,61 @@
+package com.wificdmx.wifiapi.loader;
+
+import com.wificdmx.wifiapi.model.WifiPoint;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Bulk writer based on JDBC batched INSERTs, bypassing Hibernate's per-entity
+ * merge checks. Combined with {@code reWriteBatchedInserts=true} in the JDBC URL the
+ * driver sends each batch as multi-row INSERT statements.
+ * Enable it with {@code wifi.loader.writer=jdbc-batch}.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "wifi.loader.writer", havingValue = "jdbc-batch")
+public class JdbcBatchWifiPointWriter extends AbstractTransactionalBulkWriter {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO wifi_points (punto_id, programa, latitud, longitud, alcaldia, alcaldia_key, row_hash, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcBatchWifiPointWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        super(transactionManager);
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    protected int doWriteChunk(List<WifiPoint> chunk) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, chunk, chunk.size(), (ps, wifiPoint) -> {
+            ps.setString(1, wifiPoint.getPuntoId());
+            ps.setString(2, wifiPoint.getPrograma());
+            ps.setDouble(3, wifiPoint.getLatitud());
+            ps.setDouble(4, wifiPoint.getLongitud());
+            ps.setString(5, wifiPoint.getAlcaldia());
+            ps.setString(6, wifiPoint.getAlcaldiaKey());
+            ps.setObject(7, wifiPoint.getRowHash(), Types.BIGINT);
+            ps.setTimestamp(8, now);
+            ps.setTimestamp(9, now);
+        });
+        log.debug("Inserted batch of {} WiFi points", chunk.size());
+        return chunk.size();
+    }
+
+    @Override
+    public String getName() {
+        return "jdbc-batch";
+    }
+}
@@ -0,0 +1,63 @@
+package com.wificdmx.wifiapi.loader;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+
+/**
+ * Measures elapsed time, throughput and peak heap usage of a data load phase.
+ * Peak heap is the sum of the peak usage of every heap memory pool since {@link #start()}.
+ */
+public final class LoadMetrics {
+
+    private static final long MB = 1024 * 1024;
+
+    private final long startNanos;
+
+    private LoadMetrics() {
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Resets the heap pool peaks and starts the clock.
+     *
+     * @return New metrics instance
+     */
+    public static LoadMetrics start() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                pool.resetPeakUsage();
+            }
+        }
+        return new LoadMetrics();
+    }
+
+    /**
+     * @return Milliseconds since {@link #start()}
+     */
+    public long elapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /**
+     * @param rows Rows processed since {@link #start()}
+     * @return Throughput in rows per second
+     */
+    public long rowsPerSecond(long rows) {
+        long nanos = Math.max(1, System.nanoTime() - startNanos);
+        return rows * 1_000_000_000L / nanos;
+    }
+
+    /**
+     * @return Peak heap usage in megabytes since {@link #start()}
+     */
+    public long peakHeapMb() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak / MB;
+    }
+}
@@ -0,0 +1,16 @@
+package com.wificdmx.wifiapi.loader;
+
+/**
+ * Cell values of one data row as extracted from the Excel file, before validation and normalization.
+ *
+ * @param rowNumber 1-based row number in the sheet, used in logs
+ * @param sheetRows Rows declared by the sheet, header included; 0 if unknown
+ * @param puntoId Column 0: id
+ * @param programa Column 1: programa
+ * @param latitud Column 2: latitud
+ * @param longitud Column 3: longitud
+ * @param alcaldia Column 4: alcaldia, as written in the file
+ */
+public record RawWifiPointRow(int rowNumber, int sheetRows, String puntoId, String programa,
+                              Double latitud, Double longitud, String alcaldia) {
+}
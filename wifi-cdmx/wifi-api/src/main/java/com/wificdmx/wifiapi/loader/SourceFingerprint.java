@@ -0,0 +1,46 @@
+package com.wificdmx.wifiapi.loader;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Identifies a version of the Excel file by the SHA-256 of its bytes.
+ * Data derived from the file (such as the dataset snapshot) records the fingerprint it was built
+ * from, so it can be recognized as stale once the file is replaced.
+ */
+public final class SourceFingerprint {
+
+    private SourceFingerprint() {
+    }
+
+    /**
+     * @param resource Excel file
+     * @return Hex-encoded SHA-256 of the file contents
+     * @throws IOException if the file cannot be read
+     */
+    public static String of(Resource resource) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream inputStream = resource.getInputStream()) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
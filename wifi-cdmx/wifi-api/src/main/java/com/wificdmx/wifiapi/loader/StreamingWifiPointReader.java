@@ -0,0 +1,277 @@
+package com.wificdmx.wifiapi.loader;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Reads the Excel file with POI's event API ({@link XSSFReader}) and a SAX handler.
+ * Rows are parsed and handed to the consumer one at a time, so memory use does not
+ * depend on the number of rows; only the shared strings table is kept in memory.
+ * This is the default reader ({@code wifi.loader.reader=streaming}).
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "wifi.loader.reader", havingValue = "streaming", matchIfMissing = true)
+public class StreamingWifiPointReader implements WifiPointReader {
+
+    private static final int COLUMN_COUNT = 5;
+
+    @Override
+    public long read(Resource resource, Consumer<RawWifiPointRow> consumer) throws IOException {
+        // OPCPackage.open(InputStream) buffers every zip entry in memory; a file is read entry by entry
+        Path tempFile = null;
+        File file;
+        if (resource.isFile()) {
+            file = resource.getFile();
+        } else {
+            tempFile = Files.createTempFile("wifi-points-", ".xlsx");
+            try (InputStream inputStream = resource.getInputStream()) {
+                Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            file = tempFile.toFile();
+        }
+
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader xssfReader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(pkg, false);
+            SheetHandler handler = new SheetHandler(sharedStrings, consumer);
+
+            Iterator<InputStream> sheets = xssfReader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return 0;
+            }
+
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(handler);
+                parser.parse(new InputSource(sheet));
+            }
+
+            return handler.accepted;
+
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Cannot parse Excel file: " + e.getMessage(), e);
+        } finally {
+            if (tempFile != null) {
+                Files.deleteIfExists(tempFile);
+            }
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "streaming";
+    }
+
+    /**
+     * SAX handler for a worksheet part. Collects the raw values of the first five
+     * columns of each row and converts them with the same rules as the workbook reader.
+     */
+    private static final class SheetHandler extends DefaultHandler {
+
+        private final ReadOnlySharedStringsTable sharedStrings;
+        private final Consumer<RawWifiPointRow> consumer;
+
+        private final String[] values = new String[COLUMN_COUNT];
+        private final boolean[] numeric = new boolean[COLUMN_COUNT];
+        private final StringBuilder text = new StringBuilder();
+
+        private int rowNumber;
+        private int sheetRows;
+        private int column = -1;
+        private int previousColumn = -1;
+        private String cellType;
+        private boolean hasValue;
+        private boolean collecting;
+        private long accepted;
+
+        SheetHandler(ReadOnlySharedStringsTable sharedStrings, Consumer<RawWifiPointRow> consumer) {
+            this.sharedStrings = sharedStrings;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (elementName(localName, qName)) {
+                case "dimension":
+                    // Used range ("A1:E35351"), written before the sheet data
+                    String range = attributes.getValue("ref");
+                    if (range != null) {
+                        sheetRows = rowIndex(range.substring(range.indexOf(':') + 1));
+                    }
+                    break;
+                case "row":
+                    // Empty rows may be omitted from the sheet, so prefer the explicit row number
+                    String rowReference = attributes.getValue("r");
+                    rowNumber = rowReference != null ? Integer.parseInt(rowReference) : rowNumber + 1;
+                    previousColumn = -1;
+                    for (int i = 0; i < COLUMN_COUNT; i++) {
+                        values[i] = null;
+                        numeric[i] = false;
+                    }
+                    break;
+                case "c":
+                    String reference = attributes.getValue("r");
+                    column = reference != null ? columnIndex(reference) : previousColumn + 1;
+                    cellType = attributes.getValue("t");
+                    text.setLength(0);
+                    hasValue = false;
+                    break;
+                case "v":
+                case "t":
+                    // <v> holds the cell value, <t> the text runs of inline strings
+                    collecting = true;
+                    hasValue = true;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (collecting) {
+                text.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (elementName(localName, qName)) {
+                case "v":
+                case "t":
+                    collecting = false;
+                    break;
+                case "c":
+                    if (hasValue && column >= 0 && column < COLUMN_COUNT) {
+                        storeValue(text.toString());
+                    }
+                    previousColumn = column;
+                    column = -1;
+                    cellType = null;
+                    break;
+                case "row":
+                    // Skip header row
+                    if (rowNumber > 1) {
+                        handleRow();
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private static String elementName(String localName, String qName) {
+            return localName == null || localName.isEmpty() ? qName : localName;
+        }
+
+        private void storeValue(String raw) {
+            if (cellType == null || "n".equals(cellType)) {
+                values[column] = raw;
+                numeric[column] = true;
+            } else if ("s".equals(cellType)) {
+                values[column] = sharedStrings.getItemAt(Integer.parseInt(raw.trim())).getString();
+            } else if ("e".equals(cellType)) {
+                values[column] = null;
+            } else {
+                // inlineStr, str (formula result) and b (boolean) are kept as text
+                values[column] = "b".equals(cellType) ? String.valueOf("1".equals(raw)) : raw;
+            }
+        }
+
+        private void handleRow() {
+            RawWifiPointRow row;
+            try {
+                row = new RawWifiPointRow(rowNumber, sheetRows,
+                        asString(0), asString(1), asDouble(2), asDouble(3), asString(4));
+            } catch (Exception e) {
+                log.warn("Error processing row {}: {}", rowNumber, e.getMessage());
+                return;
+            }
+
+            // Failures of the consumer abort the read
+            consumer.accept(row);
+            accepted++;
+
+            // Log progress every 5000 records
+            if ((rowNumber - 1) % 5000 == 0) {
+                log.info("Processed {} rows", rowNumber - 1);
+            }
+        }
+
+        private String asString(int index) {
+            String value = values[index];
+            if (value == null || !numeric[index]) {
+                return value;
+            }
+            // Handle numeric values that should be strings (like IDs)
+            return String.valueOf((long) Double.parseDouble(value));
+        }
+
+        private Double asDouble(int index) {
+            String value = values[index];
+            if (value == null || value.trim().isEmpty()) {
+                return null;
+            }
+            try {
+                return Double.parseDouble(value.trim());
+            } catch (NumberFormatException e) {
+                log.warn("Cannot convert cell value to Double: {}", value);
+                return null;
+            }
+        }
+
+        /**
+         * Converts the column letters of a cell reference ("C12") to a zero-based index.
+         */
+        private static int columnIndex(String reference) {
+            int index = 0;
+            for (int i = 0; i < reference.length(); i++) {
+                char c = reference.charAt(i);
+                if (c < 'A' || c > 'Z') {
+                    break;
+                }
+                index = index * 26 + (c - 'A' + 1);
+            }
+            return index - 1;
+        }
+
+        /**
+         * Extracts the 1-based row number of a cell reference ("C12"), or 0 if it has none.
+         */
+        private static int rowIndex(String reference) {
+            int i = 0;
+            while (i < reference.length() && Character.isLetter(reference.charAt(i))) {
+                i++;
+            }
+            try {
+                return Integer.parseInt(reference.substring(i));
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.wificdmx.wifiapi.loader;
+
+/**
+ * Outcome of an incremental sync of the Excel file against the stored WiFi points.
+ *
+ * @param unchanged Rows whose hash matched the stored one
+ * @param upserted Rows inserted or updated
+ * @param deleted Stored WiFi points no longer present in the file
+ */
+public record SyncResult(long unchanged, long upserted, long deleted) {
+
+    /**
+     * @return true if the sync modified the table
+     */
+    public boolean changed() {
+        return upserted > 0 || deleted > 0;
+    }
+}
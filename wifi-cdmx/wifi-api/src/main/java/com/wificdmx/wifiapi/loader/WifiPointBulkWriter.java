@@ -0,0 +1,27 @@
+package com.wificdmx.wifiapi.loader;
+
+import com.wificdmx.wifiapi.model.WifiPoint;
+
+import java.util.List;
+
+/**
+ * Persists chunks of WiFi points during the initial data load.
+ * Each chunk is written in its own transaction, and implementations must be safe to call
+ * from several writer threads of the {@link WifiPointImportPipeline} at once.
+ * The active implementation is selected with the {@code wifi.loader.writer} property.
+ */
+public interface WifiPointBulkWriter {
+
+    /**
+     * Stores every WiFi point of the chunk: either the whole chunk is committed or none of it.
+     *
+     * @param chunk WiFi points to store
+     * @return Number of WiFi points written
+     */
+    int writeChunk(List<WifiPoint> chunk);
+
+    /**
+     * @return Short name of the writer, used in logs
+     */
+    String getName();
+}
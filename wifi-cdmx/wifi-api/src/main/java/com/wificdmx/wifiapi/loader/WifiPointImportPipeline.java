@@ -0,0 +1,315 @@
+package com.wificdmx.wifiapi.loader;
+
+import com.wificdmx.wifiapi.config.LoaderProperties;
+import com.wificdmx.wifiapi.model.WifiPoint;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pipelined import of the Excel file, in three stages connected by bounded queues:
+ * <ol>
+ *   <li>parser: the {@link WifiPointReader} extracts raw rows and groups them in chunks</li>
+ *   <li>normalizer: validates and normalizes each row with {@link WifiPointRowMapper} and drops repeated
+ *       IDs, keeping the first row of each, so the writers never hit the primary key twice</li>
+ *   <li>writers: {@code wifi.loader.writer-threads} threads persist chunks through the
+ *       {@link WifiPointBulkWriter}, each chunk in its own transaction</li>
+ * </ol>
+ * A stage blocks when the queue in front of it is full, so at most
+ * {@code 2 * queue-capacity + writer-threads + 2} chunks are in memory whatever the file size.
+ * Progress (rows per stage and queue depth) is logged every {@code wifi.loader.progress-interval},
+ * and a per-stage summary when the import ends.
+ */
+@Component
+@Slf4j
+public class WifiPointImportPipeline {
+
+    private final WifiPointReader reader;
+    private final WifiPointBulkWriter writer;
+    private final int chunkSize;
+    private final int writerThreads;
+    private final int queueCapacity;
+    private final long progressIntervalMillis;
+
+    public WifiPointImportPipeline(WifiPointReader reader, WifiPointBulkWriter writer, LoaderProperties properties) {
+        this.reader = reader;
+        this.writer = writer;
+        this.chunkSize = Math.max(1, properties.getBatchSize());
+        this.writerThreads = Math.max(1, properties.getWriterThreads());
+        this.queueCapacity = Math.max(1, properties.getQueueCapacity());
+        this.progressIntervalMillis = Math.max(1, properties.getProgressInterval().toMillis());
+    }
+
+    /**
+     * Imports every valid row of the resource. Returns once all stages have finished;
+     * if any stage fails the others are cancelled and the failure is rethrown.
+     * Chunks committed before the failure stay in the database.
+     *
+     * @param resource Excel file
+     * @return Number of WiFi points written
+     * @throws IOException if the file cannot be read
+     */
+    public long run(Resource resource) throws IOException {
+        return run(resource, new ImportProgress());
+    }
+
+    /**
+     * Imports every valid row of the resource, reporting rows written as chunks are committed.
+     *
+     * @param resource Excel file
+     * @param progress Updated while the import runs
+     * @return Number of WiFi points written
+     * @throws IOException if the file cannot be read
+     */
+    public long run(Resource resource, ImportProgress progress) throws IOException {
+        Stage parser = new Stage("parser");
+        Stage normalizer = new Stage("normalizer");
+        Stage writers = new Stage("writers");
+        Channel<RawWifiPointRow> rawRows = new Channel<>("rows", queueCapacity);
+        Channel<WifiPoint> chunks = new Channel<>("chunks", queueCapacity);
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong duplicates = new AtomicLong();
+
+        log.info("Starting import pipeline: {} reader, {} x {} writer, chunks of {} rows, queue capacity {}",
+                reader.getName(), writerThreads, writer.getName(), chunkSize, queueCapacity);
+
+        ExecutorService executor = Executors.newFixedThreadPool(writerThreads + 2,
+                new CustomizableThreadFactory("wifi-import-"));
+        CompletionService<Void> completion = new ExecutorCompletionService<>(executor);
+        try {
+            completion.submit(() -> parse(resource, parser, rawRows, progress));
+            completion.submit(() -> normalize(rawRows, chunks, normalizer, rejected, duplicates));
+            for (int i = 0; i < writerThreads; i++) {
+                completion.submit(() -> write(chunks, writers, progress));
+            }
+
+            int pending = writerThreads + 2;
+            while (pending > 0) {
+                Future<Void> done = completion.poll(progressIntervalMillis, TimeUnit.MILLISECONDS);
+                if (done == null) {
+                    logProgress(parser, normalizer, writers, rawRows, chunks);
+                    continue;
+                }
+                done.get();
+                pending--;
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Import pipeline failed: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import pipeline interrupted", e);
+        } finally {
+            shutdown(executor);
+        }
+
+        logSummary(parser, normalizer, writers, rawRows, chunks, rejected.get(), duplicates.get());
+        return writers.rows.get();
+    }
+
+    private Void parse(Resource resource, Stage stage, Channel<RawWifiPointRow> out,
+                       ImportProgress progress) throws IOException {
+        stage.begin();
+        List<RawWifiPointRow> chunk = new ArrayList<>(chunkSize);
+        reader.read(resource, row -> {
+            if (progress.getExpectedRows() < 0 && row.sheetRows() > 0) {
+                // Header row excluded
+                progress.expectRows(row.sheetRows() - 1);
+            }
+            chunk.add(row);
+            stage.rows.incrementAndGet();
+            if (chunk.size() == chunkSize) {
+                out.put(List.copyOf(chunk), stage);
+                chunk.clear();
+            }
+        });
+        if (!chunk.isEmpty()) {
+            out.put(List.copyOf(chunk), stage);
+        }
+        out.put(List.of(), stage);
+        stage.end();
+        return null;
+    }
+
+    private Void normalize(Channel<RawWifiPointRow> in, Channel<WifiPoint> out, Stage stage, AtomicLong rejected,
+                           AtomicLong duplicates) {
+        stage.begin();
+        // One normalizer thread, so a plain set spans every chunk
+        Set<String> seen = new HashSet<>();
+        List<WifiPoint> chunk = new ArrayList<>(chunkSize);
+        for (List<RawWifiPointRow> rows = in.take(stage); !rows.isEmpty(); rows = in.take(stage)) {
+            for (RawWifiPointRow row : rows) {
+                WifiPoint wifiPoint = WifiPointRowMapper.toWifiPoint(row);
+                if (wifiPoint == null) {
+                    rejected.incrementAndGet();
+                    continue;
+                }
+                if (!seen.add(wifiPoint.getPuntoId())) {
+                    log.warn("Duplicate WiFi point ID {} in row {}, keeping the first one",
+                            wifiPoint.getPuntoId(), row.rowNumber());
+                    duplicates.incrementAndGet();
+                    continue;
+                }
+                chunk.add(wifiPoint);
+                stage.rows.incrementAndGet();
+                if (chunk.size() == chunkSize) {
+                    out.put(chunk, stage);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            out.put(chunk, stage);
+        }
+        // One end marker per writer thread
+        for (int i = 0; i < writerThreads; i++) {
+            out.put(List.of(), stage);
+        }
+        stage.end();
+        return null;
+    }
+
+    private Void write(Channel<WifiPoint> in, Stage stage, ImportProgress progress) {
+        stage.begin();
+        for (List<WifiPoint> chunk = in.take(stage); !chunk.isEmpty(); chunk = in.take(stage)) {
+            int written = writer.writeChunk(chunk);
+            stage.rows.addAndGet(written);
+            progress.addProcessed(written);
+        }
+        stage.end();
+        return null;
+    }
+
+    /**
+     * Interrupts the stages still running and waits for them, so no writer is still
+     * committing a chunk when the caller reacts to a failure.
+     */
+    private static void shutdown(ExecutorService executor) {
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Import pipeline threads did not stop within 30 s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void logProgress(Stage parser, Stage normalizer, Stage writers,
+                             Channel<RawWifiPointRow> rawRows, Channel<WifiPoint> chunks) {
+        log.info("Import progress: parsed {}, normalized {}, written {} | queue depth {} {}/{}, {} {}/{}",
+                parser.rows.get(), normalizer.rows.get(), writers.rows.get(),
+                rawRows.name, rawRows.queue.size(), queueCapacity,
+                chunks.name, chunks.queue.size(), queueCapacity);
+    }
+
+    private void logSummary(Stage parser, Stage normalizer, Stage writers,
+                            Channel<RawWifiPointRow> rawRows, Channel<WifiPoint> chunks, long rejected,
+                            long duplicates) {
+        for (Stage stage : List.of(parser, normalizer, writers)) {
+            log.info("Import stage {}: {} rows in {} ms ({} rows/s), {} ms blocked on queues",
+                    stage.name, stage.rows.get(), stage.elapsedMillis(), stage.rowsPerSecond(),
+                    TimeUnit.NANOSECONDS.toMillis(stage.blockedNanos.get()));
+        }
+        log.info("Import queues: {} max depth {}/{}, {} max depth {}/{}; {} invalid rows and {} duplicate IDs skipped",
+                rawRows.name, rawRows.maxDepth.get(), queueCapacity,
+                chunks.name, chunks.maxDepth.get(), queueCapacity, rejected, duplicates);
+    }
+
+    /**
+     * Counters of one pipeline stage. Shared by every thread of the stage; the elapsed time
+     * runs from the first thread starting to the last one finishing.
+     */
+    private static final class Stage {
+
+        private final String name;
+        private final AtomicLong rows = new AtomicLong();
+        private final AtomicLong blockedNanos = new AtomicLong();
+        private final AtomicLong startNanos = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong endNanos = new AtomicLong();
+
+        Stage(String name) {
+            this.name = name;
+        }
+
+        void begin() {
+            startNanos.accumulateAndGet(System.nanoTime(), Math::min);
+        }
+
+        void end() {
+            endNanos.accumulateAndGet(System.nanoTime(), Math::max);
+        }
+
+        long elapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(Math.max(0, endNanos.get() - startNanos.get()));
+        }
+
+        long rowsPerSecond() {
+            long nanos = Math.max(1, endNanos.get() - startNanos.get());
+            return rows.get() * 1_000_000_000L / nanos;
+        }
+    }
+
+    /**
+     * Bounded queue of chunks between two stages. An empty chunk marks the end of the stream.
+     * Time spent waiting on a full or empty queue is charged to the calling stage.
+     */
+    private static final class Channel<T> {
+
+        private final String name;
+        private final BlockingQueue<List<T>> queue;
+        private final AtomicLong maxDepth = new AtomicLong();
+
+        Channel(String name, int capacity) {
+            this.name = name;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        void put(List<T> chunk, Stage stage) {
+            long start = System.nanoTime();
+            try {
+                queue.put(chunk);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Import pipeline interrupted", e);
+            }
+            stage.blockedNanos.addAndGet(System.nanoTime() - start);
+            maxDepth.accumulateAndGet(queue.size(), Math::max);
+        }
+
+        List<T> take(Stage stage) {
+            long start = System.nanoTime();
+            try {
+                return queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Import pipeline interrupted", e);
+            } finally {
+                stage.blockedNanos.addAndGet(System.nanoTime() - start);
+            }
+        }
+    }
+}
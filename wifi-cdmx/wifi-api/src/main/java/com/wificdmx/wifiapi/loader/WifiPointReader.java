@@ -0,0 +1,31 @@
+package com.wificdmx.wifiapi.loader;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Parses the data rows of the Excel source file. Readers only extract cell values;
+ * validation and normalization are applied afterwards by {@link WifiPointRowMapper}.
+ * The active implementation is selected with the {@code wifi.loader.reader} property.
+ */
+public interface WifiPointReader {
+
+    /**
+     * Reads every data row (header skipped) and hands it to the consumer as soon as it is parsed.
+     * Rows whose cells cannot be extracted are logged and skipped; an exception thrown by the
+     * consumer stops the read and reaches the caller unchanged.
+     *
+     * @param resource Excel file
+     * @param consumer Receives each raw row in file order
+     * @return Number of rows passed to the consumer
+     * @throws IOException if file cannot be read
+     */
+    long read(Resource resource, Consumer<RawWifiPointRow> consumer) throws IOException;
+
+    /**
+     * @return Short name of the reader, used in logs
+     */
+    String getName();
+}
@@ -0,0 +1,139 @@
+package com.wificdmx.wifiapi.loader;
+
+import com.wificdmx.wifiapi.model.WifiPoint;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Validation and normalization rules shared by every Excel reader.
+ * Expected columns: id, programa, latitud, longitud, alcaldia
+ */
+public final class WifiPointRowMapper {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private WifiPointRowMapper() {
+    }
+
+    /**
+     * Creates a WifiPoint entity from a parsed row.
+     *
+     * @param row Raw cell values
+     * @return WifiPoint entity or null if data is invalid
+     */
+    public static WifiPoint toWifiPoint(RawWifiPointRow row) {
+        return toWifiPoint(row.puntoId(), row.programa(), row.latitud(), row.longitud(), row.alcaldia());
+    }
+
+    /**
+     * Creates a WifiPoint entity from already extracted cell values.
+     *
+     * @param puntoId Column 0: id
+     * @param programa Column 1: programa
+     * @param latitud Column 2: latitud
+     * @param longitud Column 3: longitud
+     * @param alcaldia Column 4: alcaldia (normalized to title case)
+     * @return WifiPoint entity or null if data is invalid
+     */
+    public static WifiPoint toWifiPoint(String puntoId, String programa, Double latitud, Double longitud, String alcaldia) {
+        if (puntoId == null || puntoId.trim().isEmpty()) {
+            return null;
+        }
+        if (programa == null || programa.trim().isEmpty()) {
+            return null;
+        }
+        if (latitud == null || longitud == null) {
+            return null;
+        }
+        if (alcaldia == null || alcaldia.trim().isEmpty()) {
+            return null;
+        }
+
+        WifiPoint wifiPoint = new WifiPoint();
+        wifiPoint.setPuntoId(puntoId.trim());
+        wifiPoint.setPrograma(programa.trim());
+        wifiPoint.setLatitud(latitud);
+        wifiPoint.setLongitud(longitud);
+        wifiPoint.setAlcaldia(normalizeAlcaldia(alcaldia));
+        wifiPoint.setAlcaldiaKey(alcaldiaKey(alcaldia));
+        wifiPoint.setRowHash(rowHash(wifiPoint));
+
+        return wifiPoint;
+    }
+
+    /**
+     * Hashes the stored values of a WiFi point (everything but the ID), after normalization.
+     * Two imports of the same row give the same hash, so unchanged rows can be skipped on re-import.
+     * Derived columns are part of the hash, so rows stored before a column existed are rewritten once.
+     *
+     * @param wifiPoint Normalized WiFi point
+     * @return First 64 bits of the SHA-256 of the values
+     */
+    public static long rowHash(WifiPoint wifiPoint) {
+        String values = wifiPoint.getPrograma() + '\u001f' + wifiPoint.getLatitud() + '\u001f'
+                + wifiPoint.getLongitud() + '\u001f' + wifiPoint.getAlcaldia() + '\u001f' + wifiPoint.getAlcaldiaKey();
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(values.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Normalizes alcaldia names to title case.
+     * Converts "IZTAPALAPA" to "Iztapalapa", "MIGUEL HIDALGO" to "Miguel Hidalgo", etc.
+     *
+     * @param alcaldia Raw alcaldia name
+     * @return Normalized alcaldia name
+     */
+    public static String normalizeAlcaldia(String alcaldia) {
+        if (alcaldia == null || alcaldia.trim().isEmpty()) {
+            return alcaldia;
+        }
+
+        // Split by spaces and capitalize first letter of each word
+        String[] words = alcaldia.trim().toLowerCase().split("\\s+");
+        StringBuilder normalized = new StringBuilder();
+
+        for (int i = 0; i < words.length; i++) {
+            if (i > 0) {
+                normalized.append(" ");
+            }
+
+            String word = words[i];
+            if (!word.isEmpty()) {
+                // Capitalize first letter
+                normalized.append(Character.toUpperCase(word.charAt(0)));
+                if (word.length() > 1) {
+                    normalized.append(word.substring(1));
+                }
+            }
+        }
+
+        return normalized.toString();
+    }
+
+    /**
+     * Builds the lookup key of an alcaldia name: lowercase, without accents and with single spaces.
+     * "ÁLVARO  OBREGÓN" and "Alvaro Obregon" both give "alvaro obregon", so the alcaldia queries
+     * compare keys with a plain equality that the {@code (alcaldia_key, punto_id)} index can answer.
+     *
+     * @param alcaldia Alcaldia name as imported or as requested
+     * @return Lookup key
+     */
+    public static String alcaldiaKey(String alcaldia) {
+        if (alcaldia == null) {
+            return null;
+        }
+        String withoutAccents = COMBINING_MARKS.matcher(Normalizer.normalize(alcaldia, Normalizer.Form.NFD)).replaceAll("");
+        return withoutAccents.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+}
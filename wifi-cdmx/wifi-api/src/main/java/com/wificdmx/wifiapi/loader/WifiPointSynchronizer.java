@@ -0,0 +1,189 @@
+package com.wificdmx.wifiapi.loader;
+
+import com.wificdmx.wifiapi.config.LoaderProperties;
+import com.wificdmx.wifiapi.model.WifiPoint;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Incremental re-import of the Excel file into a non-empty table.
+ * Each row's {@link WifiPointRowMapper#rowHash hash} is compared with the one stored for its ID:
+ * only new or changed rows are upserted ({@code INSERT ... ON CONFLICT DO UPDATE}, batched), and
+ * IDs missing from the file are deleted. The whole sync runs in one transaction, so a failure
+ * leaves the previous data untouched.
+ *
+ * A file with no valid rows, or one that would delete more than
+ * {@link LoaderProperties#getMaxDeleteFraction() max-delete-fraction} of the stored rows, is taken as
+ * empty, truncated or unreadable (for instance after a header rename) and the sync is rejected
+ * before anything is deleted.
+ */
+@Component
+@Slf4j
+public class WifiPointSynchronizer {
+
+    private static final String SELECT_HASHES_SQL = "SELECT punto_id, row_hash FROM wifi_points";
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO wifi_points (punto_id, programa, latitud, longitud, alcaldia, alcaldia_key, row_hash, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (punto_id) DO UPDATE SET
+                programa = EXCLUDED.programa,
+                latitud = EXCLUDED.latitud,
+                longitud = EXCLUDED.longitud,
+                alcaldia = EXCLUDED.alcaldia,
+                alcaldia_key = EXCLUDED.alcaldia_key,
+                row_hash = EXCLUDED.row_hash,
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    private static final String DELETE_SQL = "DELETE FROM wifi_points WHERE punto_id = ?";
+
+    private final WifiPointReader reader;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final double maxDeleteFraction;
+
+    public WifiPointSynchronizer(WifiPointReader reader,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 LoaderProperties properties) {
+        this.reader = reader;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, properties.getBatchSize());
+        this.maxDeleteFraction = properties.getMaxDeleteFraction();
+    }
+
+    /**
+     * Applies the differences between the file and the table.
+     *
+     * @param resource Excel file
+     * @param progress Updated with every row compared
+     * @return Number of unchanged, upserted and deleted rows
+     * @throws IOException if the file cannot be read
+     * @throws IllegalStateException if the file has no valid rows or would delete too many stored rows
+     */
+    public SyncResult sync(Resource resource, ImportProgress progress) throws IOException {
+        try {
+            return transactionTemplate.execute(status -> {
+                try {
+                    return doSync(resource, progress);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private SyncResult doSync(Resource resource, ImportProgress progress) throws IOException {
+        // Stored IDs still in this map after reading the file are the ones to delete
+        Map<String, Long> storedHashes = new HashMap<>();
+        jdbcTemplate.query(SELECT_HASHES_SQL, rs -> {
+            storedHashes.put(rs.getString(1), rs.getObject(2, Long.class));
+        });
+        int storedCount = storedHashes.size();
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Set<String> seen = new HashSet<>(storedHashes.size() * 2);
+        List<WifiPoint> changed = new ArrayList<>(batchSize);
+        long[] counts = new long[2];
+
+        reader.read(resource, row -> {
+            if (progress.getExpectedRows() < 0 && row.sheetRows() > 0) {
+                progress.expectRows(row.sheetRows() - 1);
+            }
+            WifiPoint wifiPoint = WifiPointRowMapper.toWifiPoint(row);
+            if (wifiPoint == null) {
+                return;
+            }
+            if (!seen.add(wifiPoint.getPuntoId())) {
+                log.warn("Duplicate WiFi point ID {} in row {}, keeping the first one",
+                        wifiPoint.getPuntoId(), row.rowNumber());
+                return;
+            }
+
+            Long storedHash = storedHashes.remove(wifiPoint.getPuntoId());
+            if (wifiPoint.getRowHash().equals(storedHash)) {
+                counts[0]++;
+            } else {
+                changed.add(wifiPoint);
+                counts[1]++;
+                if (changed.size() == batchSize) {
+                    upsert(changed, now);
+                }
+            }
+            progress.addProcessed(1);
+        });
+        upsert(changed, now);
+        checkDeletions(seen.size(), storedCount, storedHashes.size());
+
+        List<String> removed = new ArrayList<>(storedHashes.keySet());
+        for (int from = 0; from < removed.size(); from += batchSize) {
+            List<String> batch = removed.subList(from, Math.min(removed.size(), from + batchSize));
+            jdbcTemplate.batchUpdate(DELETE_SQL, batch, batch.size(), (ps, puntoId) -> ps.setString(1, puntoId));
+        }
+
+        return new SyncResult(counts[0], counts[1], removed.size());
+    }
+
+    /**
+     * Rejects a sync whose file looks empty or truncated; throwing rolls back the upserts too.
+     *
+     * @param read Valid rows read from the file
+     * @param stored Rows stored before the sync
+     * @param removed Stored rows missing from the file
+     */
+    private void checkDeletions(int read, int stored, int removed) {
+        if (stored == 0) {
+            return;
+        }
+        if (read == 0) {
+            throw new IllegalStateException("The Excel file has no valid WiFi points; refusing to delete the "
+                    + stored + " stored ones");
+        }
+        if (removed > maxDeleteFraction * stored) {
+            throw new IllegalStateException(String.format(
+                    "The Excel file would delete %d of %d stored WiFi points, more than max-delete-fraction %.2f",
+                    removed, stored, maxDeleteFraction));
+        }
+    }
+
+    private void upsert(List<WifiPoint> batch, Timestamp now) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(UPSERT_SQL, batch, batch.size(), (ps, wifiPoint) -> {
+            ps.setString(1, wifiPoint.getPuntoId());
+            ps.setString(2, wifiPoint.getPrograma());
+            ps.setDouble(3, wifiPoint.getLatitud());
+            ps.setDouble(4, wifiPoint.getLongitud());
+            ps.setString(5, wifiPoint.getAlcaldia());
+            ps.setString(6, wifiPoint.getAlcaldiaKey());
+            ps.setObject(7, wifiPoint.getRowHash(), Types.BIGINT);
+            ps.setTimestamp(8, now);
+            ps.setTimestamp(9, now);
+        });
+        log.debug("Upserted batch of {} WiFi points", batch.size());
+        batch.clear();
+    }
+}
@@ -0,0 +1,148 @@
+package com.wificdmx.wifiapi.loader;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Reads the Excel file with POI's user model ({@link XSSFWorkbook}).
+ * The whole workbook is materialized in memory; kept as a fallback mode,
+ * enable it with {@code wifi.loader.reader=workbook}.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "wifi.loader.reader", havingValue = "workbook")
+public class WorkbookWifiPointReader implements WifiPointReader {
+
+    @Override
+    public long read(Resource resource, Consumer<RawWifiPointRow> consumer) throws IOException {
+        long accepted = 0;
+
+        try (InputStream inputStream = resource.getInputStream();
+             Workbook workbook = new XSSFWorkbook(inputStream)) {
+
+            Sheet sheet = workbook.getSheetAt(0);
+            int totalRows = sheet.getPhysicalNumberOfRows();
+
+            log.info("Reading Excel file with {} rows", totalRows);
+
+            // Skip header row (index 0) and start from row 1
+            for (int i = 1; i <= sheet.getLastRowNum(); i++) {
+                Row row = sheet.getRow(i);
+
+                if (row == null) {
+                    continue;
+                }
+
+                RawWifiPointRow rawRow;
+                try {
+                    rawRow = createRawRow(row, i + 1, sheet.getLastRowNum() + 1);
+                } catch (Exception e) {
+                    log.warn("Error processing row {}: {}", i + 1, e.getMessage());
+                    continue;
+                }
+
+                // Failures of the consumer abort the read
+                consumer.accept(rawRow);
+                accepted++;
+
+                // Log progress every 5000 records
+                if (i % 5000 == 0) {
+                    log.info("Processed {} / {} rows", i, totalRows - 1);
+                }
+            }
+        }
+
+        return accepted;
+    }
+
+    @Override
+    public String getName() {
+        return "workbook";
+    }
+
+    /**
+     * Extracts the cell values of an Excel row.
+     * Handles data type conversions; validation is left to {@link WifiPointRowMapper}.
+     *
+     * @param row Excel row containing WiFi point data
+     * @param rowNumber 1-based row number
+     * @param sheetRows Rows in the sheet, header included
+     * @return Raw row values
+     */
+    private RawWifiPointRow createRawRow(Row row, int rowNumber, int sheetRows) {
+        return new RawWifiPointRow(rowNumber, sheetRows,
+                getCellValueAsString(row.getCell(0)),
+                getCellValueAsString(row.getCell(1)),
+                getCellValueAsDouble(row.getCell(2)),
+                getCellValueAsDouble(row.getCell(3)),
+                getCellValueAsString(row.getCell(4)));
+    }
+
+    /**
+     * Extracts cell value as String, handling different cell types.
+     *
+     * @param cell Excel cell
+     * @return String value or null
+     */
+    private String getCellValueAsString(Cell cell) {
+        if (cell == null) {
+            return null;
+        }
+
+        switch (cell.getCellType()) {
+            case STRING:
+                return cell.getStringCellValue();
+            case NUMERIC:
+                // Handle numeric values that should be strings (like IDs)
+                if (DateUtil.isCellDateFormatted(cell)) {
+                    return cell.getLocalDateTimeCellValue().toString();
+                }
+                return String.valueOf((long) cell.getNumericCellValue());
+            case BOOLEAN:
+                return String.valueOf(cell.getBooleanCellValue());
+            case FORMULA:
+                return cell.getCellFormula();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Extracts cell value as Double, handling String to Double conversion.
+     *
+     * @param cell Excel cell
+     * @return Double value or null
+     */
+    private Double getCellValueAsDouble(Cell cell) {
+        if (cell == null) {
+            return null;
+        }
+
+        try {
+            switch (cell.getCellType()) {
+                case NUMERIC:
+                    return cell.getNumericCellValue();
+                case STRING:
+                    // Try to parse string as double
+                    String value = cell.getStringCellValue().trim();
+                    if (!value.isEmpty()) {
+                        return Double.parseDouble(value);
+                    }
+                    return null;
+                default:
+                    return null;
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Cannot convert cell value to Double: {}", cell.toString());
+            return null;
+        }
+    }
+}
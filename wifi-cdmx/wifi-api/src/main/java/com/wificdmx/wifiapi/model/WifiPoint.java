@@ -10,12 +10,19 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity   // this anotation simplify the DB operations in Spring when assign  java classes  to the tables of the DB
-@Table(name = "wifi_points")
+@Table(name = "wifi_points", indexes = {
+        @Index(name = "idx_wifi_points_lat_lon", columnList = "latitud, longitud")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class WifiPoint {
 
+    // The geography column "geog" (and its GiST index) is not mapped here: with the postgis engine,
+    // PostgreSQL derives it from latitud/longitud, see resources/db/schema-postgis.sql
+    // The punto_id COLLATE "C" indexes used by the ID-order queries, including the alcaldia_key one,
+    // cannot be declared through JPA either, see resources/db/schema.sql
+
     @Id
     @Column(name = "punto_id", length = 100)
     private String puntoId;
@@ -32,6 +39,14 @@ public class WifiPoint {
     @Column(name = "alcaldia", length = 100, nullable = false)
     private String alcaldia;
 
+    // Lowercase, accent-free alcaldia used by the alcaldia queries, see WifiPointRowMapper.alcaldiaKey
+    @Column(name = "alcaldia_key", length = 100)
+    private String alcaldiaKey;
+
+    // Hash of the imported values, compared by the incremental sync to detect changed rows
+    @Column(name = "row_hash")
+    private Long rowHash;
+
     @Column(name = "created_at", updatable = false)
     @CreationTimestamp
     private LocalDateTime createdAt;
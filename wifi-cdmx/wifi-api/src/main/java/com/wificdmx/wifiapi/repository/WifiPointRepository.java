@@ -1,45 +1,294 @@
 package com.wificdmx.wifiapi.repository;
 
 import com.wificdmx.wifiapi.model.WifiPoint;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface WifiPointRepository extends JpaRepository<WifiPoint, String> {
 
     /**
-     * Finds WiFi points by alcaldia with pagination
+     * Finds a page of WiFi points without counting them, in the order requested by the pageable.
+     * Fetches one extra row to tell whether another page follows.
      *
-     * @param alcaldia Alcaldia name
      * @param pageable Pagination parameters
-     * @return Page of WiFi points
+     * @return Slice of WiFi points
      */
-    Page<WifiPoint> findByAlcaldiaIgnoreCase(String alcaldia, Pageable pageable);
+    Slice<WifiPoint> findAllBy(Pageable pageable);
 
     /**
-     * Finds nearby WiFi points using Haversine formula
-     * Returns WiFi points ordered by distance from the given coordinates
+     * Finds a page of WiFi points in ID order, without counting them.
+     * IDs are compared byte by byte ({@code COLLATE "C"}), as the in-memory dataset sorts them, whatever
+     * the database collation; the {@code punto_id COLLATE "C"} index from {@code db/schema.sql} returns
+     * them already sorted. The pageable must be unsorted.
+     *
+     * @param pageable Pagination parameters, without sort
+     * @return Slice of WiFi points
+     */
+    @Query(value = "SELECT * FROM wifi_points w ORDER BY w.punto_id COLLATE \"C\"", nativeQuery = true)
+    Slice<WifiPoint> findAllInIdOrder(Pageable pageable);
+
+    /**
+     * Finds WiFi points by alcaldia with pagination, without counting them, in the order requested by the pageable.
+     *
+     * @param alcaldiaKey Alcaldia lookup key, see {@code WifiPointRowMapper.alcaldiaKey}
+     * @param pageable Pagination parameters
+     * @return Slice of WiFi points
+     */
+    Slice<WifiPoint> findByAlcaldiaKey(String alcaldiaKey, Pageable pageable);
+
+    /**
+     * Finds WiFi points by alcaldia in ID order ({@code COLLATE "C"}), without counting them.
+     * Served by the {@code (alcaldia_key, punto_id COLLATE "C")} index, already in ID order.
+     * The pageable must be unsorted.
+     *
+     * @param alcaldiaKey Alcaldia lookup key, see {@code WifiPointRowMapper.alcaldiaKey}
+     * @param pageable Pagination parameters, without sort
+     * @return Slice of WiFi points
+     */
+    @Query(value = """
+        SELECT * FROM wifi_points w
+        WHERE w.alcaldia_key = :alcaldiaKey
+        ORDER BY w.punto_id COLLATE "C"
+        """,
+            nativeQuery = true)
+    Slice<WifiPoint> findByAlcaldiaKeyInIdOrder(@Param("alcaldiaKey") String alcaldiaKey, Pageable pageable);
+
+    /**
+     * Counts WiFi points by alcaldia
+     *
+     * @param alcaldiaKey Alcaldia lookup key
+     * @return Number of WiFi points in the alcaldia
+     */
+    long countByAlcaldiaKey(String alcaldiaKey);
+
+    /**
+     * Finds the WiFi points following a given ID, in ID order ({@code COLLATE "C"}, keyset pagination).
+     * Each page is a range scan of the {@code punto_id COLLATE "C"} index, with no OFFSET and no count query.
+     *
+     * @param after Last ID of the previous page; empty string for the first page
+     * @param limit Maximum number of rows to return
+     * @return WiFi points ordered by ID
+     */
+    @Query(value = """
+        SELECT * FROM wifi_points w
+        WHERE w.punto_id COLLATE "C" > :after
+        ORDER BY w.punto_id COLLATE "C"
+        LIMIT :limit
+        """,
+            nativeQuery = true)
+    List<WifiPoint> findAfterInIdOrder(@Param("after") String after, @Param("limit") int limit);
+
+    /**
+     * Finds the WiFi points of an alcaldia following a given ID, in ID order ({@code COLLATE "C"}, keyset pagination).
+     *
+     * @param alcaldiaKey Alcaldia lookup key
+     * @param after Last ID of the previous page; empty string for the first page
+     * @param limit Maximum number of rows to return
+     * @return WiFi points ordered by ID
+     */
+    @Query(value = """
+        SELECT * FROM wifi_points w
+        WHERE w.alcaldia_key = :alcaldiaKey
+          AND w.punto_id COLLATE "C" > :after
+        ORDER BY w.punto_id COLLATE "C"
+        LIMIT :limit
+        """,
+            nativeQuery = true)
+    List<WifiPoint> findByAlcaldiaKeyAfterInIdOrder(@Param("alcaldiaKey") String alcaldiaKey,
+                                                    @Param("after") String after,
+                                                    @Param("limit") int limit);
+
+    /**
+     * Finds WiFi points inside a latitude/longitude rectangle, edges included.
+     * Answered by a range scan of the {@code (latitud, longitud)} index.
+     *
+     * @param minLat Southern edge
+     * @param maxLat Northern edge
+     * @param minLon Western edge
+     * @param maxLon Eastern edge
+     * @param limit Maximum number of rows to return
+     * @return WiFi points in no particular order
+     */
+    List<WifiPoint> findByLatitudBetweenAndLongitudBetween(Double minLat, Double maxLat, Double minLon, Double maxLon,
+                                                           Limit limit);
+
+    /**
+     * Groups the WiFi points by Web Mercator grid cell, the fallback for map clusters before the
+     * in-memory clusters are built. Cells are computed as in {@code ClusterIndex}; candidates are
+     * first restricted to the rectangle covered by the cells touching the viewport, which can be
+     * answered from the {@code (latitud, longitud)} index, and only clusters whose mean position
+     * falls inside the viewport are kept, with all their points.
+     *
+     * @param cells Number of cells along each axis of the world at the zoom level
+     * @param west First cell column
+     * @param east Last cell column
+     * @param north First cell row
+     * @param south Last cell row
+     * @param cellsMinLat Southern edge of the cells
+     * @param cellsMaxLat Northern edge of the cells
+     * @param cellsMinLon Western edge of the cells
+     * @param cellsMaxLon Eastern edge of the cells
+     * @param minLat Southern edge of the viewport
+     * @param maxLat Northern edge of the viewport
+     * @param minLon Western edge of the viewport
+     * @param maxLon Eastern edge of the viewport
+     * @param limit Maximum number of clusters to return
+     * @return Object arrays containing [count, latitud, longitud, punto_id, programa, alcaldia], where the
+     *         last three are those of the point when the count is one
+     */
+    @Query(value = """
+        SELECT count(*), avg(c.latitud), avg(c.longitud), min(c.punto_id), min(c.programa), min(c.alcaldia)
+        FROM (
+            SELECT w.punto_id, w.programa, w.latitud, w.longitud, w.alcaldia,
+                   floor((w.longitud + 180) / 360 * :cells) AS x,
+                   floor((1 - ln(tan(radians(w.latitud)) + 1 / cos(radians(w.latitud))) / pi()) / 2 * :cells) AS y
+            FROM wifi_points w
+            WHERE w.latitud BETWEEN :cellsMinLat AND :cellsMaxLat
+              AND w.longitud BETWEEN :cellsMinLon AND :cellsMaxLon
+        ) c
+        WHERE c.x BETWEEN :west AND :east
+          AND c.y BETWEEN :north AND :south
+        GROUP BY c.x, c.y
+        HAVING avg(c.latitud) BETWEEN :minLat AND :maxLat
+           AND avg(c.longitud) BETWEEN :minLon AND :maxLon
+        LIMIT :limit
+        """,
+            nativeQuery = true)
+    List<Object[]> findClusters(
+            @Param("cells") double cells,
+            @Param("west") int west,
+            @Param("east") int east,
+            @Param("north") int north,
+            @Param("south") int south,
+            @Param("cellsMinLat") double cellsMinLat,
+            @Param("cellsMaxLat") double cellsMaxLat,
+            @Param("cellsMinLon") double cellsMinLon,
+            @Param("cellsMaxLon") double cellsMaxLon,
+            @Param("minLat") double minLat,
+            @Param("maxLat") double maxLat,
+            @Param("minLon") double minLon,
+            @Param("maxLon") double maxLon,
+            @Param("limit") int limit
+    );
+
+    /**
+     * Aggregates the WiFi points per alcaldia and programa, for the statistics endpoint.
+     * Spellings of an alcaldia are grouped by their lookup key.
+     *
+     * @return Object arrays containing [alcaldia, programa, count, min latitud, max latitud, min longitud,
+     *         max longitud, sum of latitud, sum of longitud]
+     */
+    @Query(value = """
+        SELECT min(w.alcaldia), w.programa, count(*), min(w.latitud), max(w.latitud), min(w.longitud),
+               max(w.longitud), sum(w.latitud), sum(w.longitud)
+        FROM wifi_points w
+        GROUP BY w.alcaldia_key, w.programa
+        """,
+            nativeQuery = true)
+    List<Object[]> summarizeByAlcaldiaAndPrograma();
+
+    /**
+     * Streams every WiFi point in ID order ({@code COLLATE "C"}) through a forward-only cursor, for the export.
+     * PostgreSQL only honours the fetch size inside a transaction, which the caller must hold
+     * while consuming the stream; entities are loaded read-only, without dirty-checking snapshots.
+     *
+     * @return WiFi points ordered by ID; must be closed
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = "SELECT * FROM wifi_points w ORDER BY w.punto_id COLLATE \"C\"", nativeQuery = true)
+    Stream<WifiPoint> streamAllInIdOrder();
+
+    /**
+     * Finds the WiFi points with any of the given IDs in a single query.
+     * The IDs are bound as one array parameter, so the statement and its plan are the same
+     * whatever the number of IDs, unlike an {@code IN} list with one parameter per ID.
+     *
+     * @param ids WiFi point IDs
+     * @return WiFi points found, in no particular order
+     */
+    @Query(value = "SELECT * FROM wifi_points w WHERE w.punto_id = ANY(:ids)", nativeQuery = true)
+    List<WifiPoint> findByPuntoIdIn(@Param("ids") String[] ids);
+
+    /**
+     * Finds WiFi points within a radius, ordered by distance.
+     * Candidates are first restricted to the bounding box of the circle, which can be
+     * answered from the (latitud, longitud) index; the exact Haversine distance is only
+     * computed for those rows. The count query applies the same filter.
      *
      * @param lat Latitude of reference point
      * @param lon Longitude of reference point
+     * @param radiusKm Maximum distance in kilometers
+     * @param minLat Southern edge of the bounding box
+     * @param maxLat Northern edge of the bounding box
+     * @param minLon Western edge of the bounding box
+     * @param maxLon Eastern edge of the bounding box
      * @param pageable Pagination parameters
-     * @return List of Object arrays containing [WifiPoint, distance]
+     * @return Page of Object arrays containing [punto_id, programa, latitud, longitud, alcaldia, distancia]
      */
+    @Query(value = """
+        SELECT t.punto_id, t.programa, t.latitud, t.longitud, t.alcaldia, t.distancia
+        FROM (
+            SELECT w.punto_id, w.programa, w.latitud, w.longitud, w.alcaldia,
+                   (6371 * acos(LEAST(1.0,
+                       cos(radians(:lat)) * cos(radians(w.latitud)) *
+                       cos(radians(w.longitud) - radians(:lon)) +
+                       sin(radians(:lat)) * sin(radians(w.latitud))
+                   ))) AS distancia
+            FROM wifi_points w
+            WHERE w.latitud BETWEEN :minLat AND :maxLat
+              AND w.longitud BETWEEN :minLon AND :maxLon
+        ) t
+        WHERE t.distancia <= :radiusKm
+        ORDER BY t.distancia
+        """,
+            countQuery = """
+        SELECT count(*)
+        FROM wifi_points w
+        WHERE w.latitud BETWEEN :minLat AND :maxLat
+          AND w.longitud BETWEEN :minLon AND :maxLon
+          AND (6371 * acos(LEAST(1.0,
+                  cos(radians(:lat)) * cos(radians(w.latitud)) *
+                  cos(radians(w.longitud) - radians(:lon)) +
+                  sin(radians(:lat)) * sin(radians(w.latitud))
+              ))) <= :radiusKm
+        """,
+            nativeQuery = true)
+    Page<Object[]> findNearbyPointsWithinRadius(
+            @Param("lat") Double lat,
+            @Param("lon") Double lon,
+            @Param("radiusKm") Double radiusKm,
+            @Param("minLat") Double minLat,
+            @Param("maxLat") Double maxLat,
+            @Param("minLon") Double minLon,
+            @Param("maxLon") Double maxLon,
+            Pageable pageable
+    );
 
     /**
-     * Finds nearby WiFi points using Haversine formula
-     * Returns WiFi points ordered by distance from the given coordinates
+     * Finds the nearest WiFi points using Haversine formula with explicit LIMIT/OFFSET.
+     * Used by the native nearby search engine together with {@link #countAll()}.
      *
      * @param lat Latitude of reference point
      * @param lon Longitude of reference point
-     * @param pageable Pagination parameters
-     * @return Page of WifiPoint objects
+     * @param limit Maximum number of rows to return
+     * @param offset Number of rows to skip
+     * @return List of Object arrays containing [punto_id, programa, latitud, longitud, alcaldia, distancia]
      */
     @Query(value = """
         SELECT w.punto_id, w.programa, w.latitud, w.longitud, w.alcaldia,
@@ -50,12 +299,69 @@ public interface WifiPointRepository extends JpaRepository<WifiPoint, String> {
                )) AS distancia
         FROM wifi_points w
         ORDER BY distancia
+        LIMIT :limit OFFSET :offset
+        """,
+            nativeQuery = true)
+    List<Object[]> findNearby(
+            @Param("lat") Double lat,
+            @Param("lon") Double lon,
+            @Param("limit") int limit,
+            @Param("offset") int offset
+    );
+
+    /**
+     * Finds nearby WiFi points using the PostGIS geography column, without a radius.
+     * The {@code <->} KNN operator lets PostgreSQL return rows in GiST index order instead of
+     * sorting every row; as in {@link #findNearby}, every point is a candidate and counted.
+     *
+     * @param lat Latitude of reference point
+     * @param lon Longitude of reference point
+     * @param pageable Pagination parameters
+     * @return Page of Object arrays containing [punto_id, programa, latitud, longitud, alcaldia, distancia]
+     */
+    @Query(value = """
+        SELECT w.punto_id, w.programa, w.latitud, w.longitud, w.alcaldia,
+               ST_Distance(w.geog, CAST(ST_SetSRID(ST_MakePoint(:lon, :lat), 4326) AS geography), false) / 1000 AS distancia
+        FROM wifi_points w
+        ORDER BY w.geog <-> CAST(ST_SetSRID(ST_MakePoint(:lon, :lat), 4326) AS geography)
         """,
             countQuery = "SELECT count(*) FROM wifi_points",
             nativeQuery = true)
-    Page<Object[]> findNearbyPoints(
+    Page<Object[]> findNearbyPointsKnn(
+            @Param("lat") Double lat,
+            @Param("lon") Double lon,
+            Pageable pageable
+    );
+
+    /**
+     * Finds nearby WiFi points within a radius using the PostGIS geography column.
+     * ST_DWithin restricts candidates through the GiST index and the {@code <->} KNN
+     * operator lets PostgreSQL return rows in index order instead of sorting every row.
+     * Distance is computed on the sphere and returned in kilometers, as in {@link #findNearby}.
+     *
+     * @param lat Latitude of reference point
+     * @param lon Longitude of reference point
+     * @param radiusMeters Maximum distance in meters for candidates
+     * @param pageable Pagination parameters
+     * @return Page of Object arrays containing [punto_id, programa, latitud, longitud, alcaldia, distancia]
+     */
+    @Query(value = """
+        SELECT w.punto_id, w.programa, w.latitud, w.longitud, w.alcaldia,
+               ST_Distance(w.geog, CAST(ST_SetSRID(ST_MakePoint(:lon, :lat), 4326) AS geography), false) / 1000 AS distancia
+        FROM wifi_points w
+        WHERE ST_DWithin(w.geog, CAST(ST_SetSRID(ST_MakePoint(:lon, :lat), 4326) AS geography), :radiusMeters)
+        ORDER BY w.geog <-> CAST(ST_SetSRID(ST_MakePoint(:lon, :lat), 4326) AS geography)
+        """,
+            countQuery = """
+        SELECT count(*)
+        FROM wifi_points w
+        WHERE ST_DWithin(w.geog, CAST(ST_SetSRID(ST_MakePoint(:lon, :lat), 4326) AS geography), :radiusMeters)
+        """,
+            nativeQuery = true)
+    Page<Object[]> findNearbyPointsKnn(
             @Param("lat") Double lat,
             @Param("lon") Double lon,
+            @Param("radiusMeters") Double radiusMeters,
             Pageable pageable
     );
 
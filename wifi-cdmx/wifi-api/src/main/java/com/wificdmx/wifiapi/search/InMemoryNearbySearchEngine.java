@@ -0,0 +1,56 @@
+package com.wificdmx.wifiapi.search;
+
+import com.wificdmx.wifiapi.dto.WifiPointDTO;
+import com.wificdmx.wifiapi.spatial.GeoUtils;
+import com.wificdmx.wifiapi.spatial.KdTree;
+import com.wificdmx.wifiapi.store.PointTable;
+import com.wificdmx.wifiapi.store.WifiDataset;
+import com.wificdmx.wifiapi.store.WifiPointStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Nearby search answered from the k-d tree of the current {@link WifiDataset}.
+ * The tree is built with the dataset by {@link WifiPointStore}, so each search reads the
+ * points and the index of one snapshot, even while a newer one is being swapped in.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "wifi.nearby.engine", havingValue = "index", matchIfMissing = true)
+public class InMemoryNearbySearchEngine implements NearbySearchEngine {
+
+    private final WifiPointStore wifiPointStore;
+
+    @Override
+    public Page<WifiPointDTO> findNearby(double lat, double lon, Double radiusKm, Pageable pageable) {
+        WifiDataset dataset = wifiPointStore.current();
+        PointTable table = dataset.table();
+        KdTree tree = dataset.tree();
+
+        int offset = (int) Math.min(pageable.getOffset(), table.size());
+        double maxDistanceKm = radiusKm != null ? radiusKm : Double.POSITIVE_INFINITY;
+        int[] nearest = tree.nearest(lat, lon, offset + pageable.getPageSize(), maxDistanceKm);
+        long total = radiusKm != null ? tree.countWithin(lat, lon, radiusKm) : table.size();
+
+        List<WifiPointDTO> content = new ArrayList<>(Math.max(0, nearest.length - offset));
+        for (int i = offset; i < nearest.length; i++) {
+            WifiPointDTO point = table.toDTO(nearest[i]);
+            point.setDistancia(GeoUtils.haversineKm(lat, lon, point.getLatitud(), point.getLongitud()));
+            content.add(point);
+        }
+
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    @Override
+    public String getName() {
+        return "index";
+    }
+}
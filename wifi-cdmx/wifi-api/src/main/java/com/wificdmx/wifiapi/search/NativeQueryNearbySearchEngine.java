@@ -0,0 +1,58 @@
+package com.wificdmx.wifiapi.search;
+
+import com.wificdmx.wifiapi.cache.CountCache;
+import com.wificdmx.wifiapi.dto.WifiPointDTO;
+import com.wificdmx.wifiapi.repository.WifiPointRepository;
+import com.wificdmx.wifiapi.spatial.BoundingBox;
+import com.wificdmx.wifiapi.spatial.GeoUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Nearby search that delegates to the Haversine native query in PostgreSQL.
+ * Kept as a fallback mode: enable it with {@code wifi.nearby.engine=native}.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "wifi.nearby.engine", havingValue = "native")
+public class NativeQueryNearbySearchEngine implements NearbySearchEngine {
+
+    private final WifiPointRepository wifiPointRepository;
+    private final CountCache countCache;
+
+    @Override
+    public Page<WifiPointDTO> findNearby(double lat, double lon, Double radiusKm, Pageable pageable) {
+        if (radiusKm != null) {
+            BoundingBox box = GeoUtils.boundingBox(lat, lon, radiusKm);
+            Page<Object[]> results = wifiPointRepository.findNearbyPointsWithinRadius(
+                    lat, lon, radiusKm, box.minLat(), box.maxLat(), box.minLon(), box.maxLon(), pageable);
+
+            List<WifiPointDTO> dtos = results.getContent().stream()
+                    .map(NearbyRowMapper::toDTO)
+                    .collect(Collectors.toList());
+
+            return new PageImpl<>(dtos, pageable, results.getTotalElements());
+        }
+
+        List<Object[]> results = wifiPointRepository.findNearby(
+                lat, lon, pageable.getPageSize(), (int) pageable.getOffset());
+
+        List<WifiPointDTO> dtos = results.stream()
+                .map(NearbyRowMapper::toDTO)
+                .collect(Collectors.toList());
+
+        return new PageImpl<>(dtos, pageable, countCache.countAll(wifiPointRepository::countAll));
+    }
+
+    @Override
+    public String getName() {
+        return "native";
+    }
+}
@@ -0,0 +1,30 @@
+package com.wificdmx.wifiapi.search;
+
+import com.wificdmx.wifiapi.dto.WifiPointDTO;
+
+/**
+ * Maps rows returned by the native nearby queries to DTOs.
+ */
+final class NearbyRowMapper {
+
+    private NearbyRowMapper() {
+    }
+
+    /**
+     * Converts nearby query result (Object[]) to DTO with distance.
+     * The Object[] contains: [punto_id, programa, latitud, longitud, alcaldia, distancia]
+     *
+     * @param result Query result array
+     * @return WifiPointDTO with distance
+     */
+    static WifiPointDTO toDTO(Object[] result) {
+        return WifiPointDTO.builder()
+                .puntoId((String) result[0])
+                .programa((String) result[1])
+                .latitud((Double) result[2])
+                .longitud((Double) result[3])
+                .alcaldia((String) result[4])
+                .distancia(result[5] != null ? ((Number) result[5]).doubleValue() : null)
+                .build();
+    }
+}
@@ -0,0 +1,30 @@
+package com.wificdmx.wifiapi.search;
+
+import com.wificdmx.wifiapi.dto.WifiPointDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Strategy used by WifiPointService to answer proximity queries.
+ * The active implementation is selected with the {@code wifi.nearby.engine} property.
+ */
+public interface NearbySearchEngine {
+
+    /**
+     * Finds WiFi points ordered by distance from the given coordinates.
+     * Coordinates and radius are expected to be already validated.
+     *
+     * @param lat Latitude of reference point
+     * @param lon Longitude of reference point
+     * @param radiusKm Maximum distance in kilometers, or null to rank every point
+     * @param pageable Pagination parameters
+     * @return Page of WiFi points with {@code distancia} populated in kilometers;
+     *         when a radius is given the total only counts points inside it
+     */
+    Page<WifiPointDTO> findNearby(double lat, double lon, Double radiusKm, Pageable pageable);
+
+    /**
+     * @return Short name of the engine, used in logs
+     */
+    String getName();
+}
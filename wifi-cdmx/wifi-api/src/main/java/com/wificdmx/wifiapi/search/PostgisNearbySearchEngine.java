@@ -0,0 +1,44 @@
+package com.wificdmx.wifiapi.search;
+
+import com.wificdmx.wifiapi.dto.WifiPointDTO;
+import com.wificdmx.wifiapi.repository.WifiPointRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Nearby search that uses the PostGIS geography column and its GiST index.
+ * Without a radius every point is ranked, as with the other engines; a radius adds an ST_DWithin filter.
+ * Enable it with {@code wifi.nearby.engine=postgis}.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "wifi.nearby.engine", havingValue = "postgis")
+public class PostgisNearbySearchEngine implements NearbySearchEngine {
+
+    private final WifiPointRepository wifiPointRepository;
+
+    @Override
+    public Page<WifiPointDTO> findNearby(double lat, double lon, Double radiusKm, Pageable pageable) {
+        Page<Object[]> results = radiusKm != null
+                ? wifiPointRepository.findNearbyPointsKnn(lat, lon, radiusKm * 1000, pageable)
+                : wifiPointRepository.findNearbyPointsKnn(lat, lon, pageable);
+
+        List<WifiPointDTO> dtos = results.getContent().stream()
+                .map(NearbyRowMapper::toDTO)
+                .collect(Collectors.toList());
+
+        return new PageImpl<>(dtos, pageable, results.getTotalElements());
+    }
+
+    @Override
+    public String getName() {
+        return "postgis";
+    }
+}
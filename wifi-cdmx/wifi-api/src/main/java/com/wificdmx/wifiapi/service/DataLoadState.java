@@ -0,0 +1,27 @@
+package com.wificdmx.wifiapi.service;
+
+/**
+ * Lifecycle of the startup data load, as reported by the health endpoint.
+ */
+public enum DataLoadState {
+
+    /**
+     * The application is starting and the load has not been scheduled yet
+     */
+    PENDING,
+
+    /**
+     * The Excel file is being imported or synchronized; the API serves the points already committed
+     */
+    LOADING,
+
+    /**
+     * The dataset is complete, either just imported or already present in the database
+     */
+    READY,
+
+    /**
+     * The import failed: a full load discards its partial rows, a sync is rolled back
+     */
+    FAILED
+}
@@ -1,23 +1,33 @@
 package com.wificdmx.wifiapi.service;
 
-import com.wificdmx.wifiapi.model.WifiPoint;
+import com.wificdmx.wifiapi.config.LoaderProperties;
+import com.wificdmx.wifiapi.loader.ImportProgress;
+import com.wificdmx.wifiapi.loader.LoadMetrics;
+import com.wificdmx.wifiapi.loader.SourceFingerprint;
+import com.wificdmx.wifiapi.loader.SyncResult;
+import com.wificdmx.wifiapi.loader.WifiPointImportPipeline;
+import com.wificdmx.wifiapi.loader.WifiPointSynchronizer;
 import com.wificdmx.wifiapi.repository.WifiPointRepository;
-import jakarta.annotation.PostConstruct;
+import com.wificdmx.wifiapi.store.WifiPointStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Service responsible for loading WiFi points data from Excel file into the database.
- * This service automatically executes on application startup using @PostConstruct.
+ * The load runs in the background once the application is ready, so startup does not wait
+ * for the import; its state and progress are exposed for the health endpoint. The file can also
+ * be reloaded on demand while the current data keeps being served.
  */
 @Service
 @RequiredArgsConstructor
@@ -25,234 +35,231 @@ import java.util.List;
 public class DataLoaderService {
 
     private final WifiPointRepository wifiPointRepository;
-    private static final String EXCEL_FILE_PATH = "data/00-2025-wifi_gratuito_en_cdmx.xlsx";
+    private final WifiPointImportPipeline importPipeline;
+    private final WifiPointSynchronizer synchronizer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LoaderProperties loaderProperties;
+    private final TaskExecutor taskExecutor;
+    private final WifiPointStore wifiPointStore;
+    private final ResourceLoader resourceLoader;
+
+    private volatile DataLoadState state = DataLoadState.PENDING;
+    private volatile ImportProgress progress = new ImportProgress();
 
     /**
-     * Loads data from Excel file into database if the database is empty.
-     * Executes automatically after bean construction.
+     * Set while a load runs, so startup loads and reloads never overlap
      */
-    @PostConstruct
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * Loads data from Excel file into database.
+     * An empty table gets a full load through the {@link WifiPointImportPipeline}; otherwise the file
+     * is synchronized with {@link WifiPointSynchronizer}, unless {@code wifi.loader.existing-data=skip}
+     * or the dataset was restored from a snapshot of the current file, which a previous load wrote once
+     * the table matched that file. Runs asynchronously after the application is ready and publishes a
+     * {@link WifiPointsLoadedEvent} when the stored data changed.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
     public void loadData() {
-        // Only load data if the database is empty
-        if (wifiPointRepository.count() > 0) {
-            log.info("Database already contains {} WiFi points. Skipping data load.",
-                    wifiPointRepository.count());
+        if (!running.compareAndSet(false, true)) {
+            log.warn("A data load is already running. Skipping startup load.");
             return;
         }
-
-        log.info("Starting data load from Excel file: {}", EXCEL_FILE_PATH);
-
         try {
-            List<WifiPoint> wifiPoints = readExcelFile();
-
-            if (wifiPoints.isEmpty()) {
-                log.warn("No data found in Excel file");
-                return;
-            }
-
-            log.info("Saving {} WiFi points to database...", wifiPoints.size());
-            wifiPointRepository.saveAll(wifiPoints);
-            log.info("Successfully loaded {} WiFi points into database", wifiPoints.size());
-
-        } catch (IOException e) {
-            log.error("Error loading data from Excel file: {}", e.getMessage(), e);
+            load("sync".equals(loaderProperties.getExistingData()), true);
+        } finally {
+            running.set(false);
         }
     }
 
     /**
-     * Reads WiFi points data from Excel file.
-     * Expected columns: id, programa, latitud, longitud, alcaldia
+     * Reloads the Excel file on demand, in the background: an empty table gets a full load, otherwise
+     * the file is synchronized whatever {@code wifi.loader.existing-data} says. The current data keeps
+     * being served meanwhile; when rows changed, listeners build their next snapshot and swap it in.
      *
-     * @return List of WifiPoint entities
-     * @throws IOException if file cannot be read
+     * @return true if the reload was started, false if a load is already running
      */
-    private List<WifiPoint> readExcelFile() throws IOException {
-        List<WifiPoint> wifiPoints = new ArrayList<>();
-
-        ClassPathResource resource = new ClassPathResource(EXCEL_FILE_PATH);
-
-        try (InputStream inputStream = resource.getInputStream();
-             Workbook workbook = new XSSFWorkbook(inputStream)) {
-
-            Sheet sheet = workbook.getSheetAt(0);
-            int totalRows = sheet.getPhysicalNumberOfRows();
-
-            log.info("Reading Excel file with {} rows", totalRows);
-
-            // Skip header row (index 0) and start from row 1
-            for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-                Row row = sheet.getRow(i);
-
-                if (row == null) {
-                    continue;
-                }
-
+    public boolean reload() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            taskExecutor.execute(() -> {
                 try {
-                    WifiPoint wifiPoint = createWifiPointFromRow(row);
-                    if (wifiPoint != null) {
-                        wifiPoints.add(wifiPoint);
-                    }
-
-                    // Log progress every 5000 records
-                    if (i % 5000 == 0) {
-                        log.info("Processed {} / {} rows", i, totalRows - 1);
-                    }
-
-                } catch (Exception e) {
-                    log.warn("Error processing row {}: {}", i + 1, e.getMessage());
+                    load(true, false);
+                } finally {
+                    running.set(false);
                 }
-            }
+            });
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
         }
+        log.info("Data reload requested");
+        return true;
+    }
 
-        return wifiPoints;
+    /**
+     * @param syncExisting Whether to synchronize a table that already has data, or leave it as it is
+     * @param trustSnapshot Whether to skip the sync when the dataset was restored from a snapshot of the file
+     */
+    private void load(boolean syncExisting, boolean trustSnapshot) {
+        String source = fingerprint();
+        long existing = wifiPointRepository.count();
+        if (existing == 0) {
+            fullLoad(source);
+        } else if (trustSnapshot && wifiPointStore.isSnapshotOf(source)) {
+            log.info("Database contains {} WiFi points and the dataset snapshot matches the Excel file. Skipping sync.", existing);
+            state = DataLoadState.READY;
+        } else if (syncExisting) {
+            sync(existing, source);
+        } else {
+            log.info("Database already contains {} WiFi points. Skipping data load.", existing);
+            state = DataLoadState.READY;
+        }
     }
 
     /**
-     * Creates a WifiPoint entity from an Excel row.
-     * Handles data type conversions and normalization.
+     * Imports the whole file into the empty table. Rows flow through the pipeline, so the dataset
+     * is never held in memory as a whole. Chunks are committed independently and served as soon as
+     * they are committed; if the import fails, the rows already written are deleted so the next
+     * start retries the full load.
      *
-     * @param row Excel row containing WiFi point data
-     * @return WifiPoint entity or null if data is invalid
+     * @param source Fingerprint of the Excel file, recorded in the dataset snapshot
      */
-    private WifiPoint createWifiPointFromRow(Row row) {
-        try {
-            // Column 0: id (String)
-            String puntoId = getCellValueAsString(row.getCell(0));
-            if (puntoId == null || puntoId.trim().isEmpty()) {
-                return null;
-            }
+    private void fullLoad(String source) {
+        log.info("Starting background data load from Excel file: {}", loaderProperties.getSource());
+        progress = new ImportProgress();
+        state = DataLoadState.LOADING;
 
-            // Column 1: programa (String)
-            String programa = getCellValueAsString(row.getCell(1));
-            if (programa == null || programa.trim().isEmpty()) {
-                return null;
-            }
-
-            // Column 2: latitud (Double - may be stored as String in Excel)
-            Double latitud = getCellValueAsDouble(row.getCell(2));
-            if (latitud == null) {
-                return null;
-            }
+        long loaded;
+        try {
+            LoadMetrics metrics = LoadMetrics.start();
+            Resource resource = resourceLoader.getResource(loaderProperties.getSource());
 
-            // Column 3: longitud (Double)
-            Double longitud = getCellValueAsDouble(row.getCell(3));
-            if (longitud == null) {
-                return null;
-            }
+            loaded = importPipeline.run(resource, progress);
 
-            // Column 4: alcaldia (String) - normalize to title case
-            String alcaldia = getCellValueAsString(row.getCell(4));
-            if (alcaldia == null || alcaldia.trim().isEmpty()) {
-                return null;
+            if (loaded == 0) {
+                log.warn("No data found in Excel file");
+            } else {
+                log.info("Successfully loaded {} WiFi points into database in {} ms ({} rows/s, peak heap {} MB)",
+                        loaded, metrics.elapsedMillis(), metrics.rowsPerSecond(loaded), metrics.peakHeapMb());
             }
-            alcaldia = normalizeAlcaldia(alcaldia);
 
-            WifiPoint wifiPoint = new WifiPoint();
-            wifiPoint.setPuntoId(puntoId.trim());
-            wifiPoint.setPrograma(programa.trim());
-            wifiPoint.setLatitud(latitud);
-            wifiPoint.setLongitud(longitud);
-            wifiPoint.setAlcaldia(alcaldia);
-
-            return wifiPoint;
+        } catch (IOException | RuntimeException e) {
+            log.error("Error loading data from Excel file: {}", e.getMessage(), e);
+            state = DataLoadState.FAILED;
+            discardPartialLoad();
+            return;
+        }
 
-        } catch (Exception e) {
-            log.warn("Error creating WifiPoint from row: {}", e.getMessage());
-            return null;
+        complete(loaded);
+        if (loaded > 0) {
+            wifiPointStore.saveSnapshot(source);
         }
     }
 
     /**
-     * Extracts cell value as String, handling different cell types.
+     * Applies only the rows that changed since the stored version of the file.
+     * The sync is a single transaction: on failure the previous data stays as it was. Data that was
+     * already READY stays READY throughout, since it keeps being served until the sync commits.
      *
-     * @param cell Excel cell
-     * @return String value or null
+     * @param existing WiFi points currently stored
+     * @param source Fingerprint of the Excel file, recorded in the dataset snapshot
      */
-    private String getCellValueAsString(Cell cell) {
-        if (cell == null) {
-            return null;
+    private void sync(long existing, String source) {
+        log.info("Database contains {} WiFi points. Synchronizing with Excel file: {}", existing, loaderProperties.getSource());
+        boolean serving = state == DataLoadState.READY;
+        progress = new ImportProgress();
+        if (!serving) {
+            state = DataLoadState.LOADING;
         }
 
-        switch (cell.getCellType()) {
-            case STRING:
-                return cell.getStringCellValue();
-            case NUMERIC:
-                // Handle numeric values that should be strings (like IDs)
-                if (DateUtil.isCellDateFormatted(cell)) {
-                    return cell.getLocalDateTimeCellValue().toString();
-                }
-                return String.valueOf((long) cell.getNumericCellValue());
-            case BOOLEAN:
-                return String.valueOf(cell.getBooleanCellValue());
-            case FORMULA:
-                return cell.getCellFormula();
-            default:
-                return null;
+        SyncResult result;
+        try {
+            LoadMetrics metrics = LoadMetrics.start();
+            result = synchronizer.sync(resourceLoader.getResource(loaderProperties.getSource()), progress);
+
+            log.info("Synchronized WiFi points in {} ms: {} unchanged, {} upserted, {} deleted",
+                    metrics.elapsedMillis(), result.unchanged(), result.upserted(), result.deleted());
+
+        } catch (IOException | RuntimeException e) {
+            log.error("Error synchronizing data from Excel file, previous data kept: {}", e.getMessage(), e);
+            state = serving ? DataLoadState.READY : DataLoadState.FAILED;
+            return;
+        }
+
+        if (result.changed()) {
+            complete(result.upserted() + result.deleted());
+        } else {
+            state = DataLoadState.READY;
         }
+        wifiPointStore.saveSnapshot(source);
     }
 
     /**
-     * Extracts cell value as Double, handling String to Double conversion.
-     *
-     * @param cell Excel cell
-     * @return Double value or null
+     * @return Fingerprint of the Excel file, or null if it cannot be read (the load then reports the error)
      */
-    private Double getCellValueAsDouble(Cell cell) {
-        if (cell == null) {
-            return null;
-        }
-
+    private String fingerprint() {
         try {
-            switch (cell.getCellType()) {
-                case NUMERIC:
-                    return cell.getNumericCellValue();
-                case STRING:
-                    // Try to parse string as double
-                    String value = cell.getStringCellValue().trim();
-                    if (!value.isEmpty()) {
-                        return Double.parseDouble(value);
-                    }
-                    return null;
-                default:
-                    return null;
-            }
-        } catch (NumberFormatException e) {
-            log.warn("Cannot convert cell value to Double: {}", cell.toString());
+            return SourceFingerprint.of(resourceLoader.getResource(loaderProperties.getSource()));
+        } catch (IOException e) {
+            log.warn("Cannot fingerprint Excel file {}: {}", loaderProperties.getSource(), e.getMessage());
             return null;
         }
     }
 
     /**
-     * Normalizes alcaldia names to title case.
-     * Converts "IZTAPALAPA" to "Iztapalapa", "MIGUEL HIDALGO" to "Miguel Hidalgo", etc.
+     * Notifies listeners of the new data and reports READY only once they have rebuilt their derived data.
      *
-     * @param alcaldia Raw alcaldia name
-     * @return Normalized alcaldia name
+     * @param changed WiFi points written or deleted
      */
-    private String normalizeAlcaldia(String alcaldia) {
-        if (alcaldia == null || alcaldia.trim().isEmpty()) {
-            return alcaldia;
+    private void complete(long changed) {
+        try {
+            eventPublisher.publishEvent(new WifiPointsLoadedEvent(changed));
+        } finally {
+            state = DataLoadState.READY;
         }
+    }
+
+    /**
+     * @return Current state of the data load
+     */
+    public DataLoadState getState() {
+        return state;
+    }
 
-        // Split by spaces and capitalize first letter of each word
-        String[] words = alcaldia.trim().toLowerCase().split("\\s+");
-        StringBuilder normalized = new StringBuilder();
+    /**
+     * @return Load progress from 0 to 100; 100 once the data is ready
+     */
+    public int getProgressPercent() {
+        return state == DataLoadState.READY ? 100 : progress.percent();
+    }
 
-        for (int i = 0; i < words.length; i++) {
-            if (i > 0) {
-                normalized.append(" ");
-            }
+    /**
+     * @return Whether a load or reload is running; with state READY, a reload of data being served
+     */
+    public boolean isRunning() {
+        return running.get();
+    }
 
-            String word = words[i];
-            if (!word.isEmpty()) {
-                // Capitalize first letter
-                normalized.append(Character.toUpperCase(word.charAt(0)));
-                if (word.length() > 1) {
-                    normalized.append(word.substring(1));
-                }
-            }
-        }
+    /**
+     * @return Progress from 0 to 100 of the running load, whatever the state
+     */
+    public int getRunningProgressPercent() {
+        return progress.percent();
+    }
 
-        return normalized.toString();
+    /**
+     * Removes the chunks committed by an import that did not complete.
+     */
+    private void discardPartialLoad() {
+        log.warn("Discarding partially loaded WiFi points");
+        try {
+            wifiPointRepository.deleteAllInBatch();
+        } catch (RuntimeException e) {
+            log.error("Cannot discard partially loaded WiFi points: {}", e.getMessage(), e);
+        }
     }
 }
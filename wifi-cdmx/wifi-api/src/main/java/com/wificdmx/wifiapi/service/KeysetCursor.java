@@ -0,0 +1,38 @@
+package com.wificdmx.wifiapi.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor for keyset pagination: the last {@code puntoId} of a page, Base64URL-encoded.
+ * Clients pass it back unchanged as {@code after}; its content is not part of the API.
+ */
+final class KeysetCursor {
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * @param puntoId Last WiFi point ID of the page
+     * @return Cursor pointing after that ID
+     */
+    static String encode(String puntoId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(puntoId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor Cursor from a previous page; blank for the first page
+     * @return WiFi point ID to continue after; empty string for the first page (IDs are never blank)
+     * @throws IllegalArgumentException if the cursor is not valid
+     */
+    static String decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return "";
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
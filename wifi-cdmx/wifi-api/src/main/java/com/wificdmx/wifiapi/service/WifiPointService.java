@@ -1,21 +1,54 @@
 package com.wificdmx.wifiapi.service;
 
+import com.wificdmx.wifiapi.cache.CountCache;
+import com.wificdmx.wifiapi.cache.NearbyResultCache;
+import com.wificdmx.wifiapi.cache.WifiPointCache;
+import com.wificdmx.wifiapi.dto.NearbyBatchResultDTO;
+import com.wificdmx.wifiapi.dto.NearbyOriginDTO;
+import com.wificdmx.wifiapi.dto.WifiClusterDTO;
+import com.wificdmx.wifiapi.dto.WifiClusterResponseDTO;
+import com.wificdmx.wifiapi.dto.WifiDensityDTO;
+import com.wificdmx.wifiapi.dto.WifiPointBatchResponseDTO;
 import com.wificdmx.wifiapi.dto.WifiPointDTO;
 import com.wificdmx.wifiapi.dto.WifiPointResponseDTO;
+import com.wificdmx.wifiapi.dto.WifiPointWithinResponseDTO;
+import com.wificdmx.wifiapi.dto.WifiStatisticsDTO;
 import com.wificdmx.wifiapi.exception.ResourceNotFoundException;
+import com.wificdmx.wifiapi.loader.WifiPointRowMapper;
 import com.wificdmx.wifiapi.model.WifiPoint;
 import com.wificdmx.wifiapi.repository.WifiPointRepository;
+import com.wificdmx.wifiapi.search.NearbySearchEngine;
+import com.wificdmx.wifiapi.spatial.BoundingBox;
+import com.wificdmx.wifiapi.spatial.ClusterIndex;
+import com.wificdmx.wifiapi.spatial.DensityGrid;
+import com.wificdmx.wifiapi.spatial.GeoUtils;
+import com.wificdmx.wifiapi.store.StatisticsBuilder;
+import com.wificdmx.wifiapi.store.WifiDataset;
+import com.wificdmx.wifiapi.store.WifiPointStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * Service layer for WiFi Point operations.
@@ -27,7 +60,47 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class WifiPointService {
 
+    /**
+     * Maximum number of distinct IDs in a batch lookup
+     */
+    public static final int MAX_BATCH_IDS = 1000;
+
+    /**
+     * Maximum number of origins in a multi-origin nearby search
+     */
+    public static final int MAX_NEARBY_ORIGINS = 10_000;
+
+    /**
+     * Maximum number of points per origin in a multi-origin nearby search
+     */
+    public static final int MAX_NEARBY_K = 100;
+
+    /**
+     * Maximum number of points returned by a viewport query
+     */
+    public static final int MAX_WITHIN_LIMIT = 5000;
+
+    /**
+     * Deepest zoom level accepted by the cluster query; beyond {@link ClusterIndex#MAX_ZOOM} it returns points
+     */
+    public static final int MAX_ZOOM = 22;
+
+    /**
+     * Maximum number of cells returned by a density query
+     */
+    public static final int MAX_DENSITY_CELLS = 250_000;
+
+    /**
+     * Origins of a multi-origin nearby search evaluated together
+     */
+    private static final int NEARBY_BATCH_CHUNK = 256;
+
     private final WifiPointRepository wifiPointRepository;
+    private final NearbySearchEngine nearbySearchEngine;
+    private final WifiPointCache wifiPointCache;
+    private final NearbyResultCache nearbyResultCache;
+    private final CountCache countCache;
+    private final WifiPointStore wifiPointStore;
 
     /**
      * Retrieves all WiFi points with pagination.
@@ -36,75 +109,659 @@ public class WifiPointService {
      * @return Paginated response with WiFi points
      */
     public WifiPointResponseDTO findAll(Pageable pageable) {
-        log.debug("Finding all WiFi points - Page: {}, Size: {}", pageable.getPageNumber(), pageable.getPageSize());
+        return findAll(pageable, true);
+    }
 
-        Page<WifiPoint> page = wifiPointRepository.findAll(pageable);
-        List<WifiPointDTO> content = page.getContent().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    /**
+     * Retrieves all WiFi points with pagination, optionally without totals.
+     * Pages in ID order are served by the current {@link WifiDataset} once it is built. Otherwise the page
+     * is read as a slice and totals come from the {@link CountCache}, so the count query only runs
+     * on a cache miss, and not at all when totals are not requested.
+     *
+     * @param pageable Pagination parameters
+     * @param withTotal Whether to include totalElements and totalPages
+     * @return Paginated response with WiFi points
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public WifiPointResponseDTO findAll(Pageable pageable, boolean withTotal) {
+        log.debug("Finding all WiFi points - Page: {}, Size: {}, Total: {}",
+                pageable.getPageNumber(), pageable.getPageSize(), withTotal);
 
-        return buildResponse(content, page);
+        Optional<WifiDataset> dataset = wifiPointStore.snapshot();
+        if (dataset.isPresent() && inIdOrder(pageable)) {
+            List<WifiPointDTO> content = dataset.get().findAll(pageable.getOffset(), pageable.getPageSize());
+            return buildStoreResponse(content, pageable, dataset.get().size(), withTotal);
+        }
+
+        Slice<WifiPoint> slice = inIdOrder(pageable)
+                ? wifiPointRepository.findAllInIdOrder(unsorted(pageable))
+                : wifiPointRepository.findAllBy(pageable);
+        List<WifiPointDTO> content = toDTOs(slice.getContent());
+
+        if (!withTotal) {
+            return buildSliceResponse(content, slice);
+        }
+        long total = countCache.countAll(wifiPointRepository::count);
+        return buildResponse(content, new PageImpl<>(content, pageable, total));
+    }
+
+    /**
+     * Retrieves all WiFi points with keyset pagination, in ID order.
+     * The cost of a page does not depend on how deep it is, and no total is counted.
+     *
+     * @param after Cursor returned as {@code nextCursor} by the previous page; blank for the first page
+     * @param size Page size
+     * @return Page of WiFi points with the cursor of the next page
+     * @throws IllegalArgumentException if the cursor is not valid
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public WifiPointResponseDTO findAllAfter(String after, int size) {
+        String afterId = KeysetCursor.decode(after);
+        log.debug("Finding all WiFi points - After: {}, Size: {}", afterId, size);
+
+        // One extra row tells whether another page follows
+        Optional<WifiDataset> dataset = wifiPointStore.snapshot();
+        if (dataset.isPresent()) {
+            return buildKeysetResponse(dataset.get().findAllAfter(afterId, size + 1), afterId, size);
+        }
+        List<WifiPoint> rows = wifiPointRepository.findAfterInIdOrder(afterId, size + 1);
+        return buildKeysetResponse(toDTOs(rows), afterId, size);
     }
 
     /**
      * Finds a WiFi point by its ID.
+     * Served from the current {@link WifiDataset} once it is built, otherwise from {@link WifiPointCache}
+     * when possible; neither touches the database nor the entity conversion. Runs without a
+     * transaction of its own (the repository opens one on a miss), so hits do not borrow a pooled connection.
      *
      * @param id WiFi point ID
      * @return WiFi point DTO
      * @throws ResourceNotFoundException if WiFi point not found
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public WifiPointDTO findById(String id) {
         log.debug("Finding WiFi point by ID: {}", id);
+        Optional<WifiDataset> dataset = wifiPointStore.snapshot();
+        if (dataset.isPresent()) {
+            return dataset.get().findById(id).orElseThrow(() -> notFound(id));
+        }
+        return wifiPointCache.get(id, this::loadById);
+    }
 
+    /**
+     * Loads a WiFi point from the database on a cache miss.
+     *
+     * @param id WiFi point ID
+     * @return WiFi point DTO
+     * @throws ResourceNotFoundException if WiFi point not found
+     */
+    private WifiPointDTO loadById(String id) {
         WifiPoint wifiPoint = wifiPointRepository.findById(id)
-                .orElseThrow(() -> {
-                    log.error("WiFi point not found with ID: {}", id);
-                    return new ResourceNotFoundException("WiFi point not found with ID: " + id);
-                });
+                .orElseThrow(() -> notFound(id));
 
         return convertToDTO(wifiPoint);
     }
 
+    private static ResourceNotFoundException notFound(String id) {
+        log.error("WiFi point not found with ID: {}", id);
+        return new ResourceNotFoundException("WiFi point not found with ID: " + id);
+    }
+
+    /**
+     * Finds many WiFi points by ID in one call.
+     * Served from the current {@link WifiDataset} once it is built; otherwise every ID is read with a
+     * single query. Results follow the request order, duplicates are dropped, and IDs that do not
+     * exist are reported as missing rather than failing the request.
+     *
+     * @param ids WiFi point IDs, at most {@link #MAX_BATCH_IDS} distinct
+     * @return Found WiFi points in request order and the missing IDs
+     * @throws IllegalArgumentException if no ID is given, an ID is blank, or there are too many
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public WifiPointBatchResponseDTO findByIds(List<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one ID is required");
+        }
+        Set<String> requested = new LinkedHashSet<>();
+        for (String id : ids) {
+            if (id == null || id.isBlank()) {
+                throw new IllegalArgumentException("IDs must not be blank");
+            }
+            requested.add(id.trim());
+        }
+        if (requested.size() > MAX_BATCH_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_IDS + " IDs can be requested at once");
+        }
+        log.debug("Finding {} WiFi points by ID", requested.size());
+
+        Map<String, WifiPointDTO> byId = new HashMap<>();
+        Optional<WifiDataset> dataset = wifiPointStore.snapshot();
+        if (dataset.isPresent()) {
+            for (String id : requested) {
+                dataset.get().findById(id).ifPresent(dto -> byId.put(id, dto));
+            }
+        } else {
+            for (WifiPoint wifiPoint : wifiPointRepository.findByPuntoIdIn(requested.toArray(String[]::new))) {
+                byId.put(wifiPoint.getPuntoId(), convertToDTO(wifiPoint));
+            }
+        }
+
+        List<WifiPointDTO> content = new ArrayList<>(byId.size());
+        List<String> missing = new ArrayList<>();
+        for (String id : requested) {
+            WifiPointDTO dto = byId.get(id);
+            if (dto != null) {
+                content.add(dto);
+            } else {
+                missing.add(id);
+            }
+        }
+        return WifiPointBatchResponseDTO.builder()
+                .content(content)
+                .missing(missing)
+                .requested(requested.size())
+                .found(content.size())
+                .build();
+    }
+
     /**
      * Finds WiFi points by alcaldia with pagination.
+     * The name is matched ignoring case and accents, through its {@link WifiPointRowMapper#alcaldiaKey key}.
      *
      * @param alcaldia Alcaldia name
      * @param pageable Pagination parameters
      * @return Paginated response with WiFi points
      */
     public WifiPointResponseDTO findByAlcaldia(String alcaldia, Pageable pageable) {
-        log.debug("Finding WiFi points by alcaldia: {} - Page: {}, Size: {}",
-                alcaldia, pageable.getPageNumber(), pageable.getPageSize());
+        return findByAlcaldia(alcaldia, pageable, true);
+    }
 
-        Page<WifiPoint> page = wifiPointRepository.findByAlcaldiaIgnoreCase(alcaldia, pageable);
-        List<WifiPointDTO> content = page.getContent().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    /**
+     * Finds WiFi points by alcaldia with pagination, optionally without totals.
+     * Served by the current {@link WifiDataset} when possible; otherwise totals are cached per alcaldia,
+     * as in {@link #findAll(Pageable, boolean)}.
+     *
+     * @param alcaldia Alcaldia name
+     * @param pageable Pagination parameters
+     * @param withTotal Whether to include totalElements and totalPages
+     * @return Paginated response with WiFi points
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public WifiPointResponseDTO findByAlcaldia(String alcaldia, Pageable pageable, boolean withTotal) {
+        log.debug("Finding WiFi points by alcaldia: {} - Page: {}, Size: {}, Total: {}",
+                alcaldia, pageable.getPageNumber(), pageable.getPageSize(), withTotal);
+
+        String alcaldiaKey = WifiPointRowMapper.alcaldiaKey(alcaldia);
+        Optional<WifiDataset> dataset = wifiPointStore.snapshot();
+        if (dataset.isPresent() && inIdOrder(pageable)) {
+            List<WifiPointDTO> content = dataset.get().findByAlcaldia(alcaldiaKey, pageable.getOffset(), pageable.getPageSize());
+            return buildStoreResponse(content, pageable, dataset.get().countByAlcaldia(alcaldiaKey), withTotal);
+        }
+        Slice<WifiPoint> slice = inIdOrder(pageable)
+                ? wifiPointRepository.findByAlcaldiaKeyInIdOrder(alcaldiaKey, unsorted(pageable))
+                : wifiPointRepository.findByAlcaldiaKey(alcaldiaKey, pageable);
+        List<WifiPointDTO> content = toDTOs(slice.getContent());
+
+        if (!withTotal) {
+            return buildSliceResponse(content, slice);
+        }
+        long total = countCache.countByAlcaldia(alcaldiaKey, () -> wifiPointRepository.countByAlcaldiaKey(alcaldiaKey));
+        return buildResponse(content, new PageImpl<>(content, pageable, total));
+    }
+
+    /**
+     * Finds WiFi points by alcaldia with keyset pagination, in ID order.
+     *
+     * @param alcaldia Alcaldia name
+     * @param after Cursor returned as {@code nextCursor} by the previous page; blank for the first page
+     * @param size Page size
+     * @return Page of WiFi points with the cursor of the next page
+     * @throws IllegalArgumentException if the cursor is not valid
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public WifiPointResponseDTO findByAlcaldiaAfter(String alcaldia, String after, int size) {
+        String afterId = KeysetCursor.decode(after);
+        log.debug("Finding WiFi points by alcaldia: {} - After: {}, Size: {}", alcaldia, afterId, size);
 
-        return buildResponse(content, page);
+        String alcaldiaKey = WifiPointRowMapper.alcaldiaKey(alcaldia);
+        Optional<WifiDataset> dataset = wifiPointStore.snapshot();
+        if (dataset.isPresent()) {
+            return buildKeysetResponse(dataset.get().findByAlcaldiaAfter(alcaldiaKey, afterId, size + 1), afterId, size);
+        }
+        List<WifiPoint> rows = wifiPointRepository.findByAlcaldiaKeyAfterInIdOrder(alcaldiaKey, afterId, size + 1);
+        return buildKeysetResponse(toDTOs(rows), afterId, size);
     }
 
     /**
-     * Finds nearby WiFi points using Haversine formula.
-     * Returns WiFi points ordered by distance from the given coordinates.
+     * Finds nearby WiFi points ordered by distance from the given coordinates.
      *
      * @param lat Latitude of reference point
      * @param lon Longitude of reference point
      * @param pageable Pagination parameters
      * @return Paginated response with WiFi points including distance
+     * @throws IllegalArgumentException if coordinates are missing or out of range
      */
-    @Transactional(readOnly = true)
     public Page<WifiPointDTO> findNearby(Double lat, Double lon, Pageable pageable) {
-        log.debug("Finding nearby WiFi points - Lat: {}, Lon: {}, Page: {}, Size: {}",
-                lat, lon, pageable.getPageNumber(), pageable.getPageSize());
+        return findNearby(lat, lon, null, pageable);
+    }
 
-        Page<Object[]> results = wifiPointRepository.findNearbyPoints(lat, lon, pageable);
+    /**
+     * Finds nearby WiFi points ordered by distance, optionally limited to a radius.
+     * The search itself is delegated to the configured {@link NearbySearchEngine}, through the
+     * {@link NearbyResultCache} so nearby queries from the same area share one search.
+     *
+     * @param lat Latitude of reference point
+     * @param lon Longitude of reference point
+     * @param radiusKm Maximum distance in kilometers (optional)
+     * @param pageable Pagination parameters
+     * @return Paginated response with WiFi points including distance
+     * @throws IllegalArgumentException if coordinates are missing or out of range, or radius is not positive
+     */
+    public Page<WifiPointDTO> findNearby(Double lat, Double lon, Double radiusKm, Pageable pageable) {
+        validateCoordinates(lat, lon);
+        if (radiusKm != null && !(radiusKm > 0)) {
+            throw new IllegalArgumentException("Radius must be greater than 0");
+        }
 
-        List<WifiPointDTO> dtos = results.getContent().stream()
-                .map(this::convertNearbyResultToDTO)
-                .collect(Collectors.toList());
+        log.debug("Finding nearby WiFi points ({} engine) - Lat: {}, Lon: {}, Radius: {} km, Page: {}, Size: {}",
+                nearbySearchEngine.getName(), lat, lon, radiusKm, pageable.getPageNumber(), pageable.getPageSize());
 
-        return new PageImpl<>(dtos, pageable, results.getTotalElements());
+        return nearbyResultCache.findNearby(wifiPointStore.current().version(), lat, lon, radiusKm, pageable,
+                nearbySearchEngine);
+    }
+
+    /**
+     * Finds the WiFi points inside a rectangle, such as the viewport of a map.
+     * Served by the grid index of the current {@link WifiDataset} once it is built, otherwise by a range
+     * query on the {@code (latitud, longitud)} index; either way the cost grows with the points inside
+     * the rectangle, not with the dataset. One extra point is read to tell whether the limit cut the result.
+     *
+     * @param minLat Southern edge
+     * @param minLon Western edge
+     * @param maxLat Northern edge
+     * @param maxLon Eastern edge
+     * @param limit Maximum number of points to return, at most {@link #MAX_WITHIN_LIMIT}
+     * @return WiFi points inside the rectangle, and whether there are more
+     * @throws IllegalArgumentException if a coordinate is out of range, the edges are swapped, or the limit is invalid
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public WifiPointWithinResponseDTO findWithin(Double minLat, Double minLon, Double maxLat, Double maxLon, int limit) {
+        validateBoundingBox(minLat, minLon, maxLat, maxLon, limit);
+        log.debug("Finding WiFi points within [{}, {}] - [{}, {}], Limit: {}", minLat, minLon, maxLat, maxLon, limit);
+
+        List<WifiPointDTO> rows = findWithinRows(new BoundingBox(minLat, minLon, maxLat, maxLon), limit + 1);
+
+        boolean truncated = rows.size() > limit;
+        List<WifiPointDTO> content = truncated ? rows.subList(0, limit) : rows;
+        return WifiPointWithinResponseDTO.builder()
+                .content(content)
+                .count(content.size())
+                .limit(limit)
+                .truncated(truncated)
+                .build();
+    }
+
+    /**
+     * Finds the clusters of WiFi points to draw in a map viewport at a zoom level.
+     * Clusters are precomputed for every zoom level with the {@link WifiDataset}, so this is a lookup in the
+     * level's grid index; before the dataset is built, the points are grouped by the same cells in PostgreSQL.
+     * Beyond {@link ClusterIndex#MAX_ZOOM} points are no longer grouped and the viewport's points are returned.
+     *
+     * @param minLat Southern edge
+     * @param minLon Western edge
+     * @param maxLat Northern edge
+     * @param maxLon Eastern edge
+     * @param zoom Map zoom level, from 0 to {@link #MAX_ZOOM}
+     * @param limit Maximum number of clusters to return, at most {@link #MAX_WITHIN_LIMIT}
+     * @return Clusters whose position is inside the rectangle, and whether there are more
+     * @throws IllegalArgumentException if a coordinate is out of range, the edges are swapped, or the zoom or limit is invalid
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public WifiClusterResponseDTO findClusters(Double minLat, Double minLon, Double maxLat, Double maxLon, int zoom,
+                                               int limit) {
+        validateBoundingBox(minLat, minLon, maxLat, maxLon, limit);
+        if (zoom < 0 || zoom > MAX_ZOOM) {
+            throw new IllegalArgumentException("Zoom must be between 0 and " + MAX_ZOOM);
+        }
+        log.debug("Finding WiFi point clusters within [{}, {}] - [{}, {}], Zoom: {}, Limit: {}",
+                minLat, minLon, maxLat, maxLon, zoom, limit);
+
+        List<WifiClusterDTO> rows;
+        boolean clustered = zoom <= ClusterIndex.MAX_ZOOM;
+        BoundingBox box = new BoundingBox(minLat, minLon, maxLat, maxLon);
+        if (!clustered) {
+            rows = findWithinRows(box, limit + 1).stream()
+                    .map(this::toCluster)
+                    .collect(Collectors.toList());
+        } else {
+            Optional<WifiDataset> dataset = wifiPointStore.snapshot();
+            rows = dataset.isPresent()
+                    ? dataset.get().findClusters(box, zoom, limit + 1)
+                    : findClustersInDatabase(box, zoom, limit + 1);
+        }
+
+        boolean truncated = rows.size() > limit;
+        List<WifiClusterDTO> content = truncated ? rows.subList(0, limit) : rows;
+        return WifiClusterResponseDTO.builder()
+                .content(content)
+                .zoom(zoom)
+                .clustered(clustered)
+                .count(content.size())
+                .points(content.stream().mapToLong(WifiClusterDTO::getCount).sum())
+                .limit(limit)
+                .truncated(truncated)
+                .build();
+    }
+
+    /**
+     * Counts the WiFi points in each cell of a latitude/longitude grid covering a rectangle, for heatmaps.
+     * The counts are precomputed with the {@link WifiDataset}, in total and per programa, so the query costs
+     * as much as the cells it returns and never reaches the database; before the first dataset is built the
+     * grid is empty. The grid has no database equivalent, so it is read from the current dataset even with
+     * {@code wifi.store.enabled=false}, which only routes the queries PostgreSQL can also answer.
+     *
+     * @param minLat Southern edge
+     * @param minLon Western edge
+     * @param maxLat Northern edge
+     * @param maxLon Eastern edge
+     * @param step Grid cells merged along each axis, at least 1
+     * @param programa Programa to count, ignoring case and accents; null or blank for every point
+     * @return Counts of the cells overlapping the rectangle, at most {@link #MAX_DENSITY_CELLS}
+     * @throws IllegalArgumentException if a coordinate is out of range, the edges are swapped, the step is not
+     *                                  positive, the programa is unknown, or the grid would have too many cells
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public WifiDensityDTO findDensity(Double minLat, Double minLon, Double maxLat, Double maxLon, int step,
+                                      String programa) {
+        validateBoundingBox(minLat, minLon, maxLat, maxLon);
+        String layer = programa == null || programa.isBlank() ? null : programa.trim();
+        WifiDataset dataset = wifiPointStore.current();
+        log.debug("Finding WiFi point density within [{}, {}] - [{}, {}], Step: {}, Programa: {}, Dataset: v{}",
+                minLat, minLon, maxLat, maxLon, step, layer, dataset.version());
+
+        DensityGrid.Window window = dataset.findDensity(new BoundingBox(minLat, minLon, maxLat, maxLon), step,
+                layer, MAX_DENSITY_CELLS);
+        long total = 0;
+        int max = 0;
+        for (int count : window.counts()) {
+            total += count;
+            max = Math.max(max, count);
+        }
+        return WifiDensityDTO.builder()
+                .minLat(window.minLat())
+                .minLon(window.minLon())
+                .maxLat(window.minLat() + window.rows() * window.cellDegrees())
+                .maxLon(window.minLon() + window.cols() * window.cellDegrees())
+                .cellDegrees(window.cellDegrees())
+                .rows(window.rows())
+                .cols(window.cols())
+                .programa(layer)
+                .total(total)
+                .max(max)
+                .counts(window.counts())
+                .build();
+    }
+
+    /**
+     * Returns the number of WiFi points per alcaldia, per programa and per programa within each alcaldia,
+     * with the bounding box and centroid of each group. The statistics are computed with every
+     * {@link WifiDataset}, so this is a field read; before the first dataset is built, or with
+     * {@code wifi.store.enabled=false}, they are aggregated in PostgreSQL with one {@code GROUP BY}.
+     *
+     * @return Statistics of the WiFi points
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public WifiStatisticsDTO getStatistics() {
+        Optional<WifiDataset> dataset = wifiPointStore.snapshot();
+        if (dataset.isPresent()) {
+            return dataset.get().statistics();
+        }
+
+        log.debug("Aggregating WiFi point statistics in the database");
+        StatisticsBuilder builder = new StatisticsBuilder();
+        for (Object[] row : wifiPointRepository.summarizeByAlcaldiaAndPrograma()) {
+            builder.add((String) row[0], (String) row[1], ((Number) row[2]).longValue(),
+                    ((Number) row[3]).doubleValue(), ((Number) row[4]).doubleValue(),
+                    ((Number) row[5]).doubleValue(), ((Number) row[6]).doubleValue(),
+                    ((Number) row[7]).doubleValue(), ((Number) row[8]).doubleValue());
+        }
+        return builder.build("database", null);
+    }
+
+    /**
+     * Finds the nearest WiFi points to many origins at once, for clients that would otherwise
+     * send one nearby request per origin.
+     *
+     * Every origin is validated before anything is searched, so an invalid one fails the whole
+     * request. Once the dataset is built, origins are answered from its k-d tree, whatever the
+     * configured engine, in chunks of {@link #NEARBY_BATCH_CHUNK} evaluated in parallel on the
+     * common fork-join pool. Until then, or with {@code wifi.store.enabled=false}, each origin goes to
+     * the configured {@link NearbySearchEngine} one after another, so a large batch cannot take every
+     * pooled connection. The stream is
+     * lazy: results are computed chunk by chunk as it is consumed, always in request order,
+     * and all of them come from the same version of the dataset.
+     *
+     * @param origins Origins with the number of points to return and an optional radius
+     * @return Lazy stream with one result per origin, in request order
+     * @throws IllegalArgumentException if there are no origins, too many, or any of them is invalid
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Stream<NearbyBatchResultDTO> findNearbyBatch(List<NearbyOriginDTO> origins) {
+        if (origins == null || origins.isEmpty()) {
+            throw new IllegalArgumentException("At least one origin is required");
+        }
+        if (origins.size() > MAX_NEARBY_ORIGINS) {
+            throw new IllegalArgumentException("At most " + MAX_NEARBY_ORIGINS + " origins can be searched at once");
+        }
+        for (int i = 0; i < origins.size(); i++) {
+            validateOrigin(origins.get(i), i);
+        }
+
+        WifiDataset dataset = wifiPointStore.snapshot().orElse(null);
+        log.debug("Finding nearby WiFi points for {} origins ({})", origins.size(),
+                dataset == null ? nearbySearchEngine.getName() + " engine" : "dataset v" + dataset.version());
+
+        int chunks = (origins.size() + NEARBY_BATCH_CHUNK - 1) / NEARBY_BATCH_CHUNK;
+        return IntStream.range(0, chunks).boxed().flatMap(chunk -> {
+            int from = chunk * NEARBY_BATCH_CHUNK;
+            IntStream indexes = IntStream.range(from, Math.min(from + NEARBY_BATCH_CHUNK, origins.size()));
+            if (dataset == null) {
+                return indexes.mapToObj(i -> nearbyFromEngine(origins.get(i), i)).toList().stream();
+            }
+            return indexes.parallel().mapToObj(i -> nearbyFromDataset(dataset, origins.get(i), i)).toList().stream();
+        });
+    }
+
+    private void validateOrigin(NearbyOriginDTO origin, int index) {
+        try {
+            if (origin == null) {
+                throw new IllegalArgumentException("Latitude and longitude are required");
+            }
+            validateCoordinates(origin.getLat(), origin.getLon());
+            if (origin.getK() != null && (origin.getK() < 1 || origin.getK() > MAX_NEARBY_K)) {
+                throw new IllegalArgumentException("k must be between 1 and " + MAX_NEARBY_K);
+            }
+            if (origin.getRadiusKm() != null && !(origin.getRadiusKm() > 0)) {
+                throw new IllegalArgumentException("Radius must be greater than 0");
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Origin " + index + ": " + e.getMessage());
+        }
+    }
+
+    private static NearbyBatchResultDTO nearbyFromDataset(WifiDataset dataset, NearbyOriginDTO origin, int index) {
+        double lat = origin.getLat();
+        double lon = origin.getLon();
+        double maxDistanceKm = origin.getRadiusKm() != null ? origin.getRadiusKm() : Double.POSITIVE_INFINITY;
+        int[] nearest = dataset.tree().nearest(lat, lon, kOf(origin), maxDistanceKm);
+
+        List<WifiPointDTO> results = new ArrayList<>(nearest.length);
+        for (int row : nearest) {
+            WifiPointDTO point = dataset.table().toDTO(row);
+            point.setDistancia(GeoUtils.haversineKm(lat, lon, point.getLatitud(), point.getLongitud()));
+            results.add(point);
+        }
+        return nearbyResult(origin, index, results);
+    }
+
+    private NearbyBatchResultDTO nearbyFromEngine(NearbyOriginDTO origin, int index) {
+        Page<WifiPointDTO> page = nearbySearchEngine.findNearby(origin.getLat(), origin.getLon(), origin.getRadiusKm(),
+                PageRequest.of(0, kOf(origin)));
+        return nearbyResult(origin, index, page.getContent());
+    }
+
+    private static int kOf(NearbyOriginDTO origin) {
+        return origin.getK() != null ? origin.getK() : 1;
+    }
+
+    private static NearbyBatchResultDTO nearbyResult(NearbyOriginDTO origin, int index, List<WifiPointDTO> results) {
+        return NearbyBatchResultDTO.builder()
+                .index(index)
+                .lat(origin.getLat())
+                .lon(origin.getLon())
+                .results(results)
+                .build();
+    }
+
+    /**
+     * Finds the WiFi points inside a rectangle, from the grid index of the current {@link WifiDataset}
+     * or, before it is built, from the {@code (latitud, longitud)} index.
+     *
+     * @param box Rectangle to search
+     * @param limit Maximum number of points to return
+     * @return WiFi points in no particular order
+     */
+    private List<WifiPointDTO> findWithinRows(BoundingBox box, int limit) {
+        Optional<WifiDataset> dataset = wifiPointStore.snapshot();
+        if (dataset.isPresent()) {
+            return dataset.get().findWithin(box, limit);
+        }
+        return toDTOs(wifiPointRepository.findByLatitudBetweenAndLongitudBetween(
+                box.minLat(), box.maxLat(), box.minLon(), box.maxLon(), Limit.of(limit)));
+    }
+
+    /**
+     * Groups the WiFi points in PostgreSQL by the same cells as {@link ClusterIndex}.
+     * Only the cells touching the rectangle can hold a cluster whose position is inside it.
+     *
+     * @param box Rectangle to search
+     * @param zoom Zoom level, from 0 to {@link ClusterIndex#MAX_ZOOM}
+     * @param limit Maximum number of clusters to return
+     * @return Clusters whose position is inside the rectangle
+     */
+    private List<WifiClusterDTO> findClustersInDatabase(BoundingBox box, int zoom, int limit) {
+        int west = ClusterIndex.cellX(box.minLon(), zoom);
+        int east = ClusterIndex.cellX(box.maxLon(), zoom);
+        int north = ClusterIndex.cellY(box.maxLat(), zoom);
+        int south = ClusterIndex.cellY(box.minLat(), zoom);
+        List<Object[]> rows = wifiPointRepository.findClusters(ClusterIndex.cellsPerAxis(zoom), west, east, north, south,
+                ClusterIndex.cellLat(south + 1, zoom), ClusterIndex.cellLat(north, zoom),
+                ClusterIndex.cellLon(west, zoom), ClusterIndex.cellLon(east + 1, zoom),
+                box.minLat(), box.maxLat(), box.minLon(), box.maxLon(), limit);
+
+        List<WifiClusterDTO> clusters = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            int count = ((Number) row[0]).intValue();
+            double latitud = ((Number) row[1]).doubleValue();
+            double longitud = ((Number) row[2]).doubleValue();
+            clusters.add(WifiClusterDTO.builder()
+                    .latitud(latitud)
+                    .longitud(longitud)
+                    .count(count)
+                    .point(count == 1 ? WifiPointDTO.builder()
+                            .puntoId((String) row[3])
+                            .programa((String) row[4])
+                            .latitud(latitud)
+                            .longitud(longitud)
+                            .alcaldia((String) row[5])
+                            .build() : null)
+                    .build());
+        }
+        return clusters;
+    }
+
+    /**
+     * @return Single-point cluster for the WiFi point
+     */
+    private WifiClusterDTO toCluster(WifiPointDTO point) {
+        return WifiClusterDTO.builder()
+                .latitud(point.getLatitud())
+                .longitud(point.getLongitud())
+                .count(1)
+                .point(point)
+                .build();
+    }
+
+    /**
+     * Validates the corners of a rectangle and the maximum number of items to return for it.
+     *
+     * @throws IllegalArgumentException if a coordinate is out of range, the edges are swapped, or the limit is invalid
+     */
+    private void validateBoundingBox(Double minLat, Double minLon, Double maxLat, Double maxLon, int limit) {
+        validateBoundingBox(minLat, minLon, maxLat, maxLon);
+        if (limit < 1 || limit > MAX_WITHIN_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_WITHIN_LIMIT);
+        }
+    }
+
+    /**
+     * Validates the corners of a rectangle.
+     *
+     * @throws IllegalArgumentException if a coordinate is out of range or the edges are swapped
+     */
+    private void validateBoundingBox(Double minLat, Double minLon, Double maxLat, Double maxLon) {
+        validateCoordinates(minLat, minLon);
+        validateCoordinates(maxLat, maxLon);
+        if (minLat > maxLat || minLon > maxLon) {
+            throw new IllegalArgumentException("minLat and minLon must not be greater than maxLat and maxLon");
+        }
+    }
+
+    /**
+     * Validates that both coordinates are present and within valid ranges.
+     *
+     * @param lat Latitude to validate
+     * @param lon Longitude to validate
+     * @throws IllegalArgumentException if any coordinate is invalid
+     */
+    private void validateCoordinates(Double lat, Double lon) {
+        if (lat == null || lon == null) {
+            throw new IllegalArgumentException("Latitude and longitude are required");
+        }
+        if (lat < -90 || lat > 90) {
+            throw new IllegalArgumentException("Latitude must be between -90 and 90");
+        }
+        if (lon < -180 || lon > 180) {
+            throw new IllegalArgumentException("Longitude must be between -180 and 180");
+        }
+    }
+
+    /**
+     * Whether a page is in ID order, the only order the {@link WifiDataset} keeps.
+     *
+     * @param pageable Pagination parameters
+     * @return true if the page can be served from the dataset
+     */
+    private boolean inIdOrder(Pageable pageable) {
+        Sort sort = pageable.getSort();
+        if (sort.isUnsorted()) {
+            return true;
+        }
+        List<Sort.Order> orders = sort.toList();
+        return orders.size() == 1 && "puntoId".equals(orders.get(0).getProperty()) && orders.get(0).isAscending();
+    }
+
+    /**
+     * The ID-order queries sort in SQL ({@code COLLATE "C"}), so the pageable only carries the page.
+     */
+    private static Pageable unsorted(Pageable pageable) {
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+    }
+
+    private List<WifiPointDTO> toDTOs(List<WifiPoint> wifiPoints) {
+        return wifiPoints.stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
     }
 
     /**
@@ -123,24 +780,6 @@ public class WifiPointService {
                 .build();
     }
 
-    /**
-     * Converts nearby query result (Object[]) to DTO with distance.
-     * The Object[] contains: [punto_id, programa, latitud, longitud, alcaldia, distancia]
-     *
-     * @param result Query result array
-     * @return WifiPointDTO with distance
-     */
-    private WifiPointDTO convertNearbyResultToDTO(Object[] result) {
-        return WifiPointDTO.builder()
-                .puntoId((String) result[0])
-                .programa((String) result[1])
-                .latitud((Double) result[2])
-                .longitud((Double) result[3])
-                .alcaldia((String) result[4])
-                .distancia(result[5] != null ? ((Number) result[5]).doubleValue() : null)
-                .build();
-    }
-
     /**
      * Builds a standardized response DTO from page data.
      *
@@ -160,7 +799,91 @@ public class WifiPointService {
                 .build();
     }
 
+    /**
+     * Builds a response DTO for a page served by the store, where the total is always known.
+     *
+     * @param content List of WiFi point DTOs
+     * @param pageable Pagination parameters
+     * @param total Number of WiFi points matching the query
+     * @param withTotal Whether to include totalElements and totalPages
+     * @return WifiPointResponseDTO
+     */
+    private WifiPointResponseDTO buildStoreResponse(List<WifiPointDTO> content, Pageable pageable, long total,
+                                                    boolean withTotal) {
+        if (!withTotal) {
+            boolean hasNext = pageable.getOffset() + content.size() < total;
+            return buildSliceResponse(content, new SliceImpl<>(content, pageable, hasNext));
+        }
+        return buildResponse(content, new PageImpl<>(content, pageable, total));
+    }
+
+    /**
+     * Builds a response DTO without totals from slice data.
+     *
+     * @param content List of WiFi point DTOs
+     * @param slice Slice object with metadata
+     * @return WifiPointResponseDTO
+     */
+    private WifiPointResponseDTO buildSliceResponse(List<WifiPointDTO> content, Slice<?> slice) {
+        return WifiPointResponseDTO.builder()
+                .content(content)
+                .currentPage(slice.getNumber())
+                .pageSize(slice.getSize())
+                .first(slice.isFirst())
+                .last(!slice.hasNext())
+                .build();
+    }
+
+    /**
+     * Builds a keyset page response from up to {@code size + 1} rows.
+     *
+     * @param rows Rows after the cursor, one more than the page size if another page follows
+     * @param afterId ID the page starts after; empty for the first page
+     * @param size Page size
+     * @return WifiPointResponseDTO without totals
+     */
+    private WifiPointResponseDTO buildKeysetResponse(List<WifiPointDTO> rows, String afterId, int size) {
+        boolean hasNext = rows.size() > size;
+        List<WifiPointDTO> content = hasNext ? rows.subList(0, size) : rows;
+
+        return WifiPointResponseDTO.builder()
+                .content(content)
+                .pageSize(size)
+                .first(afterId.isEmpty())
+                .last(!hasNext)
+                .nextCursor(hasNext ? KeysetCursor.encode(content.get(content.size() - 1).getPuntoId()) : null)
+                .build();
+    }
+
     public long count() {
         return wifiPointRepository.count();
     }
+
+    /**
+     * @return Statistics of the findById cache
+     */
+    public Map<String, Object> getCacheStats() {
+        return wifiPointCache.getStats();
+    }
+
+    /**
+     * @return Statistics of the count cache
+     */
+    public Map<String, Object> getCountCacheStats() {
+        return countCache.getStats();
+    }
+
+    /**
+     * @return Version and size of the in-memory dataset
+     */
+    public Map<String, Object> getStoreStats() {
+        return wifiPointStore.getStats();
+    }
+
+    /**
+     * @return Statistics of the nearby result cache
+     */
+    public Map<String, Object> getNearbyCacheStats() {
+        return nearbyResultCache.getStats();
+    }
 }
\ No newline at end of file
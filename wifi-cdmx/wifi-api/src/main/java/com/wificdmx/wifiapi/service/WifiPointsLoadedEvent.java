@@ -0,0 +1,10 @@
+package com.wificdmx.wifiapi.service;
+
+/**
+ * Published by {@link DataLoaderService} once the background import or sync has changed the stored
+ * WiFi points, so components holding derived data (indexes, caches) can rebuild it.
+ *
+ * @param loaded Number of WiFi points imported, or upserted and deleted by a sync
+ */
+public record WifiPointsLoadedEvent(long loaded) {
+}
@@ -0,0 +1,23 @@
+package com.wificdmx.wifiapi.spatial;
+
+/**
+ * Latitude/longitude rectangle in degrees.
+ *
+ * @param minLat Southern edge
+ * @param minLon Western edge
+ * @param maxLat Northern edge
+ * @param maxLon Eastern edge
+ */
+public record BoundingBox(double minLat, double minLon, double maxLat, double maxLon) {
+
+    /**
+     * Checks whether the given coordinates fall inside the rectangle (edges included).
+     *
+     * @param lat Latitude to test
+     * @param lon Longitude to test
+     * @return true if the point is inside the box
+     */
+    public boolean contains(double lat, double lon) {
+        return lat >= minLat && lat <= maxLat && lon >= minLon && lon <= maxLon;
+    }
+}
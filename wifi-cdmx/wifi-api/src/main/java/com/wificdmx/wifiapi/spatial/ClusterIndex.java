@@ -0,0 +1,257 @@
+package com.wificdmx.wifiapi.spatial;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical grid clustering of points for map rendering, precomputed for every zoom level.
+ *
+ * At zoom z the {@link WebMercator} world is split into square cells of a quarter of a 256-pixel tile
+ * (64 pixels), and the points of each cell form one cluster placed at their mean position. A cell of
+ * zoom z is made of exactly four cells of zoom z + 1, so the levels are built bottom-up: the points
+ * are sorted once by the Z-order (Morton) code of their cell at {@link #MAX_ZOOM}, where the four
+ * children of a cell are always contiguous, and every coarser level merges the runs of clusters
+ * whose codes share a parent in one linear pass. Each level keeps a {@link GridIndex} over its
+ * cluster positions, so a viewport query costs as much as the clusters it returns.
+ */
+public final class ClusterIndex {
+
+    /**
+     * Deepest zoom level with clusters; beyond it, clients should ask for individual points
+     */
+    public static final int MAX_ZOOM = 16;
+
+    /**
+     * Cells per tile along each axis
+     */
+    public static final int CELLS_PER_TILE = 4;
+
+    /**
+     * Bits of a cell coordinate at {@link #MAX_ZOOM}: 2^16 tiles of 2^2 cells
+     */
+    private static final int CELL_BITS = MAX_ZOOM + 2;
+
+    /**
+     * Bits left for the point index once a Morton code of two cell coordinates is packed in a long
+     */
+    private static final int ROW_BITS = Long.SIZE - 1 - 2 * CELL_BITS;
+
+    /**
+     * Levels by zoom; a level identical to the one below it is shared
+     */
+    private final Level[] levels = new Level[MAX_ZOOM + 1];
+
+    /**
+     * Builds the clusters of every zoom level from parallel latitude/longitude arrays.
+     * The index of each point in the arrays is the value returned by {@link Level#row}.
+     *
+     * @param lat Latitudes in degrees
+     * @param lon Longitudes in degrees
+     */
+    public ClusterIndex(double[] lat, double[] lon) {
+        if (lat.length != lon.length) {
+            throw new IllegalArgumentException("Latitude and longitude arrays must have the same length");
+        }
+        int n = lat.length;
+        if (n >= 1 << ROW_BITS) {
+            throw new IllegalArgumentException("Too many points to cluster: " + n);
+        }
+
+        // Morton code of the deepest cell in the high bits, point index in the low bits
+        long[] sorted = new long[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = mortonCode(cellX(lon[i], MAX_ZOOM), cellY(lat[i], MAX_ZOOM)) << ROW_BITS | i;
+        }
+        Arrays.sort(sorted);
+
+        long[] codes = new long[n];
+        double[] sumLat = new double[n];
+        double[] sumLon = new double[n];
+        int[] count = new int[n];
+        int[] row = new int[n];
+        int size = 0;
+        for (long entry : sorted) {
+            long code = entry >>> ROW_BITS;
+            int point = (int) (entry & ((1L << ROW_BITS) - 1));
+            if (size == 0 || codes[size - 1] != code) {
+                codes[size] = code;
+                row[size] = point;
+                size++;
+            }
+            sumLat[size - 1] += lat[point];
+            sumLon[size - 1] += lon[point];
+            count[size - 1]++;
+        }
+        levels[MAX_ZOOM] = new Level(sumLat, sumLon, count, row, size);
+
+        // Each coarser level merges, in place, the clusters whose cells share a parent
+        for (int zoom = MAX_ZOOM - 1; zoom >= 0; zoom--) {
+            int merged = 0;
+            for (int i = 0; i < size; i++) {
+                long parent = codes[i] >>> 2;
+                if (merged > 0 && codes[merged - 1] == parent) {
+                    sumLat[merged - 1] += sumLat[i];
+                    sumLon[merged - 1] += sumLon[i];
+                    count[merged - 1] += count[i];
+                } else {
+                    codes[merged] = parent;
+                    sumLat[merged] = sumLat[i];
+                    sumLon[merged] = sumLon[i];
+                    count[merged] = count[i];
+                    row[merged] = row[i];
+                    merged++;
+                }
+            }
+            levels[zoom] = merged == size ? levels[zoom + 1] : new Level(sumLat, sumLon, count, row, merged);
+            size = merged;
+        }
+    }
+
+    /**
+     * @param zoom Zoom level, from 0 to {@link #MAX_ZOOM}
+     * @return Clusters of the zoom level
+     */
+    public Level level(int zoom) {
+        if (zoom < 0 || zoom > MAX_ZOOM) {
+            throw new IllegalArgumentException("Zoom must be between 0 and " + MAX_ZOOM);
+        }
+        return levels[zoom];
+    }
+
+    /**
+     * @param zoom Zoom level
+     * @return Number of cells along each axis of the world at that zoom
+     */
+    public static long cellsPerAxis(int zoom) {
+        return (long) CELLS_PER_TILE << zoom;
+    }
+
+    /**
+     * @param lon Longitude in degrees
+     * @param zoom Zoom level
+     * @return Column of the cell holding the longitude, from 0 at the antimeridian eastwards
+     */
+    public static int cellX(double lon, int zoom) {
+        long cells = cellsPerAxis(zoom);
+        return clamp(Math.floor(WebMercator.x(lon) * cells), cells);
+    }
+
+    /**
+     * @param lat Latitude in degrees
+     * @param zoom Zoom level
+     * @return Row of the cell holding the latitude, from 0 at the north edge of the projection southwards
+     */
+    public static int cellY(double lat, int zoom) {
+        long cells = cellsPerAxis(zoom);
+        return clamp(Math.floor(WebMercator.y(lat) * cells), cells);
+    }
+
+    /**
+     * @param x Cell column
+     * @param zoom Zoom level
+     * @return Longitude of the western edge of the column
+     */
+    public static double cellLon(int x, int zoom) {
+        return WebMercator.lon((double) x / cellsPerAxis(zoom));
+    }
+
+    /**
+     * @param y Cell row
+     * @param zoom Zoom level
+     * @return Latitude of the northern edge of the row
+     */
+    public static double cellLat(int y, int zoom) {
+        return WebMercator.lat((double) y / cellsPerAxis(zoom));
+    }
+
+    private static int clamp(double cell, long cells) {
+        return (int) Math.max(0, Math.min(cells - 1, cell));
+    }
+
+    /**
+     * Interleaves the bits of two cell coordinates, x in the even bits and y in the odd ones.
+     */
+    private static long mortonCode(int x, int y) {
+        return spreadBits(x) | spreadBits(y) << 1;
+    }
+
+    private static long spreadBits(int value) {
+        long bits = value & 0xFFFFFFFFL;
+        bits = (bits | bits << 16) & 0x0000FFFF0000FFFFL;
+        bits = (bits | bits << 8) & 0x00FF00FF00FF00FFL;
+        bits = (bits | bits << 4) & 0x0F0F0F0F0F0F0F0FL;
+        bits = (bits | bits << 2) & 0x3333333333333333L;
+        bits = (bits | bits << 1) & 0x5555555555555555L;
+        return bits;
+    }
+
+    /**
+     * Clusters of one zoom level, addressed by their index in the level.
+     */
+    public static final class Level {
+
+        private final double[] lat;
+        private final double[] lon;
+        private final int[] count;
+        private final int[] row;
+        private final GridIndex grid;
+
+        private Level(double[] sumLat, double[] sumLon, int[] count, int[] row, int size) {
+            this.lat = new double[size];
+            this.lon = new double[size];
+            for (int i = 0; i < size; i++) {
+                lat[i] = sumLat[i] / count[i];
+                lon[i] = sumLon[i] / count[i];
+            }
+            this.count = Arrays.copyOf(count, size);
+            this.row = Arrays.copyOf(row, size);
+            this.grid = new GridIndex(lat, lon);
+        }
+
+        /**
+         * @return Number of clusters
+         */
+        public int size() {
+            return count.length;
+        }
+
+        /**
+         * @return Mean latitude of the points of the cluster
+         */
+        public double lat(int cluster) {
+            return lat[cluster];
+        }
+
+        /**
+         * @return Mean longitude of the points of the cluster
+         */
+        public double lon(int cluster) {
+            return lon[cluster];
+        }
+
+        /**
+         * @return Number of points in the cluster
+         */
+        public int count(int cluster) {
+            return count[cluster];
+        }
+
+        /**
+         * @return Index of one point of the cluster; the point itself when the cluster holds only one
+         */
+        public int row(int cluster) {
+            return row[cluster];
+        }
+
+        /**
+         * Finds the clusters whose position falls inside a rectangle, edges included.
+         * A cluster counts all its points, even those outside the rectangle.
+         *
+         * @param box Rectangle to search; must not cross the antimeridian
+         * @param limit Maximum number of clusters to return
+         * @return Cluster indexes, at most {@code limit}
+         */
+        public int[] within(BoundingBox box, int limit) {
+            return grid.within(box, limit);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.wificdmx.wifiapi.spatial;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Point density raster: the number of points in each cell of a latitude/longitude grid, in total and
+ * per layer (for instance per programa), precomputed so a heatmap of any rectangle costs as much as
+ * the cells it returns.
+ *
+ * Cells are squares of {@link #cellDegrees()} aligned to multiples of that size from (0, 0), and the
+ * raster spans the cells between the southernmost, westernmost, northernmost and easternmost points.
+ * The counts are aggregated with a fork/join split over the points, each half counting into its own
+ * raster and the halves summed on the way back up, and then kept as summed-area tables in
+ * {@code int[]}: the count of any block of cells is four lookups, so a query can merge k x k cells
+ * into one without reading them.
+ */
+public final class DensityGrid {
+
+    /**
+     * Layer number that selects every point
+     */
+    public static final int ALL = -1;
+
+    /**
+     * Largest number of table entries kept for all layers together; a finer raster is coarsened to fit
+     */
+    static final long MAX_TABLE_ENTRIES = 1 << 23;
+
+    /**
+     * Fewest points a fork/join task counts on its own
+     */
+    private static final int MIN_TASK_POINTS = 8192;
+
+    private final double cellDegrees;
+    private final int firstRow;
+    private final int firstCol;
+    private final int rows;
+    private final int cols;
+
+    /**
+     * Summed-area table of each layer, with {@link #ALL} at index 0: entry (r, c) of the
+     * (rows + 1) x (cols + 1) table is the number of points in local rows below r and columns below c
+     */
+    private final int[][] summed;
+
+    /**
+     * Builds the raster from parallel coordinate and layer arrays.
+     *
+     * @param lat Latitudes in degrees
+     * @param lon Longitudes in degrees
+     * @param layer Layer of each point, from 0 to {@code layers - 1}
+     * @param layers Number of layers
+     * @param cellDegrees Side of a cell in degrees; doubled as often as needed to keep the tables within bounds
+     */
+    public DensityGrid(double[] lat, double[] lon, int[] layer, int layers, double cellDegrees) {
+        if (lat.length != lon.length || lat.length != layer.length) {
+            throw new IllegalArgumentException("Coordinate and layer arrays must have the same length");
+        }
+        if (!(cellDegrees > 0)) {
+            throw new IllegalArgumentException("Cell size must be positive");
+        }
+        int n = lat.length;
+        double minLat = Double.POSITIVE_INFINITY;
+        double maxLat = Double.NEGATIVE_INFINITY;
+        double minLon = Double.POSITIVE_INFINITY;
+        double maxLon = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            minLat = Math.min(minLat, lat[i]);
+            maxLat = Math.max(maxLat, lat[i]);
+            minLon = Math.min(minLon, lon[i]);
+            maxLon = Math.max(maxLon, lon[i]);
+        }
+
+        while (n > 0 && (layers + 1) * (span(minLat, maxLat, cellDegrees) + 1)
+                * (span(minLon, maxLon, cellDegrees) + 1) > MAX_TABLE_ENTRIES) {
+            cellDegrees *= 2;
+        }
+        this.cellDegrees = cellDegrees;
+        this.firstRow = n == 0 ? 0 : cellIndex(minLat, cellDegrees);
+        this.firstCol = n == 0 ? 0 : cellIndex(minLon, cellDegrees);
+        this.rows = n == 0 ? 0 : cellIndex(maxLat, cellDegrees) - firstRow + 1;
+        this.cols = n == 0 ? 0 : cellIndex(maxLon, cellDegrees) - firstCol + 1;
+
+        int[] counts = n == 0 ? new int[0]
+                : ForkJoinPool.commonPool().invoke(new CountTask(lat, lon, layer, layers, 0, n,
+                        Math.max(MIN_TASK_POINTS, Math.ceilDiv(n, ForkJoinPool.getCommonPoolParallelism()))));
+
+        int cells = rows * cols;
+        int width = cols + 1;
+        this.summed = new int[layers + 1][];
+        int[] all = new int[(rows + 1) * width];
+        for (int l = 0; l < layers; l++) {
+            int[] table = new int[(rows + 1) * width];
+            for (int r = 0; r < rows; r++) {
+                int rowSum = 0;
+                for (int c = 0; c < cols; c++) {
+                    rowSum += counts[l * cells + r * cols + c];
+                    int entry = (r + 1) * width + c + 1;
+                    table[entry] = table[entry - width] + rowSum;
+                    all[entry] += table[entry];
+                }
+            }
+            summed[l + 1] = table;
+        }
+        summed[0] = layers == 1 ? summed[1] : all;
+    }
+
+    /**
+     * @return Side of a cell in degrees
+     */
+    public double cellDegrees() {
+        return cellDegrees;
+    }
+
+    /**
+     * @return Number of layers, not counting {@link #ALL}
+     */
+    public int layers() {
+        return summed.length - 1;
+    }
+
+    /**
+     * @return Number of cells of the raster
+     */
+    public long cells() {
+        return (long) rows * cols;
+    }
+
+    /**
+     * @return Approximate heap size of the summed-area tables
+     */
+    public long estimatedBytes() {
+        long entries = (long) (rows + 1) * (cols + 1);
+        return 4 * entries * (summed.length == 2 ? 1 : summed.length);
+    }
+
+    /**
+     * Counts the points of a layer in the cells covering a rectangle, merging {@code step} x {@code step}
+     * cells into one. Merged cells are aligned to multiples of their size, so the same cell holds the
+     * same count whatever the rectangle; every cell overlapping the rectangle is included whole.
+     *
+     * @param box Rectangle to cover; must not cross the antimeridian
+     * @param step Cells merged along each axis, at least 1
+     * @param layer Layer to count, or {@link #ALL}
+     * @param maxCells Largest number of cells the window may have
+     * @return Counts of the window
+     * @throws IllegalArgumentException if the step is not positive or the window has more than {@code maxCells} cells
+     */
+    public Window window(BoundingBox box, int step, int layer, int maxCells) {
+        if (step < 1) {
+            throw new IllegalArgumentException("Step must be at least 1");
+        }
+        double size = cellDegrees * step;
+        int south = Math.floorDiv(cellIndex(box.minLat(), cellDegrees), step);
+        int west = Math.floorDiv(cellIndex(box.minLon(), cellDegrees), step);
+        long height = (long) Math.floorDiv(cellIndex(box.maxLat(), cellDegrees), step) - south + 1;
+        long width = (long) Math.floorDiv(cellIndex(box.maxLon(), cellDegrees), step) - west + 1;
+        if (height * width > maxCells) {
+            throw new IllegalArgumentException("The density grid would have " + height + " x " + width
+                    + " cells, more than " + maxCells + "; use a larger step or a smaller rectangle");
+        }
+
+        int windowRows = (int) height;
+        int windowCols = (int) width;
+        int[] counts = new int[windowRows * windowCols];
+        int[] table = layer == ALL ? summed[0] : summed[layer + 1];
+
+        // Local raster range of each window column, as [from, to) into the table
+        int[] colFrom = new int[windowCols];
+        int[] colTo = new int[windowCols];
+        for (int c = 0; c < windowCols; c++) {
+            long first = (long) (west + c) * step - firstCol;
+            colFrom[c] = Math.clamp(first, 0, cols);
+            colTo[c] = Math.clamp(first + step, 0, cols);
+        }
+        int tableWidth = cols + 1;
+        for (int r = 0; r < windowRows; r++) {
+            // Row 0 of the window is its northern edge
+            long first = (long) (south + windowRows - 1 - r) * step - firstRow;
+            int rowFrom = Math.clamp(first, 0, rows);
+            int rowTo = Math.clamp(first + step, 0, rows);
+            if (rowFrom == rowTo) {
+                continue;
+            }
+            int top = rowTo * tableWidth;
+            int bottom = rowFrom * tableWidth;
+            for (int c = 0; c < windowCols; c++) {
+                counts[r * windowCols + c] = table[top + colTo[c]] - table[bottom + colTo[c]]
+                        - table[top + colFrom[c]] + table[bottom + colFrom[c]];
+            }
+        }
+        return new Window(south * size, west * size, size, windowRows, windowCols, counts);
+    }
+
+    /**
+     * @return Number of cells from the one holding {@code min} to the one holding {@code max}
+     */
+    private static long span(double min, double max, double cellDegrees) {
+        return (long) cellIndex(max, cellDegrees) - cellIndex(min, cellDegrees) + 1;
+    }
+
+    /**
+     * @return Index of the cell holding a coordinate, counted from 0 degrees
+     */
+    private static int cellIndex(double degrees, double cellDegrees) {
+        return (int) Math.floor(degrees / cellDegrees);
+    }
+
+    /**
+     * Counts of a block of cells.
+     *
+     * @param minLat Latitude of the southern edge
+     * @param minLon Longitude of the western edge
+     * @param cellDegrees Side of a cell in degrees
+     * @param rows Number of rows
+     * @param cols Number of columns
+     * @param counts Points per cell, row by row from the north-western cell
+     */
+    public record Window(double minLat, double minLon, double cellDegrees, int rows, int cols, int[] counts) {
+    }
+
+    /**
+     * Counts a range of points into a raster per layer, splitting the range while it is large.
+     */
+    private final class CountTask extends RecursiveTask<int[]> {
+
+        private final double[] lat;
+        private final double[] lon;
+        private final int[] layer;
+        private final int layers;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        CountTask(double[] lat, double[] lon, int[] layer, int layers, int from, int to, int grain) {
+            this.lat = lat;
+            this.lon = lon;
+            this.layer = layer;
+            this.layers = layers;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from <= grain) {
+                int cells = rows * cols;
+                int[] counts = new int[layers * cells];
+                for (int i = from; i < to; i++) {
+                    int r = cellIndex(lat[i], cellDegrees) - firstRow;
+                    int c = cellIndex(lon[i], cellDegrees) - firstCol;
+                    counts[layer[i] * cells + r * cols + c]++;
+                }
+                return counts;
+            }
+            int middle = (from + to) >>> 1;
+            CountTask left = new CountTask(lat, lon, layer, layers, from, middle, grain);
+            left.fork();
+            int[] counts = new CountTask(lat, lon, layer, layers, middle, to, grain).compute();
+            int[] other = left.join();
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other[i];
+            }
+            return counts;
+        }
+    }
+}
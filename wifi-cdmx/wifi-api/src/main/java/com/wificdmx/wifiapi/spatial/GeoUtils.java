@@ -0,0 +1,79 @@
+package com.wificdmx.wifiapi.spatial;
+
+/**
+ * Geographic helper functions shared by the in-memory spatial structures.
+ * Distances are expressed in kilometers, matching the native Haversine query.
+ */
+public final class GeoUtils {
+
+    /**
+     * Mean Earth radius in kilometers (same constant used by the SQL queries)
+     */
+    public static final double EARTH_RADIUS_KM = 6371.0;
+
+    private GeoUtils() {
+    }
+
+    /**
+     * Computes the great-circle distance between two coordinates using the Haversine formula.
+     *
+     * @param lat1 Latitude of the first point
+     * @param lon1 Longitude of the first point
+     * @param lat2 Latitude of the second point
+     * @param lon2 Longitude of the second point
+     * @return Distance in kilometers
+     */
+    public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    /**
+     * Computes the smallest lat/lon rectangle containing every point within the given radius.
+     * Used to pre-filter candidates before computing the exact distance. The longitude range
+     * is widened to the full globe when the circle reaches a pole or crosses the antimeridian.
+     *
+     * @param lat Latitude of the center
+     * @param lon Longitude of the center
+     * @param radiusKm Radius in kilometers
+     * @return Bounding box in degrees
+     */
+    public static BoundingBox boundingBox(double lat, double lon, double radiusKm) {
+        double deltaLat = Math.toDegrees(radiusKm / EARTH_RADIUS_KM);
+        double minLat = lat - deltaLat;
+        double maxLat = lat + deltaLat;
+
+        if (minLat <= -90 || maxLat >= 90) {
+            return new BoundingBox(Math.max(minLat, -90), -180, Math.min(maxLat, 90), 180);
+        }
+
+        double deltaLon = Math.toDegrees(Math.asin(Math.min(1.0,
+                Math.sin(radiusKm / EARTH_RADIUS_KM) / Math.cos(Math.toRadians(lat)))));
+        double minLon = lon - deltaLon;
+        double maxLon = lon + deltaLon;
+
+        if (minLon < -180 || maxLon > 180) {
+            return new BoundingBox(minLat, -180, maxLat, 180);
+        }
+        return new BoundingBox(minLat, minLon, maxLat, maxLon);
+    }
+
+    /**
+     * Converts a great-circle distance to the squared chord length between two unit vectors.
+     * The chord grows monotonically with the arc, so it can be compared directly in 3D indexes.
+     *
+     * @param distanceKm Great-circle distance in kilometers
+     * @return Squared chord length on the unit sphere
+     */
+    public static double chordSquared(double distanceKm) {
+        if (distanceKm >= Math.PI * EARTH_RADIUS_KM) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double chord = 2 * Math.sin(distanceKm / (2 * EARTH_RADIUS_KM));
+        return chord * chord;
+    }
+}
@@ -0,0 +1,116 @@
+package com.wificdmx.wifiapi.spatial;
+
+import java.util.Arrays;
+
+/**
+ * Geohash encoding: the world is split into nested cells and each cell is named by a base-32 string,
+ * one character per level. Nearby coordinates share a prefix, so a geohash of fixed length
+ * quantizes coordinates into cells of roughly constant size (precision 7 is about 153 m x 153 m).
+ */
+public final class Geohash {
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+    private static final int[] DECODE = new int[128];
+
+    static {
+        Arrays.fill(DECODE, -1);
+        for (int i = 0; i < BASE32.length; i++) {
+            DECODE[BASE32[i]] = i;
+        }
+    }
+
+    private Geohash() {
+    }
+
+    /**
+     * Encodes coordinates as a geohash.
+     *
+     * @param lat Latitude (-90 to 90)
+     * @param lon Longitude (-180 to 180)
+     * @param precision Number of characters (1 to 12)
+     * @return Geohash of the cell containing the coordinates
+     */
+    public static String encode(double lat, double lon, int precision) {
+        if (precision < 1 || precision > 12) {
+            throw new IllegalArgumentException("Geohash precision must be between 1 and 12");
+        }
+
+        double minLat = -90, maxLat = 90;
+        double minLon = -180, maxLon = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true;
+        int bit = 0;
+        int ch = 0;
+
+        while (hash.length() < precision) {
+            // Bits alternate between longitude and latitude, starting with longitude
+            if (evenBit) {
+                double mid = (minLon + maxLon) / 2;
+                if (lon >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLon = mid;
+                } else {
+                    ch <<= 1;
+                    maxLon = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (lat >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLat = mid;
+                } else {
+                    ch <<= 1;
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+
+            if (++bit == 5) {
+                hash.append(BASE32[ch]);
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    /**
+     * Decodes a geohash into the rectangle of its cell.
+     *
+     * @param hash Geohash
+     * @return Cell bounds in degrees
+     */
+    public static BoundingBox bounds(String hash) {
+        double minLat = -90, maxLat = 90;
+        double minLon = -180, maxLon = 180;
+        boolean evenBit = true;
+
+        for (int i = 0; i < hash.length(); i++) {
+            char c = hash.charAt(i);
+            int value = c < DECODE.length ? DECODE[c] : -1;
+            if (value < 0) {
+                throw new IllegalArgumentException("Invalid geohash character: " + c);
+            }
+            for (int mask = 16; mask > 0; mask >>= 1) {
+                boolean set = (value & mask) != 0;
+                if (evenBit) {
+                    double mid = (minLon + maxLon) / 2;
+                    if (set) {
+                        minLon = mid;
+                    } else {
+                        maxLon = mid;
+                    }
+                } else {
+                    double mid = (minLat + maxLat) / 2;
+                    if (set) {
+                        minLat = mid;
+                    } else {
+                        maxLat = mid;
+                    }
+                }
+                evenBit = !evenBit;
+            }
+        }
+        return new BoundingBox(minLat, minLon, maxLat, maxLon);
+    }
+}
@@ -0,0 +1,165 @@
+package com.wificdmx.wifiapi.spatial;
+
+import java.util.Arrays;
+
+/**
+ * Static uniform grid over latitude/longitude for rectangle (viewport) queries.
+ *
+ * The bounding box of the points is split into square cells sized for a few points each, and the
+ * point indexes are stored grouped by cell in one array, with the start of every cell in another
+ * (the same layout as a compressed sparse row matrix). A query only visits the cells that overlap
+ * the rectangle, so its cost grows with the points inside it rather than with the whole dataset.
+ * Within a cell, points keep their index order.
+ */
+public final class GridIndex {
+
+    /**
+     * Average number of points per cell the grid is sized for
+     */
+    private static final int POINTS_PER_CELL = 4;
+
+    /**
+     * Upper bound for rows and columns, so a few scattered outliers cannot blow up the grid
+     */
+    private static final int MAX_CELLS_PER_AXIS = 1024;
+
+    private final double[] lat;
+    private final double[] lon;
+
+    private final double minLat;
+    private final double minLon;
+    private final double cellLat;
+    private final double cellLon;
+    private final int rows;
+    private final int cols;
+
+    /**
+     * Offset in {@link #points} of the first point of each cell, plus the total at the end
+     */
+    private final int[] cellStart;
+
+    /**
+     * Point indexes grouped by cell, row-major from the south-west corner
+     */
+    private final int[] points;
+
+    /**
+     * Builds the grid from parallel latitude/longitude arrays.
+     * The arrays are kept, not copied, and must not be modified afterwards.
+     * The index of each point in the arrays is the value returned by the queries.
+     *
+     * @param lat Latitudes in degrees
+     * @param lon Longitudes in degrees
+     */
+    public GridIndex(double[] lat, double[] lon) {
+        if (lat.length != lon.length) {
+            throw new IllegalArgumentException("Latitude and longitude arrays must have the same length");
+        }
+        this.lat = lat;
+        this.lon = lon;
+
+        int n = lat.length;
+        double south = Double.POSITIVE_INFINITY, north = Double.NEGATIVE_INFINITY;
+        double west = Double.POSITIVE_INFINITY, east = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            south = Math.min(south, lat[i]);
+            north = Math.max(north, lat[i]);
+            west = Math.min(west, lon[i]);
+            east = Math.max(east, lon[i]);
+        }
+
+        if (n == 0) {
+            this.minLat = 0;
+            this.minLon = 0;
+            this.cellLat = 1;
+            this.cellLon = 1;
+            this.rows = 0;
+            this.cols = 0;
+        } else {
+            double latSpan = Math.max(north - south, 1e-9);
+            double lonSpan = Math.max(east - west, 1e-9);
+            int targetCells = Math.max(1, n / POINTS_PER_CELL);
+            double cellSize = Math.sqrt(latSpan * lonSpan / targetCells);
+            this.minLat = south;
+            this.minLon = west;
+            this.rows = (int) Math.min(MAX_CELLS_PER_AXIS, Math.max(1, Math.ceil(latSpan / cellSize)));
+            this.cols = (int) Math.min(MAX_CELLS_PER_AXIS, Math.max(1, Math.ceil(lonSpan / cellSize)));
+            this.cellLat = latSpan / rows;
+            this.cellLon = lonSpan / cols;
+        }
+
+        // Counting sort of the points by cell
+        this.cellStart = new int[rows * cols + 1];
+        int[] cellOf = new int[n];
+        for (int i = 0; i < n; i++) {
+            cellOf[i] = row(lat[i]) * cols + col(lon[i]);
+            cellStart[cellOf[i] + 1]++;
+        }
+        for (int c = 0; c < rows * cols; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        this.points = new int[n];
+        int[] next = new int[rows * cols];
+        for (int i = 0; i < n; i++) {
+            int cell = cellOf[i];
+            points[cellStart[cell] + next[cell]++] = i;
+        }
+    }
+
+    /**
+     * @return Number of indexed points
+     */
+    public int size() {
+        return points.length;
+    }
+
+    /**
+     * Finds the points inside a rectangle, edges included.
+     * Points are returned by cell, from the south-west corner of the rectangle row by row.
+     *
+     * @param box Rectangle to search; must not cross the antimeridian
+     * @param limit Maximum number of points to return
+     * @return Point indexes, at most {@code limit}
+     */
+    public int[] within(BoundingBox box, int limit) {
+        if (points.length == 0 || limit <= 0 || box.maxLat() < minLat || box.maxLon() < minLon
+                || box.minLat() > minLat + rows * cellLat || box.minLon() > minLon + cols * cellLon) {
+            return new int[0];
+        }
+
+        int[] found = new int[Math.min(limit, 64)];
+        int count = 0;
+        int lastCol = col(box.maxLon());
+        for (int r = row(box.minLat()), lastRow = row(box.maxLat()); r <= lastRow; r++) {
+            for (int c = col(box.minLon()); c <= lastCol; c++) {
+                int cell = r * cols + c;
+                for (int p = cellStart[cell]; p < cellStart[cell + 1]; p++) {
+                    int point = points[p];
+                    if (!box.contains(lat[point], lon[point])) {
+                        continue;
+                    }
+                    if (count == found.length) {
+                        found = Arrays.copyOf(found, (int) Math.min(limit, 2L * found.length));
+                    }
+                    found[count++] = point;
+                    if (count == limit) {
+                        return found;
+                    }
+                }
+            }
+        }
+        return count == found.length ? found : Arrays.copyOf(found, count);
+    }
+
+    private int row(double latitude) {
+        return clamp((int) Math.floor((latitude - minLat) / cellLat), rows);
+    }
+
+    private int col(double longitude) {
+        return clamp((int) Math.floor((longitude - minLon) / cellLon), cols);
+    }
+
+    private static int clamp(int index, int size) {
+        return Math.max(0, Math.min(size - 1, index));
+    }
+}
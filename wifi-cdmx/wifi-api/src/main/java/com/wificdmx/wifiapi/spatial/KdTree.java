@@ -0,0 +1,360 @@
+package com.wificdmx.wifiapi.spatial;
+
+/**
+ * Static k-d tree over geographic coordinates for k-nearest-neighbour queries.
+ *
+ * Points are projected to 3D unit vectors so that the Euclidean (chord) distance
+ * grows monotonically with the great-circle distance; this avoids any special
+ * handling of the antimeridian or the poles. The tree is stored implicitly in a
+ * permutation array (the median of every range is the node), so the whole index
+ * is a handful of primitive arrays with no per-node objects.
+ */
+public final class KdTree {
+
+    private final double[] x;
+    private final double[] y;
+    private final double[] z;
+
+    /**
+     * Permutation of point indexes laid out as an implicit balanced tree
+     */
+    private final int[] nodes;
+
+    /**
+     * Split axis (0 = x, 1 = y, 2 = z) for the node stored at the same position in {@link #nodes}
+     */
+    private final byte[] axes;
+
+    /**
+     * Builds the tree from parallel latitude/longitude arrays.
+     * The index of each point in the arrays is the value returned by the queries.
+     *
+     * @param lat Latitudes in degrees
+     * @param lon Longitudes in degrees
+     */
+    public KdTree(double[] lat, double[] lon) {
+        if (lat.length != lon.length) {
+            throw new IllegalArgumentException("Latitude and longitude arrays must have the same length");
+        }
+
+        int n = lat.length;
+        this.x = new double[n];
+        this.y = new double[n];
+        this.z = new double[n];
+        this.nodes = new int[n];
+        this.axes = new byte[n];
+
+        for (int i = 0; i < n; i++) {
+            double[] v = toUnitVector(lat[i], lon[i]);
+            x[i] = v[0];
+            y[i] = v[1];
+            z[i] = v[2];
+            nodes[i] = i;
+        }
+
+        build(0, n);
+    }
+
+    /**
+     * @return Number of indexed points
+     */
+    public int size() {
+        return nodes.length;
+    }
+
+    /**
+     * Finds the k points closest to the given coordinates.
+     *
+     * @param lat Latitude of the reference point
+     * @param lon Longitude of the reference point
+     * @param k Maximum number of points to return
+     * @return Point indexes ordered by ascending distance
+     */
+    public int[] nearest(double lat, double lon, int k) {
+        return nearest(lat, lon, k, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Finds the k points closest to the given coordinates that lie within a radius.
+     *
+     * @param lat Latitude of the reference point
+     * @param lon Longitude of the reference point
+     * @param k Maximum number of points to return
+     * @param maxDistanceKm Maximum great-circle distance in kilometers
+     * @return Point indexes ordered by ascending distance
+     */
+    public int[] nearest(double lat, double lon, int k, double maxDistanceKm) {
+        int limit = Math.min(k, nodes.length);
+        if (limit <= 0) {
+            return new int[0];
+        }
+
+        BoundedMaxHeap heap = new BoundedMaxHeap(limit);
+        search(0, nodes.length, toUnitVector(lat, lon), GeoUtils.chordSquared(maxDistanceKm), heap);
+        return heap.drainAscending();
+    }
+
+    /**
+     * Counts the points within a radius of the given coordinates.
+     *
+     * @param lat Latitude of the reference point
+     * @param lon Longitude of the reference point
+     * @param radiusKm Radius in kilometers
+     * @return Number of points at a great-circle distance of at most radiusKm
+     */
+    public int countWithin(double lat, double lon, double radiusKm) {
+        return count(0, nodes.length, toUnitVector(lat, lon), GeoUtils.chordSquared(radiusKm));
+    }
+
+    private void build(int lo, int hi) {
+        if (hi - lo <= 1) {
+            if (hi - lo == 1) {
+                axes[lo] = 0;
+            }
+            return;
+        }
+
+        int axis = widestAxis(lo, hi);
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, axis);
+        axes[mid] = (byte) axis;
+
+        build(lo, mid);
+        build(mid + 1, hi);
+    }
+
+    private void search(int lo, int hi, double[] query, double maxChordSq, BoundedMaxHeap heap) {
+        if (lo >= hi) {
+            return;
+        }
+
+        int mid = (lo + hi) >>> 1;
+        int point = nodes[mid];
+
+        double distance = squaredDistance(point, query);
+        if (distance <= maxChordSq) {
+            heap.offer(point, distance);
+        }
+
+        if (hi - lo == 1) {
+            return;
+        }
+
+        int axis = axes[mid];
+        double diff = query[axis] - coordinate(point, axis);
+
+        // Visit the half containing the query first so the heap bound shrinks quickly
+        if (diff < 0) {
+            search(lo, mid, query, maxChordSq, heap);
+            if (diff * diff <= bound(heap, maxChordSq)) {
+                search(mid + 1, hi, query, maxChordSq, heap);
+            }
+        } else {
+            search(mid + 1, hi, query, maxChordSq, heap);
+            if (diff * diff <= bound(heap, maxChordSq)) {
+                search(lo, mid, query, maxChordSq, heap);
+            }
+        }
+    }
+
+    private int count(int lo, int hi, double[] query, double maxChordSq) {
+        if (lo >= hi) {
+            return 0;
+        }
+
+        int mid = (lo + hi) >>> 1;
+        int point = nodes[mid];
+        int total = squaredDistance(point, query) <= maxChordSq ? 1 : 0;
+
+        if (hi - lo == 1) {
+            return total;
+        }
+
+        int axis = axes[mid];
+        double diff = query[axis] - coordinate(point, axis);
+        boolean crossesSplit = diff * diff <= maxChordSq;
+
+        if (diff < 0 || crossesSplit) {
+            total += count(lo, mid, query, maxChordSq);
+        }
+        if (diff >= 0 || crossesSplit) {
+            total += count(mid + 1, hi, query, maxChordSq);
+        }
+        return total;
+    }
+
+    private static double bound(BoundedMaxHeap heap, double maxChordSq) {
+        return heap.isFull() ? Math.min(heap.worst(), maxChordSq) : maxChordSq;
+    }
+
+    private double squaredDistance(int point, double[] query) {
+        double dx = x[point] - query[0];
+        double dy = y[point] - query[1];
+        double dz = z[point] - query[2];
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static double[] toUnitVector(double lat, double lon) {
+        double latRad = Math.toRadians(lat);
+        double lonRad = Math.toRadians(lon);
+        double cosLat = Math.cos(latRad);
+        return new double[]{cosLat * Math.cos(lonRad), cosLat * Math.sin(lonRad), Math.sin(latRad)};
+    }
+
+    private int widestAxis(int lo, int hi) {
+        double minX = Double.MAX_VALUE, maxX = -Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        double minZ = Double.MAX_VALUE, maxZ = -Double.MAX_VALUE;
+
+        for (int i = lo; i < hi; i++) {
+            int p = nodes[i];
+            minX = Math.min(minX, x[p]);
+            maxX = Math.max(maxX, x[p]);
+            minY = Math.min(minY, y[p]);
+            maxY = Math.max(maxY, y[p]);
+            minZ = Math.min(minZ, z[p]);
+            maxZ = Math.max(maxZ, z[p]);
+        }
+
+        double spreadX = maxX - minX;
+        double spreadY = maxY - minY;
+        double spreadZ = maxZ - minZ;
+
+        if (spreadX >= spreadY && spreadX >= spreadZ) {
+            return 0;
+        }
+        return spreadY >= spreadZ ? 1 : 2;
+    }
+
+    /**
+     * Quickselect: rearranges nodes[lo..hi] so that position k holds the median on the given axis.
+     */
+    private void select(int lo, int hi, int k, int axis) {
+        while (hi > lo) {
+            double pivot = coordinate(nodes[(lo + hi) >>> 1], axis);
+            int i = lo;
+            int j = hi;
+
+            while (i <= j) {
+                while (coordinate(nodes[i], axis) < pivot) {
+                    i++;
+                }
+                while (coordinate(nodes[j], axis) > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int tmp = nodes[i];
+                    nodes[i] = nodes[j];
+                    nodes[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private double coordinate(int point, int axis) {
+        switch (axis) {
+            case 0:
+                return x[point];
+            case 1:
+                return y[point];
+            default:
+                return z[point];
+        }
+    }
+
+    /**
+     * Fixed-capacity max-heap of (point, squared distance) pairs backed by primitive arrays.
+     */
+    private static final class BoundedMaxHeap {
+
+        private final int[] points;
+        private final double[] distances;
+        private int size;
+
+        BoundedMaxHeap(int capacity) {
+            this.points = new int[capacity];
+            this.distances = new double[capacity];
+        }
+
+        boolean isFull() {
+            return size == points.length;
+        }
+
+        double worst() {
+            return distances[0];
+        }
+
+        void offer(int point, double distance) {
+            if (size < points.length) {
+                points[size] = point;
+                distances[size] = distance;
+                siftUp(size++);
+            } else if (distance < distances[0]) {
+                points[0] = point;
+                distances[0] = distance;
+                siftDown(0);
+            }
+        }
+
+        int[] drainAscending() {
+            int[] result = new int[size];
+            for (int i = size - 1; i >= 0; i--) {
+                result[i] = points[0];
+                size--;
+                points[0] = points[size];
+                distances[0] = distances[size];
+                siftDown(0);
+            }
+            return result;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (distances[parent] >= distances[i]) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int left = 2 * i + 1;
+                if (left >= size) {
+                    return;
+                }
+                int largest = left;
+                int right = left + 1;
+                if (right < size && distances[right] > distances[left]) {
+                    largest = right;
+                }
+                if (distances[i] >= distances[largest]) {
+                    return;
+                }
+                swap(i, largest);
+                i = largest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int p = points[a];
+            points[a] = points[b];
+            points[b] = p;
+            double d = distances[a];
+            distances[a] = distances[b];
+            distances[b] = d;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.wificdmx.wifiapi.spatial;
+
+/**
+ * Web Mercator projection as used by web map tiles (EPSG:3857), in world coordinates normalized to
+ * [0, 1]: x grows eastwards from the antimeridian and y southwards from the north edge of the map.
+ * At zoom z the world is 2^z tiles wide, and tile (x, y) covers [x, x + 1) / 2^z on each axis.
+ */
+public final class WebMercator {
+
+    /**
+     * Latitude limit of the projection, where the map becomes square
+     */
+    public static final double MAX_LATITUDE = 85.05112878;
+
+    private WebMercator() {
+    }
+
+    /**
+     * @param lon Longitude in degrees
+     * @return World x coordinate, from 0 at the antimeridian to 1
+     */
+    public static double x(double lon) {
+        return (lon + 180) / 360;
+    }
+
+    /**
+     * @param lat Latitude in degrees, clamped to {@link #MAX_LATITUDE}
+     * @return World y coordinate, from 0 at the north edge of the map to 1
+     */
+    public static double y(double lat) {
+        double radians = Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, lat)));
+        return (1 - Math.log(Math.tan(radians) + 1 / Math.cos(radians)) / Math.PI) / 2;
+    }
+
+    /**
+     * @param x World x coordinate
+     * @return Longitude in degrees
+     */
+    public static double lon(double x) {
+        return x * 360 - 180;
+    }
+
+    /**
+     * @param y World y coordinate
+     * @return Latitude in degrees
+     */
+    public static double lat(double y) {
+        return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * y))));
+    }
+
+    /**
+     * Area covered by a map tile, widened on every side by a fraction of the tile size.
+     *
+     * @param zoom Zoom level
+     * @param x Tile column
+     * @param y Tile row
+     * @param buffer Fraction of the tile size to add on each side
+     * @return Latitude/longitude rectangle of the tile
+     */
+    public static BoundingBox tileBounds(int zoom, int x, int y, double buffer) {
+        double tiles = 1L << zoom;
+        return new BoundingBox(
+                lat(Math.min(1, (y + 1 + buffer) / tiles)),
+                lon(Math.max(0, (x - buffer) / tiles)),
+                lat(Math.max(0, (y - buffer) / tiles)),
+                lon(Math.min(1, (x + 1 + buffer) / tiles)));
+    }
+}
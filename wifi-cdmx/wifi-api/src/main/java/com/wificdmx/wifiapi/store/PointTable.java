@@ -0,0 +1,440 @@
+package com.wificdmx.wifiapi.store;
+
+import com.wificdmx.wifiapi.dto.WifiPointDTO;
+import com.wificdmx.wifiapi.loader.WifiPointRowMapper;
+import com.wificdmx.wifiapi.model.WifiPoint;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable column-oriented copy of the WiFi points, sorted by ID.
+ *
+ * Each point is a row number into primitive arrays: coordinates are {@code double[]}, alcaldia and
+ * programa are {@code short} codes into dictionaries of the distinct values, and all IDs are packed
+ * into one {@code char[]} with an offsets array. No object is kept per point, so the table costs
+ * about 50 bytes per point and adds nothing for the garbage collector to trace; DTOs are only
+ * created for the rows a request returns.
+ */
+public final class PointTable {
+
+    static final PointTable EMPTY = of(List.of());
+
+    private static final int[] NO_ROWS = new int[0];
+
+    private final char[] idChars;
+
+    /**
+     * Start of each ID in {@link #idChars}; one entry more than the number of rows
+     */
+    private final int[] idOffsets;
+
+    private final double[] lat;
+    private final double[] lon;
+    private final short[] alcaldiaCode;
+    private final short[] programaCode;
+    private final String[] alcaldias;
+    private final String[] programas;
+
+    /**
+     * Rows of each alcaldia, by lookup key, in ID order
+     */
+    private final Map<String, int[]> rowsByAlcaldiaKey;
+
+    private PointTable(char[] idChars, int[] idOffsets, double[] lat, double[] lon,
+                       short[] alcaldiaCode, short[] programaCode, String[] alcaldias, String[] programas,
+                       Map<String, int[]> rowsByAlcaldiaKey) {
+        this.idChars = idChars;
+        this.idOffsets = idOffsets;
+        this.lat = lat;
+        this.lon = lon;
+        this.alcaldiaCode = alcaldiaCode;
+        this.programaCode = programaCode;
+        this.alcaldias = alcaldias;
+        this.programas = programas;
+        this.rowsByAlcaldiaKey = rowsByAlcaldiaKey;
+    }
+
+    /**
+     * Encodes WiFi points into a table.
+     *
+     * @param wifiPoints WiFi points in any order
+     * @return Table sorted by ID
+     */
+    public static PointTable of(List<WifiPoint> wifiPoints) {
+        List<WifiPoint> sorted = new ArrayList<>(wifiPoints);
+        sorted.sort(Comparator.comparing(WifiPoint::getPuntoId));
+
+        int n = sorted.size();
+        int idLength = 0;
+        for (WifiPoint wifiPoint : sorted) {
+            idLength += wifiPoint.getPuntoId().length();
+        }
+
+        char[] idChars = new char[idLength];
+        int[] idOffsets = new int[n + 1];
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        short[] alcaldiaCode = new short[n];
+        short[] programaCode = new short[n];
+        Dictionary alcaldias = new Dictionary("alcaldia");
+        Dictionary programas = new Dictionary("programa");
+
+        int offset = 0;
+        for (int row = 0; row < n; row++) {
+            WifiPoint wifiPoint = sorted.get(row);
+            String id = wifiPoint.getPuntoId();
+            id.getChars(0, id.length(), idChars, offset);
+            idOffsets[row] = offset;
+            offset += id.length();
+
+            lat[row] = wifiPoint.getLatitud();
+            lon[row] = wifiPoint.getLongitud();
+            alcaldiaCode[row] = alcaldias.code(wifiPoint.getAlcaldia());
+            programaCode[row] = programas.code(wifiPoint.getPrograma());
+        }
+        idOffsets[n] = offset;
+
+        return new PointTable(idChars, idOffsets, lat, lon, alcaldiaCode, programaCode,
+                alcaldias.values(), programas.values(), indexAlcaldias(alcaldiaCode, alcaldias.values()));
+    }
+
+    /**
+     * @return Bytes written by {@link #writeTo}
+     */
+    int encodedSize() {
+        int n = size();
+        return 12 + dictionaryBytes(alcaldias) + dictionaryBytes(programas)
+                + 2 * idChars.length + 4 * (n + 1) + 16 * n + 4 * n;
+    }
+
+    /**
+     * Writes the columns as they are held in memory: counts, dictionaries, then one array after another.
+     *
+     * @param buffer Buffer with at least {@link #encodedSize()} bytes remaining
+     */
+    void writeTo(ByteBuffer buffer) {
+        buffer.putInt(size());
+        buffer.putInt(idChars.length);
+        putDictionary(buffer, alcaldias);
+        putDictionary(buffer, programas);
+        buffer.asCharBuffer().put(idChars);
+        buffer.position(buffer.position() + 2 * idChars.length);
+        buffer.asIntBuffer().put(idOffsets);
+        buffer.position(buffer.position() + 4 * idOffsets.length);
+        buffer.asDoubleBuffer().put(lat).put(lon);
+        buffer.position(buffer.position() + 16 * lat.length);
+        buffer.asShortBuffer().put(alcaldiaCode).put(programaCode);
+        buffer.position(buffer.position() + 4 * alcaldiaCode.length);
+    }
+
+    /**
+     * Reads a table written by {@link #writeTo}. Only the alcaldia index is rebuilt; rows are already in ID order.
+     *
+     * @param buffer Buffer positioned at the start of the table
+     * @return Table
+     * @throws IllegalArgumentException if the counts are not consistent with each other
+     */
+    static PointTable readFrom(ByteBuffer buffer) {
+        int n = buffer.getInt();
+        int idLength = buffer.getInt();
+        if (n < 0 || idLength < 0) {
+            throw new IllegalArgumentException("Negative row or ID count");
+        }
+        String[] alcaldias = getDictionary(buffer);
+        String[] programas = getDictionary(buffer);
+
+        char[] idChars = new char[idLength];
+        int[] idOffsets = new int[n + 1];
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        short[] alcaldiaCode = new short[n];
+        short[] programaCode = new short[n];
+
+        buffer.asCharBuffer().get(idChars);
+        buffer.position(buffer.position() + 2 * idLength);
+        buffer.asIntBuffer().get(idOffsets);
+        buffer.position(buffer.position() + 4 * idOffsets.length);
+        buffer.asDoubleBuffer().get(lat).get(lon);
+        buffer.position(buffer.position() + 16 * n);
+        buffer.asShortBuffer().get(alcaldiaCode).get(programaCode);
+        buffer.position(buffer.position() + 4 * n);
+
+        if (idOffsets[n] != idLength) {
+            throw new IllegalArgumentException("ID offsets do not match the ID data");
+        }
+        for (int row = 0; row < n; row++) {
+            if (alcaldiaCode[row] < 0 || alcaldiaCode[row] >= alcaldias.length
+                    || programaCode[row] < 0 || programaCode[row] >= programas.length) {
+                throw new IllegalArgumentException("Dictionary code out of range at row " + row);
+            }
+        }
+
+        return new PointTable(idChars, idOffsets, lat, lon, alcaldiaCode, programaCode,
+                alcaldias, programas, indexAlcaldias(alcaldiaCode, alcaldias));
+    }
+
+    private static int dictionaryBytes(String[] values) {
+        int bytes = 4;
+        for (String value : values) {
+            bytes += 4 + value.getBytes(StandardCharsets.UTF_8).length;
+        }
+        return bytes;
+    }
+
+    private static void putDictionary(ByteBuffer buffer, String[] values) {
+        buffer.putInt(values.length);
+        for (String value : values) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    private static String[] getDictionary(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        if (count < 0 || count > Short.MAX_VALUE + 1) {
+            throw new IllegalArgumentException("Invalid dictionary size: " + count);
+        }
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            values[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return values;
+    }
+
+    /**
+     * Groups rows by alcaldia key. Several spellings of a name share one key and one row list;
+     * rows are visited in order, so every list is sorted by ID.
+     */
+    private static Map<String, int[]> indexAlcaldias(short[] alcaldiaCode, String[] alcaldias) {
+        String[] keyOfCode = new String[alcaldias.length];
+        Map<String, Integer> counts = new HashMap<>();
+        for (int code = 0; code < alcaldias.length; code++) {
+            keyOfCode[code] = WifiPointRowMapper.alcaldiaKey(alcaldias[code]);
+        }
+        for (short code : alcaldiaCode) {
+            counts.merge(keyOfCode[code], 1, Integer::sum);
+        }
+
+        Map<String, int[]> rows = new HashMap<>();
+        Map<String, Integer> filled = new HashMap<>();
+        counts.forEach((key, count) -> {
+            rows.put(key, new int[count]);
+            filled.put(key, 0);
+        });
+        for (int row = 0; row < alcaldiaCode.length; row++) {
+            String key = keyOfCode[alcaldiaCode[row]];
+            int position = filled.merge(key, 1, Integer::sum) - 1;
+            rows.get(key)[position] = row;
+        }
+        return rows;
+    }
+
+    /**
+     * @return Number of points
+     */
+    public int size() {
+        return lat.length;
+    }
+
+    public String puntoId(int row) {
+        return new String(idChars, idOffsets[row], idOffsets[row + 1] - idOffsets[row]);
+    }
+
+    public double lat(int row) {
+        return lat[row];
+    }
+
+    public double lon(int row) {
+        return lon[row];
+    }
+
+    public String alcaldia(int row) {
+        return alcaldias[alcaldiaCode[row]];
+    }
+
+    public String programa(int row) {
+        return programas[programaCode[row]];
+    }
+
+    /**
+     * @param row Row number
+     * @return Code of the row's programa, from 0 to {@link #programaCount()} - 1
+     */
+    public int programaCode(int row) {
+        return programaCode[row];
+    }
+
+    /**
+     * @return Number of distinct programa values
+     */
+    public int programaCount() {
+        return programas.length;
+    }
+
+    /**
+     * Finds a programa code ignoring case, accents and repeated spaces, as alcaldia lookups do.
+     *
+     * @param programa Programa name as requested
+     * @return Code of the programa, or -1 if no row has it
+     */
+    public int programaCodeOf(String programa) {
+        String key = WifiPointRowMapper.alcaldiaKey(programa);
+        for (int code = 0; code < programas.length; code++) {
+            if (programas[code] != null && WifiPointRowMapper.alcaldiaKey(programas[code]).equals(key)) {
+                return code;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param row Row number
+     * @return New DTO with the values of the row
+     */
+    public WifiPointDTO toDTO(int row) {
+        return WifiPointDTO.builder()
+                .puntoId(puntoId(row))
+                .programa(programa(row))
+                .latitud(lat[row])
+                .longitud(lon[row])
+                .alcaldia(alcaldia(row))
+                .build();
+    }
+
+    /**
+     * @param id WiFi point ID
+     * @return Row of the ID, or -1 if there is none
+     */
+    public int indexOf(String id) {
+        int row = firstNotBefore(id);
+        return row < size() && compareId(row, id) == 0 ? row : -1;
+    }
+
+    /**
+     * @param id WiFi point ID, not necessarily stored
+     * @return First row whose ID is greater than the given one; {@link #size()} if none
+     */
+    public int firstAfter(String id) {
+        int row = firstNotBefore(id);
+        return row < size() && compareId(row, id) == 0 ? row + 1 : row;
+    }
+
+    /**
+     * @param alcaldiaKey Alcaldia lookup key
+     * @return Rows of the alcaldia in ID order; empty if it has none. The array must not be modified
+     */
+    public int[] rowsOfAlcaldia(String alcaldiaKey) {
+        return rowsByAlcaldiaKey.getOrDefault(alcaldiaKey, NO_ROWS);
+    }
+
+    /**
+     * @param rows Rows in ID order, as returned by {@link #rowsOfAlcaldia}
+     * @param id WiFi point ID, not necessarily stored
+     * @return First position in {@code rows} whose ID is greater than the given one; {@code rows.length} if none
+     */
+    public int firstAfter(int[] rows, String id) {
+        int low = 0;
+        int high = rows.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareId(rows[mid], id) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return Approximate heap used by the arrays and dictionaries, in bytes
+     */
+    public long estimatedBytes() {
+        long bytes = 2L * idChars.length + 4L * idOffsets.length + 20L * size();
+        for (String value : alcaldias) {
+            bytes += 40 + 2L * value.length();
+        }
+        for (String value : programas) {
+            bytes += 40 + 2L * value.length();
+        }
+        return bytes + 4L * size();
+    }
+
+    /**
+     * @return Number of distinct alcaldia and programa values
+     */
+    public int dictionarySize() {
+        return alcaldias.length + programas.length;
+    }
+
+    private int firstNotBefore(String id) {
+        int low = 0;
+        int high = size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareId(mid, id) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Compares the stored ID of a row with a string, as {@link String#compareTo} would, without copying it.
+     */
+    private int compareId(int row, String id) {
+        int start = idOffsets[row];
+        int length = idOffsets[row + 1] - start;
+        int common = Math.min(length, id.length());
+        for (int i = 0; i < common; i++) {
+            char c = idChars[start + i];
+            char other = id.charAt(i);
+            if (c != other) {
+                return c - other;
+            }
+        }
+        return length - id.length();
+    }
+
+    /**
+     * Assigns consecutive codes to distinct values in order of first appearance.
+     */
+    private static final class Dictionary {
+
+        private final String name;
+        private final Map<String, Short> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        Dictionary(String name) {
+            this.name = name;
+        }
+
+        short code(String value) {
+            Short code = codes.get(value);
+            if (code == null) {
+                if (values.size() > Short.MAX_VALUE) {
+                    throw new IllegalStateException("Too many distinct " + name + " values for a short code");
+                }
+                code = (short) values.size();
+                codes.put(value, code);
+                values.add(value);
+            }
+            return code;
+        }
+
+        String[] values() {
+            return values.toArray(new String[0]);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.wificdmx.wifiapi.store;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary file holding a {@link PointTable}, so the dataset can be restored at startup without
+ * parsing the Excel file or querying the database.
+ *
+ * Layout, little-endian: magic, format version, creation time, fingerprint of the Excel file the
+ * data came from, the table columns as written by {@link PointTable#writeTo}, and a CRC-32C of
+ * everything before it. The file is memory-mapped to read it, and written to a temporary file
+ * that replaces the previous one atomically, so a crash never leaves a half-written snapshot.
+ *
+ * {@link #FORMAT_VERSION} must be increased whenever the columns or the normalization of the
+ * stored values change, so snapshots written by older versions are ignored.
+ */
+final class SnapshotFile {
+
+    static final int FORMAT_VERSION = 1;
+
+    /**
+     * "WIFICDMX" in ASCII
+     */
+    private static final long MAGIC = 0x57494649_43444D58L;
+
+    private static final int CHECKSUM_BYTES = Long.BYTES;
+
+    private SnapshotFile() {
+    }
+
+    /**
+     * Contents of a snapshot file.
+     *
+     * @param source Fingerprint of the Excel file the data came from
+     * @param createdAt When the file was written
+     * @param table Restored points
+     */
+    record Contents(String source, Instant createdAt, PointTable table) {
+    }
+
+    /**
+     * Writes a snapshot, replacing the existing file if any.
+     *
+     * @param path File to write
+     * @param source Fingerprint of the Excel file the table came from
+     * @param table Points to store
+     * @return Size of the file in bytes
+     * @throws IOException if the file cannot be written
+     */
+    static long write(Path path, String source, PointTable table) throws IOException {
+        byte[] sourceBytes = source.getBytes(StandardCharsets.UTF_8);
+        int size = 8 + 4 + 8 + 4 + sourceBytes.length + table.encodedSize() + CHECKSUM_BYTES;
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putLong(MAGIC);
+        buffer.putInt(FORMAT_VERSION);
+        buffer.putLong(System.currentTimeMillis());
+        buffer.putInt(sourceBytes.length);
+        buffer.put(sourceBytes);
+        table.writeTo(buffer);
+
+        CRC32C checksum = new CRC32C();
+        checksum.update(buffer.array(), 0, buffer.position());
+        buffer.putLong(checksum.getValue());
+        buffer.flip();
+
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            try {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return size;
+    }
+
+    /**
+     * Memory-maps and decodes a snapshot.
+     *
+     * @param path File to read
+     * @return Snapshot contents
+     * @throws IOException if the file cannot be read, is not a snapshot of the current format, or is corrupt
+     */
+    static Contents read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 8 + 4 + CHECKSUM_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Invalid snapshot size: " + size);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            ByteBuffer buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+            int checksumAt = (int) size - CHECKSUM_BYTES;
+
+            if (buffer.getLong() != MAGIC) {
+                throw new IOException("Not a WiFi points snapshot");
+            }
+            int format = buffer.getInt();
+            if (format != FORMAT_VERSION) {
+                throw new IOException("Snapshot format " + format + " is not the current format " + FORMAT_VERSION);
+            }
+
+            CRC32C checksum = new CRC32C();
+            checksum.update(buffer.slice(0, checksumAt));
+            if (checksum.getValue() != buffer.getLong(checksumAt)) {
+                throw new IOException("Snapshot checksum mismatch");
+            }
+
+            try {
+                Instant createdAt = Instant.ofEpochMilli(buffer.getLong());
+                byte[] sourceBytes = new byte[buffer.getInt()];
+                buffer.get(sourceBytes);
+                PointTable table = PointTable.readFrom(buffer);
+                if (buffer.position() != checksumAt) {
+                    throw new IOException("Unexpected data after the snapshot table");
+                }
+                return new Contents(new String(sourceBytes, StandardCharsets.UTF_8), createdAt, table);
+            } catch (BufferUnderflowException | IllegalArgumentException | NegativeArraySizeException e) {
+                throw new IOException("Malformed snapshot: " + e, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.wificdmx.wifiapi.store;
+
+import com.wificdmx.wifiapi.dto.WifiAreaStatisticsDTO;
+import com.wificdmx.wifiapi.dto.WifiStatisticsDTO;
+import com.wificdmx.wifiapi.loader.WifiPointRowMapper;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregates WiFi points into {@link WifiStatisticsDTO}: counts, bounding boxes and centroids per
+ * alcaldia and programa pair, rolled up per alcaldia, per programa and for the whole city.
+ *
+ * Points may be added one by one or already grouped, as a database {@code GROUP BY} returns them,
+ * so both sources produce the same statistics. Alcaldias are grouped by lookup key, named after
+ * the first spelling added.
+ */
+public final class StatisticsBuilder {
+
+    private static final Comparator<Group> LARGEST_FIRST = Comparator.<Group>comparingLong(group -> group.count)
+            .reversed()
+            .thenComparing(group -> group.name, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final Map<String, Group> alcaldias = new HashMap<>();
+    private final Map<String, Group> programas = new HashMap<>();
+    private final Group total = new Group(null);
+
+    /**
+     * Adds one WiFi point.
+     */
+    public StatisticsBuilder add(String alcaldia, String programa, double lat, double lon) {
+        return add(alcaldia, programa, 1, lat, lat, lon, lon, lat, lon);
+    }
+
+    /**
+     * Adds a group of WiFi points sharing an alcaldia and a programa.
+     *
+     * @param count Number of points
+     * @param minLat Southern edge of the points
+     * @param maxLat Northern edge of the points
+     * @param minLon Western edge of the points
+     * @param maxLon Eastern edge of the points
+     * @param sumLat Sum of the latitudes
+     * @param sumLon Sum of the longitudes
+     */
+    public StatisticsBuilder add(String alcaldia, String programa, long count, double minLat, double maxLat,
+                                 double minLon, double maxLon, double sumLat, double sumLon) {
+        Group byAlcaldia = alcaldias.computeIfAbsent(WifiPointRowMapper.alcaldiaKey(alcaldia), key -> new Group(alcaldia));
+        Group byPrograma = programas.computeIfAbsent(programa, Group::new);
+        total.add(count, minLat, maxLat, minLon, maxLon, sumLat, sumLon);
+        byAlcaldia.add(count, minLat, maxLat, minLon, maxLon, sumLat, sumLon);
+        byPrograma.add(count, minLat, maxLat, minLon, maxLon, sumLat, sumLon);
+        byAlcaldia.programas.merge(programa, count, Long::sum);
+        return this;
+    }
+
+    /**
+     * @param source Where the points were read from
+     * @param version Dataset version, or null
+     * @return Statistics of the points added so far
+     */
+    public WifiStatisticsDTO build(String source, Long version) {
+        return WifiStatisticsDTO.builder()
+                .source(source)
+                .version(version)
+                .total(total.count == 0 ? null : total.toDTO(false))
+                .alcaldias(sorted(alcaldias, true))
+                .programas(sorted(programas, false))
+                .build();
+    }
+
+    private static List<WifiAreaStatisticsDTO> sorted(Map<String, Group> groups, boolean withProgramas) {
+        return groups.values().stream()
+                .sorted(LARGEST_FIRST)
+                .map(group -> group.toDTO(withProgramas))
+                .toList();
+    }
+
+    /**
+     * Running aggregates of one group.
+     */
+    private static final class Group {
+
+        private final String name;
+        private final Map<String, Long> programas = new HashMap<>();
+        private long count;
+        private double minLat = Double.POSITIVE_INFINITY;
+        private double maxLat = Double.NEGATIVE_INFINITY;
+        private double minLon = Double.POSITIVE_INFINITY;
+        private double maxLon = Double.NEGATIVE_INFINITY;
+        private double sumLat;
+        private double sumLon;
+
+        Group(String name) {
+            this.name = name;
+        }
+
+        void add(long points, double south, double north, double west, double east, double latitudes,
+                 double longitudes) {
+            count += points;
+            minLat = Math.min(minLat, south);
+            maxLat = Math.max(maxLat, north);
+            minLon = Math.min(minLon, west);
+            maxLon = Math.max(maxLon, east);
+            sumLat += latitudes;
+            sumLon += longitudes;
+        }
+
+        WifiAreaStatisticsDTO toDTO(boolean withProgramas) {
+            Map<String, Long> byPrograma = null;
+            if (withProgramas) {
+                byPrograma = new LinkedHashMap<>();
+                List<Map.Entry<String, Long>> entries = programas.entrySet().stream()
+                        .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                                .thenComparing(Map.Entry.comparingByKey()))
+                        .toList();
+                for (Map.Entry<String, Long> entry : entries) {
+                    byPrograma.put(entry.getKey(), entry.getValue());
+                }
+            }
+            return WifiAreaStatisticsDTO.builder()
+                    .name(name)
+                    .count(count)
+                    .minLat(minLat)
+                    .minLon(minLon)
+                    .maxLat(maxLat)
+                    .maxLon(maxLon)
+                    .latitud(sumLat / count)
+                    .longitud(sumLon / count)
+                    .programas(byPrograma)
+                    .build();
+        }
+    }
+}
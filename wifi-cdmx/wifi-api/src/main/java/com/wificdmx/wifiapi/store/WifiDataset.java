@@ -0,0 +1,269 @@
+package com.wificdmx.wifiapi.store;
+
+import com.wificdmx.wifiapi.config.WifiStoreProperties;
+import com.wificdmx.wifiapi.dto.WifiClusterDTO;
+import com.wificdmx.wifiapi.dto.WifiPointDTO;
+import com.wificdmx.wifiapi.dto.WifiStatisticsDTO;
+import com.wificdmx.wifiapi.spatial.BoundingBox;
+import com.wificdmx.wifiapi.spatial.ClusterIndex;
+import com.wificdmx.wifiapi.spatial.DensityGrid;
+import com.wificdmx.wifiapi.spatial.GridIndex;
+import com.wificdmx.wifiapi.spatial.KdTree;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Immutable, versioned snapshot of the WiFi points: the {@link PointTable}, and the {@link KdTree},
+ * {@link GridIndex} and {@link ClusterIndex} built over its coordinates, so index results are table rows.
+ * The clusters of every zoom level, the {@link DensityGrid}, with one layer per programa, and the
+ * per alcaldia and programa statistics are computed with the snapshot, after each data load.
+ *
+ * A snapshot is fully built before it is published and never changes afterwards. A request reads
+ * one snapshot from start to end, so it sees a consistent set of points and indexes even if a
+ * newer snapshot is swapped in meanwhile; the old one is collected once no request holds it.
+ */
+public final class WifiDataset {
+
+    static final WifiDataset EMPTY = new WifiDataset(0, Instant.EPOCH, PointTable.EMPTY,
+            new WifiStoreProperties.Density().getCellDegrees());
+
+    private final long version;
+    private final Instant builtAt;
+    private final PointTable table;
+    private final KdTree tree;
+    private final GridIndex grid;
+    private final ClusterIndex clusters;
+    private final DensityGrid density;
+    private final WifiStatisticsDTO statistics;
+
+    private WifiDataset(long version, Instant builtAt, PointTable table, double densityCellDegrees) {
+        this.version = version;
+        this.builtAt = builtAt;
+        this.table = table;
+
+        int n = table.size();
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        int[] programa = new int[n];
+        StatisticsBuilder statisticsBuilder = new StatisticsBuilder();
+        for (int row = 0; row < n; row++) {
+            lat[row] = table.lat(row);
+            lon[row] = table.lon(row);
+            programa[row] = table.programaCode(row);
+            statisticsBuilder.add(table.alcaldia(row), table.programa(row), lat[row], lon[row]);
+        }
+        this.tree = new KdTree(lat, lon);
+        this.grid = new GridIndex(lat, lon);
+        this.clusters = new ClusterIndex(lat, lon);
+        this.density = new DensityGrid(lat, lon, programa, table.programaCount(), densityCellDegrees);
+        this.statistics = statisticsBuilder.build("dataset", version);
+    }
+
+    /**
+     * Builds a snapshot and its spatial indexes.
+     *
+     * @param version Snapshot version, increasing with every build
+     * @param table Points of the snapshot
+     * @param densityCellDegrees Side of a density grid cell in degrees
+     * @return New snapshot
+     */
+    public static WifiDataset of(long version, PointTable table, double densityCellDegrees) {
+        return new WifiDataset(version, Instant.now(), table, densityCellDegrees);
+    }
+
+    /**
+     * @return Snapshot version; 0 for the empty snapshot used before the first build
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * @return When the snapshot was built
+     */
+    public Instant builtAt() {
+        return builtAt;
+    }
+
+    /**
+     * @return Points of the snapshot, in ID order
+     */
+    public PointTable table() {
+        return table;
+    }
+
+    /**
+     * @return Nearest-neighbour index over the table rows
+     */
+    public KdTree tree() {
+        return tree;
+    }
+
+    /**
+     * @return Rectangle index over the table rows
+     */
+    public GridIndex grid() {
+        return grid;
+    }
+
+    /**
+     * @return Map clusters of every zoom level over the table rows
+     */
+    public ClusterIndex clusters() {
+        return clusters;
+    }
+
+    /**
+     * @return Point counts per grid cell, in total and with one layer per programa code
+     */
+    public DensityGrid density() {
+        return density;
+    }
+
+    /**
+     * @return Counts, bounding boxes and centroids per alcaldia and programa; shared, must not be modified
+     */
+    public WifiStatisticsDTO statistics() {
+        return statistics;
+    }
+
+    /**
+     * @return Number of WiFi points
+     */
+    public int size() {
+        return table.size();
+    }
+
+    /**
+     * @return Whether the snapshot holds no point
+     */
+    public boolean isEmpty() {
+        return table.size() == 0;
+    }
+
+    /**
+     * @param id WiFi point ID
+     * @return WiFi point, if present
+     */
+    public Optional<WifiPointDTO> findById(String id) {
+        int row = table.indexOf(id);
+        return row < 0 ? Optional.empty() : Optional.of(table.toDTO(row));
+    }
+
+    /**
+     * @param offset Number of points to skip, in ID order
+     * @param limit Maximum number of points to return
+     * @return WiFi points in ID order
+     */
+    public List<WifiPointDTO> findAll(long offset, int limit) {
+        return rows(null, (int) Math.min(offset, table.size()), limit);
+    }
+
+    /**
+     * @param afterId ID to continue after; empty string for the first page
+     * @param limit Maximum number of points to return
+     * @return WiFi points with a greater ID, in ID order
+     */
+    public List<WifiPointDTO> findAllAfter(String afterId, int limit) {
+        return rows(null, table.firstAfter(afterId), limit);
+    }
+
+    /**
+     * @param alcaldiaKey Alcaldia lookup key
+     * @return Number of WiFi points in the alcaldia
+     */
+    public int countByAlcaldia(String alcaldiaKey) {
+        return table.rowsOfAlcaldia(alcaldiaKey).length;
+    }
+
+    /**
+     * @param alcaldiaKey Alcaldia lookup key
+     * @param offset Number of points to skip, in ID order
+     * @param limit Maximum number of points to return
+     * @return WiFi points of the alcaldia in ID order
+     */
+    public List<WifiPointDTO> findByAlcaldia(String alcaldiaKey, long offset, int limit) {
+        int[] rows = table.rowsOfAlcaldia(alcaldiaKey);
+        return rows(rows, (int) Math.min(offset, rows.length), limit);
+    }
+
+    /**
+     * @param alcaldiaKey Alcaldia lookup key
+     * @param afterId ID to continue after; empty string for the first page
+     * @param limit Maximum number of points to return
+     * @return WiFi points of the alcaldia with a greater ID, in ID order
+     */
+    public List<WifiPointDTO> findByAlcaldiaAfter(String alcaldiaKey, String afterId, int limit) {
+        int[] rows = table.rowsOfAlcaldia(alcaldiaKey);
+        return rows(rows, table.firstAfter(rows, afterId), limit);
+    }
+
+    /**
+     * @param box Rectangle to search
+     * @param limit Maximum number of points to return
+     * @return WiFi points inside the rectangle, grouped by grid cell
+     */
+    public List<WifiPointDTO> findWithin(BoundingBox box, int limit) {
+        int[] rows = grid.within(box, limit);
+        return rows(rows, 0, rows.length);
+    }
+
+    /**
+     * @param box Rectangle to search
+     * @param zoom Zoom level, from 0 to {@link ClusterIndex#MAX_ZOOM}
+     * @param limit Maximum number of clusters to return
+     * @return Clusters whose position is inside the rectangle, with the point of single-point clusters
+     */
+    public List<WifiClusterDTO> findClusters(BoundingBox box, int zoom, int limit) {
+        ClusterIndex.Level level = clusters.level(zoom);
+        int[] found = level.within(box, limit);
+        List<WifiClusterDTO> content = new ArrayList<>(found.length);
+        for (int cluster : found) {
+            int count = level.count(cluster);
+            content.add(WifiClusterDTO.builder()
+                    .latitud(level.lat(cluster))
+                    .longitud(level.lon(cluster))
+                    .count(count)
+                    .point(count == 1 ? table.toDTO(level.row(cluster)) : null)
+                    .build());
+        }
+        return content;
+    }
+
+    /**
+     * @param box Rectangle to cover
+     * @param step Grid cells merged along each axis
+     * @param programa Programa to count, or null for every point
+     * @param maxCells Largest number of cells to return
+     * @return Point counts of the cells covering the rectangle
+     * @throws IllegalArgumentException if no point has the programa, or the window is too large
+     */
+    public DensityGrid.Window findDensity(BoundingBox box, int step, String programa, int maxCells) {
+        int layer = DensityGrid.ALL;
+        if (programa != null) {
+            layer = table.programaCodeOf(programa);
+            if (layer < 0) {
+                throw new IllegalArgumentException("Unknown programa: " + programa);
+            }
+        }
+        return density.window(box, step, layer, maxCells);
+    }
+
+    /**
+     * Converts a range of rows to DTOs.
+     *
+     * @param rows Row numbers to read from, or null for every row of the table
+     */
+    private List<WifiPointDTO> rows(int[] rows, int from, int limit) {
+        int size = rows != null ? rows.length : table.size();
+        int to = (int) Math.min(size, (long) from + limit);
+        List<WifiPointDTO> content = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            content.add(table.toDTO(rows != null ? rows[i] : i));
+        }
+        return content;
+    }
+}
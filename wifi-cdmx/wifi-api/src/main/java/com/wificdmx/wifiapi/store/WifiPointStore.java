@@ -0,0 +1,238 @@
+package com.wificdmx.wifiapi.store;
+
+import com.wificdmx.wifiapi.config.LoaderProperties;
+import com.wificdmx.wifiapi.config.WifiStoreProperties;
+import com.wificdmx.wifiapi.loader.SourceFingerprint;
+import com.wificdmx.wifiapi.repository.WifiPointRepository;
+import com.wificdmx.wifiapi.service.WifiPointsLoadedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the current {@link WifiDataset}, the read-optimized in-memory copy of the WiFi points.
+ *
+ * The dataset is built once the application is ready and again after every data load. The next
+ * snapshot is built off to the side while requests keep reading the current one, then swapped in
+ * with a single reference write: readers never block and never see a half-built index. Builds are
+ * serialized by a lock, not a monitor, so a virtual thread waiting on the database while building
+ * does not pin its carrier thread; versions always increase.
+ *
+ * After each successful load the dataset is also written to a {@link SnapshotFile}. At startup, a
+ * snapshot of the current Excel file is memory-mapped before the context finishes starting, so the
+ * dataset is ready without reading the Excel file or the database; a missing, stale or corrupt
+ * snapshot falls back to building from the database.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WifiPointStore {
+
+    private final WifiPointRepository wifiPointRepository;
+    private final WifiStoreProperties properties;
+    private final LoaderProperties loaderProperties;
+    private final ResourceLoader resourceLoader;
+
+    private final AtomicReference<WifiDataset> current = new AtomicReference<>(WifiDataset.EMPTY);
+
+    /**
+     * Serializes builds and snapshot writes; readers never take it
+     */
+    private final ReentrantLock buildLock = new ReentrantLock();
+
+    /**
+     * Fingerprint of the Excel file whose snapshot holds exactly the current dataset; null if none does
+     */
+    private volatile String snapshotSource;
+
+    /**
+     * Where the current dataset was built from: none, snapshot or database
+     */
+    private volatile String origin = "none";
+
+    /**
+     * JVM uptime when the first non-empty dataset was published; -1 until then
+     */
+    private volatile long startupToReadyMillis = -1;
+
+    /**
+     * Restores the dataset from the snapshot file, if it was written from the current Excel file.
+     */
+    @PostConstruct
+    public void restoreSnapshot() {
+        buildLock.lock();
+        try {
+            if (!properties.getSnapshot().isEnabled()) {
+                return;
+            }
+            Path path = Path.of(properties.getSnapshot().getPath());
+            if (!Files.exists(path)) {
+                log.info("No dataset snapshot at {}; the dataset will be built from the database", path);
+                return;
+            }
+
+            long start = System.currentTimeMillis();
+            try {
+                SnapshotFile.Contents contents = SnapshotFile.read(path);
+                String source = SourceFingerprint.of(resourceLoader.getResource(loaderProperties.getSource()));
+                if (!source.equals(contents.source())) {
+                    log.info("Dataset snapshot at {} was written from another version of the Excel file; ignoring it", path);
+                    return;
+                }
+                publish(contents.table(), "snapshot", start);
+                snapshotSource = source;
+                log.info("Dataset restored from snapshot {} written {}", path, contents.createdAt());
+            } catch (IOException | RuntimeException e) {
+                log.warn("Cannot restore dataset snapshot {}, building from the database: {}", path, e.getMessage());
+            }
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    /**
+     * Builds the dataset from the database once the application is ready, unless a snapshot was restored.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        buildLock.lock();
+        try {
+            if (current.get().isEmpty()) {
+                rebuild();
+            }
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    /**
+     * Loads every WiFi point from the database into a new snapshot and swaps it in.
+     */
+    @EventListener(WifiPointsLoadedEvent.class)
+    public void rebuild() {
+        buildLock.lock();
+        try {
+            long start = System.currentTimeMillis();
+            publish(PointTable.of(wifiPointRepository.findAll()), "database", start);
+            snapshotSource = null;
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the current dataset to the snapshot file, once a load has made the database match the
+     * Excel file. Does nothing if the file already holds the current dataset for that source.
+     * Failures are logged: the snapshot only speeds up the next start.
+     *
+     * @param source Fingerprint of the Excel file the database was loaded from
+     */
+    public void saveSnapshot(String source) {
+        buildLock.lock();
+        try {
+            if (!properties.getSnapshot().isEnabled() || source == null || source.equals(snapshotSource)) {
+                return;
+            }
+            if (current.get().isEmpty()) {
+                rebuild();
+            }
+            PointTable table = current.get().table();
+            if (table.size() == 0) {
+                return;
+            }
+
+            Path path = Path.of(properties.getSnapshot().getPath());
+            long start = System.currentTimeMillis();
+            try {
+                long bytes = SnapshotFile.write(path, source, table);
+                snapshotSource = source;
+                log.info("Dataset snapshot written to {} with {} WiFi points in {} ms ({} KB)",
+                        path, table.size(), System.currentTimeMillis() - start, bytes / 1024);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Cannot write dataset snapshot {}: {}", path, e.getMessage());
+            }
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    /**
+     * @param source Fingerprint of the Excel file
+     * @return Whether the current dataset was restored from, or saved to, a snapshot of that file
+     */
+    public boolean isSnapshotOf(String source) {
+        return source != null && source.equals(snapshotSource);
+    }
+
+    /**
+     * @return Current snapshot; empty until the first build
+     */
+    public WifiDataset current() {
+        return current.get();
+    }
+
+    /**
+     * Snapshot to answer list, ID and alcaldia queries from. Callers should read it once per request.
+     *
+     * @return Current snapshot, or empty if it holds no data yet or {@code wifi.store.enabled} is false
+     */
+    public Optional<WifiDataset> snapshot() {
+        WifiDataset dataset = current.get();
+        return properties.isEnabled() && !dataset.isEmpty() ? Optional.of(dataset) : Optional.empty();
+    }
+
+    /**
+     * @return Version, origin, number of points and approximate size, for the health endpoint
+     */
+    public Map<String, Object> getStats() {
+        WifiDataset dataset = current.get();
+        PointTable table = dataset.table();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("version", dataset.version());
+        stats.put("builtAt", dataset.builtAt().toString());
+        stats.put("origin", origin);
+        stats.put("startupToReadyMs", startupToReadyMillis);
+        stats.put("points", table.size());
+        stats.put("dictionaryValues", table.dictionarySize());
+        stats.put("estimatedKb", table.estimatedBytes() / 1024);
+        stats.put("densityCellDegrees", dataset.density().cellDegrees());
+        stats.put("densityKb", dataset.density().estimatedBytes() / 1024);
+        stats.put("servingQueries", properties.isEnabled());
+        return stats;
+    }
+
+    /**
+     * Builds the next dataset around the table and swaps it in.
+     *
+     * @param start When reading the table started, for the build time
+     */
+    private void publish(PointTable table, String from, long start) {
+        WifiDataset next = WifiDataset.of(current.get().version() + 1, table,
+                properties.getDensity().getCellDegrees());
+        WifiDataset previous = current.getAndSet(next);
+        origin = from;
+
+        log.info("WiFi dataset v{} built from the {} with {} WiFi points and {} dictionary values in {} ms (~{} KB), replacing v{} ({} points)",
+                next.version(), from, table.size(), table.dictionarySize(), System.currentTimeMillis() - start,
+                table.estimatedBytes() / 1024, previous.version(), previous.size());
+
+        if (startupToReadyMillis < 0 && !next.isEmpty()) {
+            startupToReadyMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+            log.info("WiFi dataset ready {} ms after JVM start (from the {})", startupToReadyMillis, from);
+        }
+    }
+}
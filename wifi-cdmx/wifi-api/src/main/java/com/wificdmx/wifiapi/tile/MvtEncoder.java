@@ -0,0 +1,205 @@
+package com.wificdmx.wifiapi.tile;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Encodes one layer of point features as a Mapbox Vector Tile (MVT 2.1), a protocol buffers message.
+ *
+ * Only what point layers need is written: the tile holds one layer with its name, extent, key and
+ * value tables, and one feature per point whose geometry is a single MoveTo command and whose tags
+ * index the tables. String values are stored once per tile, so programa and alcaldia, repeated by
+ * every point, take a few bytes each. Coordinates are in tile units, from 0 to {@link #EXTENT} with
+ * y growing downwards, and may fall outside that range within the tile buffer.
+ */
+final class MvtEncoder {
+
+    /**
+     * Tile units along each side of the tile
+     */
+    static final int EXTENT = 4096;
+
+    private static final int VARINT = 0;
+    private static final int LENGTH_DELIMITED = 2;
+
+    // Field numbers of vector_tile.proto
+    private static final int TILE_LAYERS = 3;
+    private static final int LAYER_NAME = 1;
+    private static final int LAYER_FEATURES = 2;
+    private static final int LAYER_KEYS = 3;
+    private static final int LAYER_VALUES = 4;
+    private static final int LAYER_EXTENT = 5;
+    private static final int LAYER_VERSION = 15;
+    private static final int FEATURE_TAGS = 2;
+    private static final int FEATURE_TYPE = 3;
+    private static final int FEATURE_GEOMETRY = 4;
+    private static final int VALUE_STRING = 1;
+
+    private static final int GEOMETRY_POINT = 1;
+
+    /**
+     * MoveTo command with a count of one
+     */
+    private static final int MOVE_TO_ONE = 1 | 1 << 3;
+
+    private final String name;
+    private final String[] keys;
+    private final Map<String, Integer> valueIndex = new HashMap<>();
+    private final Buffer values = new Buffer(256);
+    private final Buffer features = new Buffer(1024);
+    private final Buffer feature = new Buffer(64);
+    private final Buffer packed = new Buffer(32);
+    private int featureCount;
+
+    /**
+     * @param name Layer name
+     * @param keys Property names, in the order {@link #addPoint} receives their values
+     */
+    MvtEncoder(String name, String... keys) {
+        this.name = name;
+        this.keys = keys.clone();
+    }
+
+    /**
+     * Adds a point feature.
+     *
+     * @param x Column in tile units
+     * @param y Row in tile units
+     * @param properties Property values in key order; null values are left out
+     */
+    void addPoint(int x, int y, String... properties) {
+        packed.reset();
+        for (int k = 0; k < keys.length; k++) {
+            if (properties[k] != null) {
+                packed.varint(k);
+                packed.varint(valueIndex(properties[k]));
+            }
+        }
+        feature.reset();
+        feature.bytes(FEATURE_TAGS, packed);
+        feature.tag(FEATURE_TYPE, VARINT);
+        feature.varint(GEOMETRY_POINT);
+
+        packed.reset();
+        packed.varint(MOVE_TO_ONE);
+        packed.varint(zigZag(x));
+        packed.varint(zigZag(y));
+        feature.bytes(FEATURE_GEOMETRY, packed);
+
+        features.bytes(LAYER_FEATURES, feature);
+        featureCount++;
+    }
+
+    /**
+     * @return Number of features added
+     */
+    int size() {
+        return featureCount;
+    }
+
+    /**
+     * @return Encoded tile; empty, which is a valid tile without layers, if no feature was added
+     */
+    byte[] encode() {
+        if (featureCount == 0) {
+            return new byte[0];
+        }
+        Buffer layer = new Buffer(features.size + values.size + 64);
+        layer.tag(LAYER_VERSION, VARINT);
+        layer.varint(2);
+        layer.string(LAYER_NAME, name);
+        layer.append(features);
+        for (String key : keys) {
+            layer.string(LAYER_KEYS, key);
+        }
+        layer.append(values);
+        layer.tag(LAYER_EXTENT, VARINT);
+        layer.varint(EXTENT);
+
+        Buffer tile = new Buffer(layer.size + 8);
+        tile.bytes(TILE_LAYERS, layer);
+        return tile.toByteArray();
+    }
+
+    private int valueIndex(String value) {
+        Integer index = valueIndex.get(value);
+        if (index == null) {
+            index = valueIndex.size();
+            valueIndex.put(value, index);
+            Buffer message = new Buffer(value.length() + 8);
+            message.string(VALUE_STRING, value);
+            values.bytes(LAYER_VALUES, message);
+        }
+        return index;
+    }
+
+    private static int zigZag(int value) {
+        return value << 1 ^ value >> 31;
+    }
+
+    /**
+     * Growable byte buffer with the protocol buffers primitives.
+     */
+    private static final class Buffer {
+
+        private byte[] data;
+        private int size;
+
+        Buffer(int capacity) {
+            this.data = new byte[Math.max(16, capacity)];
+        }
+
+        void reset() {
+            size = 0;
+        }
+
+        void tag(int field, int wireType) {
+            varint(field << 3 | wireType);
+        }
+
+        void varint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                data[size++] = (byte) (value & 0x7F | 0x80);
+                value >>>= 7;
+            }
+            data[size++] = (byte) value;
+        }
+
+        void string(int field, String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            tag(field, LENGTH_DELIMITED);
+            varint(utf8.length);
+            ensure(utf8.length);
+            System.arraycopy(utf8, 0, data, size, utf8.length);
+            size += utf8.length;
+        }
+
+        /**
+         * Writes another buffer as a length-delimited field (an embedded message or a packed list).
+         */
+        void bytes(int field, Buffer message) {
+            tag(field, LENGTH_DELIMITED);
+            varint(message.size);
+            append(message);
+        }
+
+        void append(Buffer other) {
+            ensure(other.size);
+            System.arraycopy(other.data, 0, data, size, other.size);
+            size += other.size;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(data, size);
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, size + extra));
+            }
+        }
+    }
+}
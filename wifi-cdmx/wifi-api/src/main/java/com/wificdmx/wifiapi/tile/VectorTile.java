@@ -0,0 +1,11 @@
+package com.wificdmx.wifiapi.tile;
+
+/**
+ * Encoded vector tile.
+ *
+ * @param data MVT bytes; empty when the tile holds no point
+ * @param etag Strong entity tag, quoted, derived from the bytes
+ * @param points Number of WiFi points in the tile
+ */
+public record VectorTile(byte[] data, String etag, int points) {
+}
@@ -0,0 +1,148 @@
+package com.wificdmx.wifiapi.tile;
+
+import com.wificdmx.wifiapi.cache.VectorTileCache;
+import com.wificdmx.wifiapi.model.WifiPoint;
+import com.wificdmx.wifiapi.repository.WifiPointRepository;
+import com.wificdmx.wifiapi.spatial.BoundingBox;
+import com.wificdmx.wifiapi.spatial.WebMercator;
+import com.wificdmx.wifiapi.store.PointTable;
+import com.wificdmx.wifiapi.store.WifiDataset;
+import com.wificdmx.wifiapi.store.WifiPointStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Builds the Mapbox Vector Tiles of the WiFi points for map clients.
+ *
+ * Each tile holds one point layer, {@value #LAYER}, with the ID, programa and alcaldia of every point
+ * inside the tile or within {@value #BUFFER} tile units of its edges, so markers on an edge are drawn
+ * whole on both sides. Points are written in ID order, so the same data always gives the same bytes
+ * and the same ETag. Tiles are built from the grid index of the current {@link WifiDataset} and cached
+ * by its version; before the dataset is built, they are built from PostgreSQL and not cached.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class VectorTileService {
+
+    /**
+     * Media type of Mapbox Vector Tiles
+     */
+    public static final String MEDIA_TYPE = "application/vnd.mapbox-vector-tile";
+
+    /**
+     * Name of the layer holding the WiFi points
+     */
+    public static final String LAYER = "wifi_points";
+
+    /**
+     * Deepest zoom level served
+     */
+    public static final int MAX_ZOOM = 22;
+
+    /**
+     * Margin around the tile, in tile units, whose points are included
+     */
+    static final int BUFFER = 64;
+
+    private final WifiPointStore wifiPointStore;
+    private final WifiPointRepository wifiPointRepository;
+    private final VectorTileCache vectorTileCache;
+
+    /**
+     * Returns a tile of the WiFi points.
+     *
+     * @param zoom Zoom level, from 0 to {@link #MAX_ZOOM}
+     * @param x Tile column, from 0 to 2^zoom - 1
+     * @param y Tile row, from 0 to 2^zoom - 1
+     * @return Encoded tile and its ETag
+     * @throws IllegalArgumentException if the tile coordinates are out of range
+     */
+    public VectorTile getTile(int zoom, int x, int y) {
+        if (zoom < 0 || zoom > MAX_ZOOM) {
+            throw new IllegalArgumentException("Zoom must be between 0 and " + MAX_ZOOM);
+        }
+        long tiles = 1L << zoom;
+        if (x < 0 || x >= tiles || y < 0 || y >= tiles) {
+            throw new IllegalArgumentException("Tile x and y must be between 0 and " + (tiles - 1) + " at zoom " + zoom);
+        }
+        BoundingBox bounds = WebMercator.tileBounds(zoom, x, y, (double) BUFFER / MvtEncoder.EXTENT);
+
+        Optional<WifiDataset> dataset = wifiPointStore.snapshot();
+        if (dataset.isPresent()) {
+            WifiDataset current = dataset.get();
+            return vectorTileCache.get(current.version(), zoom, x, y, () -> encode(current, bounds, zoom, x, y));
+        }
+        return encode(wifiPointRepository.findByLatitudBetweenAndLongitudBetween(
+                bounds.minLat(), bounds.maxLat(), bounds.minLon(), bounds.maxLon(), Limit.unlimited()), zoom, x, y);
+    }
+
+    /**
+     * @return Statistics of the tile cache
+     */
+    public Map<String, Object> getCacheStats() {
+        return vectorTileCache.getStats();
+    }
+
+    private VectorTile encode(WifiDataset dataset, BoundingBox bounds, int zoom, int x, int y) {
+        long start = System.nanoTime();
+        // Table rows are in ID order
+        int[] rows = dataset.grid().within(bounds, Integer.MAX_VALUE);
+        Arrays.sort(rows);
+        PointTable table = dataset.table();
+        TileWriter writer = new TileWriter(zoom, x, y);
+        for (int row : rows) {
+            writer.add(table.lat(row), table.lon(row), table.puntoId(row), table.programa(row), table.alcaldia(row));
+        }
+        VectorTile tile = writer.finish();
+        log.debug("Vector tile {}/{}/{} of dataset v{} built with {} points ({} bytes) in {} ms",
+                zoom, x, y, dataset.version(), tile.points(), tile.data().length, (System.nanoTime() - start) / 1_000_000);
+        return tile;
+    }
+
+    private VectorTile encode(List<WifiPoint> wifiPoints, int zoom, int x, int y) {
+        TileWriter writer = new TileWriter(zoom, x, y);
+        wifiPoints.stream()
+                .sorted(Comparator.comparing(WifiPoint::getPuntoId))
+                .forEach(point -> writer.add(point.getLatitud(), point.getLongitud(), point.getPuntoId(),
+                        point.getPrograma(), point.getAlcaldia()));
+        return writer.finish();
+    }
+
+    /**
+     * Projects points into tile units and encodes them.
+     */
+    private static final class TileWriter {
+
+        private final double scale;
+        private final double originX;
+        private final double originY;
+        private final MvtEncoder encoder = new MvtEncoder(LAYER, "puntoId", "programa", "alcaldia");
+
+        TileWriter(int zoom, int x, int y) {
+            this.scale = (double) (1L << zoom) * MvtEncoder.EXTENT;
+            this.originX = (double) x * MvtEncoder.EXTENT;
+            this.originY = (double) y * MvtEncoder.EXTENT;
+        }
+
+        void add(double lat, double lon, String puntoId, String programa, String alcaldia) {
+            int px = (int) Math.round(WebMercator.x(lon) * scale - originX);
+            int py = (int) Math.round(WebMercator.y(lat) * scale - originY);
+            encoder.addPoint(px, py, puntoId, programa, alcaldia);
+        }
+
+        VectorTile finish() {
+            byte[] data = encoder.encode();
+            return new VectorTile(data, "\"" + DigestUtils.md5DigestAsHex(data) + "\"", encoder.size());
+        }
+    }
+}
@@ -0,0 +1,14 @@
+-- Executed after Hibernate creates/updates the wifi_points table
+-- (spring.jpa.defer-datasource-initialization=true), only with wifi.nearby.engine=postgis:
+-- spring.sql.init.schema-locations adds db/schema-${wifi.nearby.engine}.sql to db/schema.sql and the
+-- other engines have no script of their own. Requires the PostGIS extension to be installable. Every statement is idempotent.
+
+CREATE EXTENSION IF NOT EXISTS postgis;
+
+-- Geography point derived from latitud/longitud, kept in sync by PostgreSQL itself
+ALTER TABLE wifi_points
+    ADD COLUMN IF NOT EXISTS geog geography(Point, 4326)
+    GENERATED ALWAYS AS (ST_SetSRID(ST_MakePoint(longitud, latitud), 4326)::geography) STORED;
+
+-- Spatial index used by ST_DWithin and the <-> KNN operator
+CREATE INDEX IF NOT EXISTS idx_wifi_points_geog ON wifi_points USING GIST (geog);
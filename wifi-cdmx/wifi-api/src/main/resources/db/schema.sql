@@ -0,0 +1,11 @@
+-- Executed after Hibernate creates/updates the wifi_points table
+-- (spring.jpa.defer-datasource-initialization=true), whatever the nearby engine. Every statement is idempotent.
+
+-- The in-memory dataset sorts IDs byte by byte; the ID-order queries compare them with COLLATE "C" so the
+-- database fallback returns the same order whatever the database collation. These indexes let those queries
+-- read rows already sorted instead of sorting the table on every page.
+CREATE INDEX IF NOT EXISTS idx_wifi_points_punto_id_c ON wifi_points (punto_id COLLATE "C");
+CREATE INDEX IF NOT EXISTS idx_wifi_points_alcaldia_key_punto_id_c ON wifi_points (alcaldia_key, punto_id COLLATE "C");
+
+-- Replaced by idx_wifi_points_alcaldia_key_punto_id_c; ddl-auto=update never drops indexes on its own
+DROP INDEX IF EXISTS idx_wifi_points_alcaldia_key;
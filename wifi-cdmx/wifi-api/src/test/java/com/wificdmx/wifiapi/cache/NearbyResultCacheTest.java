@@ -0,0 +1,160 @@
+package com.wificdmx.wifiapi.cache;
+
+import com.wificdmx.wifiapi.config.LoaderProperties;
+import com.wificdmx.wifiapi.config.WifiCacheProperties;
+import com.wificdmx.wifiapi.config.WifiStoreProperties;
+import com.wificdmx.wifiapi.dto.WifiPointDTO;
+import com.wificdmx.wifiapi.model.WifiPoint;
+import com.wificdmx.wifiapi.repository.WifiPointRepository;
+import com.wificdmx.wifiapi.search.InMemoryNearbySearchEngine;
+import com.wificdmx.wifiapi.search.NearbySearchEngine;
+import com.wificdmx.wifiapi.store.WifiPointStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for NearbyResultCache.
+ * Cached results are compared with the uncached in-memory engine over random points.
+ */
+@DisplayName("NearbyResultCache Tests")
+class NearbyResultCacheTest {
+
+    private static final long VERSION = 1;
+
+    private NearbySearchEngine engine;
+    private WifiCacheProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(7);
+        List<WifiPoint> wifiPoints = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            WifiPoint wifiPoint = new WifiPoint();
+            wifiPoint.setPuntoId("P-" + i);
+            wifiPoint.setPrograma("Pilares");
+            wifiPoint.setLatitud(19.05 + random.nextDouble() * 0.55);
+            wifiPoint.setLongitud(-99.36 + random.nextDouble() * 0.40);
+            wifiPoint.setAlcaldia("Iztapalapa");
+            wifiPoints.add(wifiPoint);
+        }
+        WifiPointRepository repository = mock(WifiPointRepository.class);
+        when(repository.findAll()).thenReturn(wifiPoints);
+        WifiPointStore store = new WifiPointStore(repository, new WifiStoreProperties(),
+                new LoaderProperties(), new DefaultResourceLoader());
+        store.rebuild();
+        engine = spy(new InMemoryNearbySearchEngine(store));
+
+        properties = new WifiCacheProperties();
+        // Coarse cells, so each one is shared by many of the random queries
+        properties.getNearby().setPrecision(5);
+    }
+
+    @Test
+    @DisplayName("Should return the same pages as the uncached engine")
+    void testMatchesEngine() {
+        // Arrange
+        NearbyResultCache cache = new NearbyResultCache(properties);
+        Random random = new Random(11);
+
+        for (int q = 0; q < 200; q++) {
+            double lat = 19.05 + random.nextDouble() * 0.55;
+            double lon = -99.36 + random.nextDouble() * 0.40;
+            Double radiusKm = q % 2 == 0 ? null : 0.5 + random.nextDouble() * 2;
+            Pageable pageable = PageRequest.of(q % 3, 10);
+
+            // Act
+            Page<WifiPointDTO> cached = cache.findNearby(VERSION, lat, lon, radiusKm, pageable, engine);
+            Page<WifiPointDTO> expected = engine.findNearby(lat, lon, radiusKm, pageable);
+
+            // Assert
+            assertEquals(expected.getTotalElements(), cached.getTotalElements());
+            assertEquals(expected.getNumberOfElements(), cached.getNumberOfElements());
+            for (int i = 0; i < expected.getNumberOfElements(); i++) {
+                assertEquals(expected.getContent().get(i).getDistancia(),
+                        cached.getContent().get(i).getDistancia(), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should answer queries in the same cell without searching again")
+    void testSameCellHit() {
+        // Arrange
+        NearbyResultCache cache = new NearbyResultCache(properties);
+        Pageable pageable = PageRequest.of(0, 10);
+        cache.findNearby(VERSION, 19.4326, -99.1332, null, pageable, engine);
+        clearInvocations(engine);
+
+        // Act
+        Page<WifiPointDTO> result = cache.findNearby(VERSION, 19.4330, -99.1335, null, pageable, engine);
+
+        // Assert
+        assertEquals(10, result.getNumberOfElements());
+        verifyNoInteractions(engine);
+        assertEquals(1L, cache.getStats().get("hits"));
+    }
+
+    @Test
+    @DisplayName("Should search the engine again after the data is reloaded")
+    void testInvalidateAll() {
+        // Arrange
+        NearbyResultCache cache = new NearbyResultCache(properties);
+        Pageable pageable = PageRequest.of(0, 10);
+        cache.findNearby(VERSION, 19.4326, -99.1332, null, pageable, engine);
+        clearInvocations(engine);
+
+        // Act
+        cache.invalidateAll();
+        cache.findNearby(VERSION, 19.4326, -99.1332, null, pageable, engine);
+
+        // Assert
+        verify(engine, atLeastOnce()).findNearby(anyDouble(), anyDouble(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should search the engine again for a new dataset version without waiting for the invalidation")
+    void testNewVersionMisses() {
+        // Arrange
+        NearbyResultCache cache = new NearbyResultCache(properties);
+        Pageable pageable = PageRequest.of(0, 10);
+        cache.findNearby(VERSION, 19.4326, -99.1332, null, pageable, engine);
+        clearInvocations(engine);
+
+        // Act
+        cache.findNearby(VERSION + 1, 19.4326, -99.1332, null, pageable, engine);
+
+        // Assert
+        verify(engine, atLeastOnce()).findNearby(anyDouble(), anyDouble(), any(), any());
+        assertEquals(0L, cache.getStats().get("hits"));
+    }
+
+    @Test
+    @DisplayName("Should delegate to the engine when the cache is disabled")
+    void testDisabled() {
+        // Arrange
+        properties.getNearby().setEnabled(false);
+        NearbyResultCache cache = new NearbyResultCache(properties);
+        Pageable pageable = PageRequest.of(0, 10);
+
+        // Act
+        cache.findNearby(VERSION, 19.4326, -99.1332, 1.0, pageable, engine);
+
+        // Assert
+        verify(engine).findNearby(19.4326, -99.1332, 1.0, pageable);
+        assertEquals(0L, cache.getStats().get("size"));
+    }
+}
@@ -0,0 +1,168 @@
+package com.wificdmx.wifiapi.controller;
+
+import com.wificdmx.wifiapi.WifiApiApplication;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * HTTP load benchmark comparing request handling on the Tomcat platform-thread pool and on virtual threads.
+ * Disabled unless {@code -Dbenchmark.db.url=jdbc:postgresql://localhost:5432/wifi_cdmx} is given
+ * (see {@code make benchmark-http}); the database must already hold the WiFi points.
+ *
+ * Many concurrent clients send a mix of requests: most are served from the in-memory dataset, and
+ * one in {@code benchmark.db-every} is sorted by alcaldia, which only PostgreSQL answers. With platform
+ * threads the database requests hold Tomcat threads while they wait for a pooled connection, so
+ * in-memory requests queue behind them; with virtual threads only the database requests wait.
+ */
+@EnabledIfSystemProperty(named = "benchmark.db.url", matches = ".+")
+@DisplayName("Request concurrency benchmark")
+class RequestConcurrencyBenchmarkTest {
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 1000);
+    private static final int DB_EVERY = Integer.getInteger("benchmark.db-every", 4);
+    private static final Duration WARM_UP = Duration.ofSeconds(Long.getLong("benchmark.warm-up-seconds", 5));
+    private static final Duration MEASURE = Duration.ofSeconds(Long.getLong("benchmark.seconds", 15));
+
+    @Test
+    @DisplayName("Platform threads (Tomcat pool of 200)")
+    void benchmarkPlatformThreads() throws Exception {
+        run(false);
+    }
+
+    @Test
+    @DisplayName("Virtual threads")
+    void benchmarkVirtualThreads() throws Exception {
+        run(true);
+    }
+
+    private void run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = start(virtualThreads)) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            String base = "http://localhost:" + port + "/api/v1/wifi-points";
+
+            try (HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build()) {
+                load(client, base, WARM_UP);
+                Result result = load(client, base, MEASURE);
+                result.report(virtualThreads ? "virtual" : "platform");
+                assertTrue(result.memory.size() > 0, "No request completed");
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtualThreads) {
+        // Command-line arguments, so they take precedence over application.yml
+        return new SpringApplicationBuilder(WifiApiApplication.class).run(
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.datasource.url=" + System.getProperty("benchmark.db.url"),
+                "--spring.datasource.username=" + System.getProperty("benchmark.db.username", "admin"),
+                "--spring.datasource.password=" + System.getProperty("benchmark.db.password", "admin123"),
+                "--spring.sql.init.mode=never",
+                "--spring.jpa.show-sql=false",
+                "--server.port=0",
+                "--logging.level.root=WARN",
+                "--logging.level.com.wificdmx.wifiapi=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--wifi.loader.existing-data=skip",
+                "--wifi.store.snapshot.enabled=false");
+    }
+
+    /**
+     * Runs {@link #CLIENTS} virtual-thread clients in a closed loop for the given time.
+     */
+    private static Result load(HttpClient client, String base, Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        Result result = new Result(duration);
+        List<Thread> threads = new ArrayList<>(CLIENTS);
+        for (int c = 0; c < CLIENTS; c++) {
+            int clientId = c;
+            threads.add(Thread.ofVirtual().start(() -> {
+                List<Long> memory = new ArrayList<>();
+                List<Long> database = new ArrayList<>();
+                int errors = 0;
+                for (int i = clientId; System.nanoTime() < deadline; i++) {
+                    boolean toDatabase = i % DB_EVERY == 0;
+                    int page = ThreadLocalRandom.current().nextInt(100);
+                    String query = toDatabase ? "?sort=alcaldia&count=false&page=" + page : "?count=false&page=" + page;
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(
+                                HttpRequest.newBuilder(URI.create(base + query)).timeout(Duration.ofSeconds(30)).build(),
+                                HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors++;
+                            continue;
+                        }
+                    } catch (Exception e) {
+                        errors++;
+                        continue;
+                    }
+                    (toDatabase ? database : memory).add(System.nanoTime() - start);
+                }
+                result.add(memory, database, errors);
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return result;
+    }
+
+    /**
+     * Latencies of the successful requests of a run, by kind, in nanoseconds.
+     */
+    private static final class Result {
+
+        final Duration duration;
+        final List<Long> memory = new ArrayList<>();
+        final List<Long> database = new ArrayList<>();
+        int errors;
+
+        Result(Duration duration) {
+            this.duration = duration;
+        }
+
+        synchronized void add(List<Long> memoryLatencies, List<Long> databaseLatencies, int failed) {
+            memory.addAll(memoryLatencies);
+            database.addAll(databaseLatencies);
+            errors += failed;
+        }
+
+        void report(String mode) {
+            double seconds = duration.toMillis() / 1000.0;
+            System.out.printf("[benchmark] %-8s %4d clients %7.0f req/s, %d errors%n",
+                    mode, CLIENTS, (memory.size() + database.size()) / seconds, errors);
+            System.out.printf("[benchmark] %-8s in-memory %7.0f req/s  p50 %6.1f ms  p99 %6.1f ms%n",
+                    mode, memory.size() / seconds, percentile(memory, 50), percentile(memory, 99));
+            System.out.printf("[benchmark] %-8s database  %7.0f req/s  p50 %6.1f ms  p99 %6.1f ms%n",
+                    mode, database.size() / seconds, percentile(database, 50), percentile(database, 99));
+        }
+
+        private static double percentile(List<Long> latencies, int percentile) {
+            if (latencies.isEmpty()) {
+                return 0;
+            }
+            Collections.sort(latencies);
+            int index = Math.min(latencies.size() - 1, latencies.size() * percentile / 100);
+            return latencies.get(index) / 1_000_000.0;
+        }
+    }
+}
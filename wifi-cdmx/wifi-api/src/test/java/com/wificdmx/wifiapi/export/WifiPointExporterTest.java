@@ -0,0 +1,145 @@
+package com.wificdmx.wifiapi.export;
+
+import com.wificdmx.wifiapi.config.LoaderProperties;
+import com.wificdmx.wifiapi.config.WifiStoreProperties;
+import com.wificdmx.wifiapi.model.WifiPoint;
+import com.wificdmx.wifiapi.repository.WifiPointRepository;
+import com.wificdmx.wifiapi.store.WifiPointStore;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.transaction.PlatformTransactionManager;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for WifiPointExporter and the export formats.
+ * The dataset is built from a mocked repository, so the export never reaches the database.
+ */
+@DisplayName("WifiPointExporter Tests")
+class WifiPointExporterTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+    private final WifiPointRepository repository = mock(WifiPointRepository.class);
+
+    @Test
+    @DisplayName("Should write one JSON object per line in ID order")
+    void testNdjson() throws IOException {
+        // Act
+        String output = export(ExportFormat.NDJSON);
+
+        // Assert
+        String[] lines = output.split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(output.endsWith("\n"));
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("FARO-001", first.get("puntoId").asString());
+        assertEquals(19.42, first.get("latitud").asDouble());
+        assertEquals("Benito Juarez", first.get("alcaldia").asString());
+        assertEquals("PILARES-002", objectMapper.readTree(lines[2]).get("puntoId").asString());
+    }
+
+    @Test
+    @DisplayName("Should write CSV with a header and quote fields with commas or quotes")
+    void testCsv() throws IOException {
+        // Act
+        String output = export(ExportFormat.CSV);
+
+        // Assert
+        String[] lines = output.split("\r\n");
+        assertEquals(4, lines.length);
+        assertEquals("puntoId,programa,latitud,longitud,alcaldia", lines[0]);
+        assertEquals("FARO-001,Faros,19.42,-99.15,Benito Juarez", lines[1]);
+        assertEquals("PILARES-001,\"Pilares, \"\"Centro\"\"\",19.4326,-99.1332,Iztapalapa", lines[2]);
+    }
+
+    @Test
+    @DisplayName("Should write a GeoJSON FeatureCollection with longitude first")
+    void testGeoJson() throws IOException {
+        // Act
+        JsonNode collection = objectMapper.readTree(export(ExportFormat.GEOJSON));
+
+        // Assert
+        assertEquals("FeatureCollection", collection.get("type").asString());
+        JsonNode features = collection.get("features");
+        assertEquals(3, features.size());
+        JsonNode feature = features.get(1);
+        assertEquals("Point", feature.get("geometry").get("type").asString());
+        assertEquals(-99.1332, feature.get("geometry").get("coordinates").get(0).asDouble());
+        assertEquals(19.4326, feature.get("geometry").get("coordinates").get(1).asDouble());
+        assertEquals("PILARES-001", feature.get("properties").get("puntoId").asString());
+    }
+
+    @Test
+    @DisplayName("Should rethrow the stream's own exception when the output cannot be written, in every format")
+    void testWriteFailure() {
+        // Arrange - a client that disconnected
+        IOException failure = new IOException("Broken pipe");
+        OutputStream disconnected = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw failure;
+            }
+        };
+
+        for (ExportFormat format : ExportFormat.values()) {
+            // Act
+            IOException exception = assertThrows(IOException.class, () -> exporter().export(format, disconnected));
+
+            // Assert
+            assertSame(failure, exception, format.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject unknown export formats")
+    void testUnknownFormat() {
+        assertEquals(ExportFormat.GEOJSON, ExportFormat.of("GeoJSON"));
+        assertThrows(IllegalArgumentException.class, () -> ExportFormat.of("xml"));
+    }
+
+    private String export(ExportFormat format) throws IOException {
+        // Arrange
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long rows = exporter().export(format, outputStream);
+
+        assertEquals(3, rows);
+        verifyNoInteractions(repository);
+        return outputStream.toString(StandardCharsets.UTF_8);
+    }
+
+    private WifiPointExporter exporter() {
+        WifiPointRepository storeRepository = mock(WifiPointRepository.class);
+        when(storeRepository.findAll()).thenReturn(List.of(
+                wifiPoint("PILARES-002", "Pilares", 19.435, -99.14, "Iztapalapa"),
+                wifiPoint("FARO-001", "Faros", 19.42, -99.15, "Benito Juarez"),
+                wifiPoint("PILARES-001", "Pilares, \"Centro\"", 19.4326, -99.1332, "Iztapalapa")));
+        WifiPointStore store = new WifiPointStore(storeRepository, new WifiStoreProperties(),
+                new LoaderProperties(), new DefaultResourceLoader());
+        store.rebuild();
+        return new WifiPointExporter(store, repository, mock(EntityManager.class),
+                mock(PlatformTransactionManager.class), objectMapper);
+    }
+
+    private static WifiPoint wifiPoint(String id, String programa, double lat, double lon, String alcaldia) {
+        WifiPoint wifiPoint = new WifiPoint();
+        wifiPoint.setPuntoId(id);
+        wifiPoint.setPrograma(programa);
+        wifiPoint.setLatitud(lat);
+        wifiPoint.setLongitud(lon);
+        wifiPoint.setAlcaldia(alcaldia);
+        return wifiPoint;
+    }
+}
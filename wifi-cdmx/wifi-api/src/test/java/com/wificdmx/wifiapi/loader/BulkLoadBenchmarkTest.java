@@ -0,0 +1,164 @@
+package com.wificdmx.wifiapi.loader;
+
+import com.wificdmx.wifiapi.config.LoaderProperties;
+import com.wificdmx.wifiapi.model.WifiPoint;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Load benchmark for the bulk writers against a real PostgreSQL.
+ * Disabled unless {@code -Dbenchmark.db.url=jdbc:postgresql://localhost:5432/wifi_cdmx} is given
+ * (see {@code make benchmark-load}). Tables are created in a separate {@code wifi_benchmark}
+ * schema so application data is never touched.
+ *
+ * The row-by-row mode reproduces what {@code saveAll} does for an entity with an assigned ID:
+ * one SELECT to decide persist vs merge, then one INSERT per row.
+ */
+@EnabledIfSystemProperty(named = "benchmark.db.url", matches = ".+")
+@DisplayName("Bulk load benchmark")
+class BulkLoadBenchmarkTest {
+
+    private static final String EXCEL_FILE_PATH = "data/00-2025-wifi_gratuito_en_cdmx.xlsx";
+    private static final String SCHEMA = "wifi_benchmark";
+
+    private static List<WifiPoint> wifiPoints;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+    private LoaderProperties properties;
+
+    @BeforeAll
+    static void readDataset() throws Exception {
+        wifiPoints = new ArrayList<>();
+        new StreamingWifiPointReader().read(new ClassPathResource(EXCEL_FILE_PATH), row -> {
+            WifiPoint wifiPoint = WifiPointRowMapper.toWifiPoint(row);
+            if (wifiPoint != null) {
+                wifiPoints.add(wifiPoint);
+            }
+        });
+    }
+
+    @BeforeEach
+    void setUp() {
+        String url = System.getProperty("benchmark.db.url");
+        String separator = url.contains("?") ? "&" : "?";
+        // Pooled like the application, so writers do not open a new connection per chunk
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url + separator + "currentSchema=" + SCHEMA + "&reWriteBatchedInserts=true");
+        dataSource.setUsername(System.getProperty("benchmark.db.username", "admin"));
+        dataSource.setPassword(System.getProperty("benchmark.db.password", "admin123"));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        properties = new LoaderProperties();
+
+        jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + SCHEMA);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + SCHEMA + ".wifi_points");
+        jdbcTemplate.execute("""
+                CREATE TABLE %s.wifi_points (
+                    punto_id varchar(100) PRIMARY KEY,
+                    programa varchar(100) NOT NULL,
+                    latitud double precision NOT NULL,
+                    longitud double precision NOT NULL,
+                    alcaldia varchar(100) NOT NULL,
+                    alcaldia_key varchar(100),
+                    row_hash bigint,
+                    created_at timestamp,
+                    updated_at timestamp
+                )
+                """.formatted(SCHEMA));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    @DisplayName("Row-by-row SELECT + INSERT (saveAll equivalent)")
+    void benchmarkRowByRow() {
+        LoadMetrics metrics = LoadMetrics.start();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (WifiPoint wifiPoint : wifiPoints) {
+                jdbcTemplate.queryForList("SELECT punto_id FROM wifi_points WHERE punto_id = ?", wifiPoint.getPuntoId());
+                jdbcTemplate.update("""
+                        INSERT INTO wifi_points (punto_id, programa, latitud, longitud, alcaldia, created_at, updated_at)
+                        VALUES (?, ?, ?, ?, ?, now(), now())
+                        """, wifiPoint.getPuntoId(), wifiPoint.getPrograma(), wifiPoint.getLatitud(),
+                        wifiPoint.getLongitud(), wifiPoint.getAlcaldia());
+            }
+        });
+        report("row-by-row", metrics);
+    }
+
+    @Test
+    @DisplayName("JDBC batch insert, one chunk at a time")
+    void benchmarkJdbcBatch() {
+        LoadMetrics metrics = LoadMetrics.start();
+        writeSequentially(new JdbcBatchWifiPointWriter(jdbcTemplate, transactionManager));
+        report("jdbc-batch", metrics);
+    }
+
+    @Test
+    @DisplayName("COPY FROM STDIN, one chunk at a time")
+    void benchmarkCopy() {
+        LoadMetrics metrics = LoadMetrics.start();
+        writeSequentially(new CopyWifiPointWriter(dataSource, transactionManager));
+        report("copy", metrics);
+    }
+
+    @Test
+    @DisplayName("Import pipeline from the Excel file with parallel COPY writers")
+    void benchmarkPipeline() throws Exception {
+        LoadMetrics metrics = LoadMetrics.start();
+        new WifiPointImportPipeline(new StreamingWifiPointReader(),
+                new CopyWifiPointWriter(dataSource, transactionManager), properties)
+                .run(new ClassPathResource(EXCEL_FILE_PATH));
+        report("pipeline x" + properties.getWriterThreads(), metrics);
+    }
+
+    @Test
+    @DisplayName("Incremental sync of the Excel file with about 1% of the rows changed")
+    void benchmarkSync() throws Exception {
+        writeSequentially(new CopyWifiPointWriter(dataSource, transactionManager));
+        jdbcTemplate.update("UPDATE wifi_points SET row_hash = 0 WHERE hashtext(punto_id) % 100 = 0");
+        jdbcTemplate.update("INSERT INTO wifi_points (punto_id, programa, latitud, longitud, alcaldia) " +
+                "VALUES ('REMOVED-001', 'Pilares', 19.4, -99.1, 'Tlalpan')");
+
+        LoadMetrics metrics = LoadMetrics.start();
+        SyncResult result = new WifiPointSynchronizer(new StreamingWifiPointReader(), jdbcTemplate,
+                transactionManager, properties).sync(new ClassPathResource(EXCEL_FILE_PATH), new ImportProgress());
+        report("sync", metrics);
+        System.out.printf("[benchmark] sync          %d unchanged, %d upserted, %d deleted%n",
+                result.unchanged(), result.upserted(), result.deleted());
+        assertEquals(1, result.deleted());
+    }
+
+    private void writeSequentially(WifiPointBulkWriter writer) {
+        for (int from = 0; from < wifiPoints.size(); from += properties.getBatchSize()) {
+            writer.writeChunk(wifiPoints.subList(from, Math.min(wifiPoints.size(), from + properties.getBatchSize())));
+        }
+    }
+
+    private void report(String mode, LoadMetrics metrics) {
+        long elapsed = metrics.elapsedMillis();
+        Integer stored = jdbcTemplate.queryForObject("SELECT count(*) FROM wifi_points", Integer.class);
+        System.out.printf("[benchmark] %-13s %6d rows in %6d ms (%d rows/s)%n",
+                mode, stored, elapsed, metrics.rowsPerSecond(wifiPoints.size()));
+        assertEquals(wifiPoints.size(), stored);
+    }
+}
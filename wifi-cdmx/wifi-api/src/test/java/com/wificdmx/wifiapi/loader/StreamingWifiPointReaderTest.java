@@ -0,0 +1,86 @@
+package com.wificdmx.wifiapi.loader;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StreamingWifiPointReader.
+ * The bundled dataset is read with both readers and the results compared row by row.
+ */
+@DisplayName("StreamingWifiPointReader Tests")
+class StreamingWifiPointReaderTest {
+
+    private static final String EXCEL_FILE_PATH = "data/00-2025-wifi_gratuito_en_cdmx.xlsx";
+
+    @Test
+    @DisplayName("Should produce the same rows as the workbook reader")
+    void testMatchesWorkbookReader() throws Exception {
+        // Arrange
+        List<RawWifiPointRow> streamed = new ArrayList<>();
+        List<RawWifiPointRow> expected = new ArrayList<>();
+
+        // Act
+        long streamedCount = new StreamingWifiPointReader().read(new ClassPathResource(EXCEL_FILE_PATH), streamed::add);
+        long expectedCount = new WorkbookWifiPointReader().read(new ClassPathResource(EXCEL_FILE_PATH), expected::add);
+
+        // Assert
+        assertTrue(streamedCount > 0);
+        assertEquals(expectedCount, streamedCount);
+        assertEquals(expected.size(), streamed.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), streamed.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Should stop reading and rethrow when the consumer fails")
+    void testConsumerFailureAbortsRead() {
+        for (WifiPointReader reader : List.of(new StreamingWifiPointReader(), new WorkbookWifiPointReader())) {
+            // Arrange
+            IllegalStateException failure = new IllegalStateException("consumer failed");
+            List<RawWifiPointRow> rows = new ArrayList<>();
+
+            // Act
+            IllegalStateException exception = assertThrows(IllegalStateException.class,
+                    () -> reader.read(new ClassPathResource(EXCEL_FILE_PATH), row -> {
+                        rows.add(row);
+                        throw failure;
+                    }));
+
+            // Assert
+            assertSame(failure, exception, reader.getName());
+            assertEquals(1, rows.size(), reader.getName());
+        }
+    }
+
+    @Test
+    @DisplayName("Should normalize alcaldia names to title case")
+    void testNormalizeAlcaldia() {
+        assertEquals("Iztapalapa", WifiPointRowMapper.normalizeAlcaldia("IZTAPALAPA"));
+        assertEquals("Miguel Hidalgo", WifiPointRowMapper.normalizeAlcaldia("  MIGUEL   HIDALGO "));
+    }
+
+    @Test
+    @DisplayName("Should build the same alcaldia key for every spelling of a name")
+    void testAlcaldiaKey() {
+        assertEquals("alvaro obregon", WifiPointRowMapper.alcaldiaKey("ÁLVARO  OBREGÓN"));
+        assertEquals("alvaro obregon", WifiPointRowMapper.alcaldiaKey(" Alvaro Obregon "));
+        assertEquals("cuauhtemoc", WifiPointRowMapper.alcaldiaKey("Cuauhtémoc"));
+        assertEquals("cuauhtemoc", WifiPointRowMapper.toWifiPoint("ID-1", "Pilares", 19.4, -99.1, "CUAUHTEMOC").getAlcaldiaKey());
+    }
+
+    @Test
+    @DisplayName("Should reject rows with missing values")
+    void testRejectIncompleteRows() {
+        assertNull(WifiPointRowMapper.toWifiPoint(" ", "Pilares", 19.4, -99.1, "Iztapalapa"));
+        assertNull(WifiPointRowMapper.toWifiPoint("PILARES-001", "Pilares", null, -99.1, "Iztapalapa"));
+        assertNull(WifiPointRowMapper.toWifiPoint("PILARES-001", "Pilares", 19.4, -99.1, null));
+        assertNotNull(WifiPointRowMapper.toWifiPoint("PILARES-001", "Pilares", 19.4, -99.1, "Iztapalapa"));
+    }
+}
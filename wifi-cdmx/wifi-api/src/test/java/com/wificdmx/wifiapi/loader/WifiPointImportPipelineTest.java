@@ -0,0 +1,175 @@
+package com.wificdmx.wifiapi.loader;
+
+import com.wificdmx.wifiapi.config.LoaderProperties;
+import com.wificdmx.wifiapi.model.WifiPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for WifiPointImportPipeline.
+ * The reader emits synthetic rows and the mocked writer records what it receives.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WifiPointImportPipeline Tests")
+class WifiPointImportPipelineTest {
+
+    private static final Resource RESOURCE = new ByteArrayResource(new byte[0]);
+
+    @Mock
+    private WifiPointReader reader;
+
+    @Mock
+    private WifiPointBulkWriter writer;
+
+    private LoaderProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LoaderProperties();
+        properties.setBatchSize(10);
+        properties.setWriterThreads(3);
+        properties.setQueueCapacity(2);
+    }
+
+    @Test
+    @DisplayName("Should write every valid row exactly once and skip invalid rows")
+    void testWritesEveryValidRow() throws Exception {
+        // Arrange
+        when(reader.read(any(), any())).thenAnswer(invocation -> {
+            Consumer<RawWifiPointRow> consumer = invocation.getArgument(1);
+            for (int i = 0; i < 1000; i++) {
+                // Every 100th row has no alcaldia
+                String alcaldia = i % 100 == 0 ? null : "IZTAPALAPA";
+                consumer.accept(new RawWifiPointRow(i + 2, 1001, "ID-" + i, "Pilares", 19.4, -99.1, alcaldia));
+            }
+            return 1000L;
+        });
+        Set<String> written = ConcurrentHashMap.newKeySet();
+        when(writer.writeChunk(anyList())).thenAnswer(invocation -> {
+            List<WifiPoint> chunk = invocation.getArgument(0);
+            assertTrue(chunk.size() <= 10);
+            chunk.forEach(wifiPoint -> {
+                assertEquals("Iztapalapa", wifiPoint.getAlcaldia());
+                assertTrue(written.add(wifiPoint.getPuntoId()), "duplicate " + wifiPoint.getPuntoId());
+            });
+            return chunk.size();
+        });
+
+        ImportProgress progress = new ImportProgress();
+
+        // Act
+        long result = new WifiPointImportPipeline(reader, writer, properties).run(RESOURCE, progress);
+
+        // Assert
+        assertEquals(990, result);
+        assertEquals(1000, progress.getExpectedRows());
+        assertEquals(990, progress.getProcessedRows());
+        assertEquals(99, progress.percent());
+        assertEquals(990, written.size());
+        assertFalse(written.contains("ID-0"));
+    }
+
+    @Test
+    @DisplayName("Should write repeated IDs once, keeping the first row, even across chunks")
+    void testSkipsDuplicateIds() throws Exception {
+        // Arrange - IDs repeat every 100 rows, so most repeats land in another chunk
+        when(reader.read(any(), any())).thenAnswer(invocation -> {
+            Consumer<RawWifiPointRow> consumer = invocation.getArgument(1);
+            for (int i = 0; i < 300; i++) {
+                consumer.accept(new RawWifiPointRow(i + 2, 301, "ID-" + (i % 100), "Pilares", 19.4 + i * 1e-4,
+                        -99.1, "Tlalpan"));
+            }
+            return 300L;
+        });
+        Set<String> written = ConcurrentHashMap.newKeySet();
+        when(writer.writeChunk(anyList())).thenAnswer(invocation -> {
+            List<WifiPoint> chunk = invocation.getArgument(0);
+            chunk.forEach(wifiPoint -> {
+                assertTrue(written.add(wifiPoint.getPuntoId()), "duplicate " + wifiPoint.getPuntoId());
+                assertTrue(wifiPoint.getLatitud() < 19.41, "not the first row of " + wifiPoint.getPuntoId());
+            });
+            return chunk.size();
+        });
+
+        // Act
+        long result = new WifiPointImportPipeline(reader, writer, properties).run(RESOURCE);
+
+        // Assert
+        assertEquals(100, result);
+        assertEquals(100, written.size());
+    }
+
+    @Test
+    @DisplayName("Should propagate writer failures")
+    void testPropagatesWriterFailure() throws Exception {
+        // Arrange
+        when(reader.read(any(), any())).thenAnswer(invocation -> {
+            Consumer<RawWifiPointRow> consumer = invocation.getArgument(1);
+            for (int i = 0; i < 1000; i++) {
+                consumer.accept(new RawWifiPointRow(i + 2, 1001, "ID-" + i, "Pilares", 19.4, -99.1, "Tlalpan"));
+            }
+            return 1000L;
+        });
+        when(writer.writeChunk(anyList())).thenThrow(new IllegalStateException("COPY into wifi_points failed"));
+
+        // Act & Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> new WifiPointImportPipeline(reader, writer, properties).run(RESOURCE));
+        assertEquals("COPY into wifi_points failed", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should stop parsing the file soon after a writer fails")
+    void testWriterFailureStopsParser() throws Exception {
+        // Arrange - the bundled file through the in-memory workbook reader, which no interrupted I/O can stop
+        AtomicLong parsed = new AtomicLong();
+        when(reader.read(any(), any())).thenAnswer(invocation -> {
+            Consumer<RawWifiPointRow> consumer = invocation.getArgument(1);
+            return new WorkbookWifiPointReader().read(invocation.getArgument(0), row -> {
+                parsed.incrementAndGet();
+                consumer.accept(row);
+            });
+        });
+        when(writer.writeChunk(anyList())).thenThrow(new IllegalStateException("COPY into wifi_points failed"));
+        WifiPointImportPipeline pipeline = new WifiPointImportPipeline(reader, writer, properties);
+
+        // Act
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> pipeline.run(new ClassPathResource("data/00-2025-wifi_gratuito_en_cdmx.xlsx")));
+
+        // Assert - the queues hold a few chunks of 10 rows; the file has more than 35,000
+        assertEquals("COPY into wifi_points failed", exception.getMessage());
+        assertTrue(parsed.get() < 1000, "parsed " + parsed.get() + " rows");
+    }
+
+    @Test
+    @DisplayName("Should propagate reader failures")
+    void testPropagatesReaderFailure() throws Exception {
+        // Arrange
+        when(reader.read(any(), any())).thenThrow(new IOException("Cannot parse Excel file"));
+
+        // Act & Assert
+        IOException exception = assertThrows(IOException.class,
+                () -> new WifiPointImportPipeline(reader, writer, properties).run(RESOURCE));
+        assertEquals("Cannot parse Excel file", exception.getMessage());
+    }
+}
@@ -0,0 +1,196 @@
+package com.wificdmx.wifiapi.loader;
+
+import com.wificdmx.wifiapi.config.LoaderProperties;
+import com.wificdmx.wifiapi.model.WifiPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for WifiPointSynchronizer.
+ * Stored hashes come from a mocked JdbcTemplate and the statements issued are captured.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WifiPointSynchronizer Tests")
+class WifiPointSynchronizerTest {
+
+    @Mock
+    private WifiPointReader reader;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private WifiPointSynchronizer synchronizer;
+
+    private final List<Object> upserted = new ArrayList<>();
+    private final List<Object> deleted = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        synchronizer = new WifiPointSynchronizer(reader, jdbcTemplate, transactionManager, new LoaderProperties());
+    }
+
+    @Test
+    @DisplayName("Should upsert only new and changed rows and delete rows missing from the file")
+    void testSyncAppliesOnlyTheDelta() throws Exception {
+        // Arrange
+        RawWifiPointRow unchanged = new RawWifiPointRow(2, 5, "PILARES-001", "Pilares", 19.4326, -99.1332, "IZTAPALAPA");
+        RawWifiPointRow changed = new RawWifiPointRow(3, 5, "PILARES-002", "Pilares", 19.4350, -99.1400, "IZTAPALAPA");
+        RawWifiPointRow added = new RawWifiPointRow(4, 5, "FARO-001", "Faros", 19.4200, -99.1200, "TLALPAN");
+        RawWifiPointRow duplicate = new RawWifiPointRow(5, 5, "FARO-001", "Faros", 19.4201, -99.1201, "TLALPAN");
+
+        stubStoredHashes(List.of(
+                new Object[]{"PILARES-001", WifiPointRowMapper.toWifiPoint(unchanged).getRowHash()},
+                new Object[]{"PILARES-002", 42L},
+                new Object[]{"REMOVED-001", 7L}));
+        stubReader(List.of(unchanged, changed, added, duplicate));
+        captureBatches();
+        ImportProgress progress = new ImportProgress();
+
+        // Act
+        SyncResult result = synchronizer.sync(new ByteArrayResource(new byte[0]), progress);
+
+        // Assert
+        assertEquals(new SyncResult(1, 2, 1), result);
+        assertTrue(result.changed());
+        assertEquals(List.of("PILARES-002", "FARO-001"),
+                upserted.stream().map(wifiPoint -> ((WifiPoint) wifiPoint).getPuntoId()).toList());
+        assertEquals(List.of("REMOVED-001"), deleted);
+        assertEquals(3, progress.getProcessedRows());
+    }
+
+    @Test
+    @DisplayName("Should issue no statements when nothing changed")
+    void testSyncWithoutChanges() throws Exception {
+        // Arrange
+        RawWifiPointRow row = new RawWifiPointRow(2, 2, "PILARES-001", "Pilares", 19.4326, -99.1332, "Iztapalapa");
+        stubStoredHashes(List.<Object[]>of(new Object[]{"PILARES-001", WifiPointRowMapper.toWifiPoint(row).getRowHash()}));
+        stubReader(List.of(row));
+
+        // Act
+        SyncResult result = synchronizer.sync(new ByteArrayResource(new byte[0]), new ImportProgress());
+
+        // Assert
+        assertEquals(new SyncResult(1, 0, 0), result);
+        assertFalse(result.changed());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Should reject an empty file without deleting the stored rows")
+    void testSyncRejectsEmptyFile() throws Exception {
+        // Arrange
+        stubStoredHashes(List.<Object[]>of(new Object[]{"PILARES-001", 1L}, new Object[]{"PILARES-002", 2L}));
+        stubReader(List.of());
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class,
+                () -> synchronizer.sync(new ByteArrayResource(new byte[0]), new ImportProgress()));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Should reject a file that would delete more than the allowed share of the stored rows")
+    void testSyncRejectsTruncatedFile() throws Exception {
+        // Arrange
+        RawWifiPointRow kept = new RawWifiPointRow(2, 2, "PILARES-001", "Pilares", 19.4326, -99.1332, "IZTAPALAPA");
+        stubStoredHashes(List.of(
+                new Object[]{"PILARES-001", WifiPointRowMapper.toWifiPoint(kept).getRowHash()},
+                new Object[]{"PILARES-002", 2L},
+                new Object[]{"PILARES-003", 3L}));
+        stubReader(List.of(kept));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class,
+                () -> synchronizer.sync(new ByteArrayResource(new byte[0]), new ImportProgress()));
+        verify(jdbcTemplate, never()).batchUpdate(startsWith("DELETE"), anyCollection(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Should stop reading and rethrow the original error when an upsert fails")
+    void testSyncPropagatesUpsertFailure() throws Exception {
+        // Arrange - the bundled file through the real reader, the second batch failing
+        LoaderProperties properties = new LoaderProperties();
+        properties.setBatchSize(100);
+        WifiPointSynchronizer synchronizer = new WifiPointSynchronizer(new StreamingWifiPointReader(), jdbcTemplate,
+                transactionManager, properties);
+        stubStoredHashes(List.of());
+        DataIntegrityViolationException failure = new DataIntegrityViolationException("upsert failed");
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any()))
+                .thenReturn(new int[0][0])
+                .thenThrow(failure);
+        ImportProgress progress = new ImportProgress();
+
+        // Act
+        DataIntegrityViolationException exception = assertThrows(DataIntegrityViolationException.class,
+                () -> synchronizer.sync(new ClassPathResource("data/00-2025-wifi_gratuito_en_cdmx.xlsx"), progress));
+
+        // Assert
+        assertSame(failure, exception);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+        assertEquals(199, progress.getProcessedRows());
+    }
+
+    @Test
+    @DisplayName("Should give the same hash to equal rows and a different one when a value changes")
+    void testRowHash() {
+        WifiPoint first = WifiPointRowMapper.toWifiPoint("PILARES-001", "Pilares", 19.4326, -99.1332, "IZTAPALAPA");
+        WifiPoint same = WifiPointRowMapper.toWifiPoint("PILARES-001", " Pilares ", 19.4326, -99.1332, "Iztapalapa");
+        WifiPoint moved = WifiPointRowMapper.toWifiPoint("PILARES-001", "Pilares", 19.4327, -99.1332, "Iztapalapa");
+
+        assertEquals(first.getRowHash(), same.getRowHash());
+        assertNotEquals(first.getRowHash(), moved.getRowHash());
+    }
+
+    private void stubStoredHashes(List<Object[]> rows) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Object[] row : rows) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getString(1)).thenReturn((String) row[0]);
+                when(rs.getObject(2, Long.class)).thenReturn((Long) row[1]);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    private void stubReader(List<RawWifiPointRow> rows) throws Exception {
+        when(reader.read(any(), any())).thenAnswer(invocation -> {
+            Consumer<RawWifiPointRow> consumer = invocation.getArgument(1);
+            rows.forEach(consumer);
+            return (long) rows.size();
+        });
+    }
+
+    private void captureBatches() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any())).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            List<?> batch = new ArrayList<>((Collection<?>) invocation.getArgument(1));
+            (sql.startsWith("DELETE") ? deleted : upserted).addAll(batch);
+            return new int[0][0];
+        });
+    }
+}
@@ -0,0 +1,233 @@
+package com.wificdmx.wifiapi.service;
+
+import com.wificdmx.wifiapi.config.LoaderProperties;
+import com.wificdmx.wifiapi.loader.ImportProgress;
+import com.wificdmx.wifiapi.loader.SyncResult;
+import com.wificdmx.wifiapi.loader.WifiPointImportPipeline;
+import com.wificdmx.wifiapi.loader.WifiPointSynchronizer;
+import com.wificdmx.wifiapi.repository.WifiPointRepository;
+import com.wificdmx.wifiapi.store.WifiPointStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DataLoaderService.
+ * The import pipeline is mocked; only the load state transitions are verified.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DataLoaderService Tests")
+class DataLoaderServiceTest {
+
+    @Mock
+    private WifiPointRepository wifiPointRepository;
+
+    @Mock
+    private WifiPointImportPipeline importPipeline;
+
+    @Mock
+    private WifiPointSynchronizer synchronizer;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private LoaderProperties loaderProperties = new LoaderProperties();
+
+    @Spy
+    private TaskExecutor taskExecutor = new SyncTaskExecutor();
+
+    @Mock
+    private WifiPointStore wifiPointStore;
+
+    @Spy
+    private ResourceLoader resourceLoader = new DefaultResourceLoader();
+
+    @InjectMocks
+    private DataLoaderService dataLoaderService;
+
+    @Test
+    @DisplayName("Should be PENDING before the load starts")
+    void testPendingBeforeLoad() {
+        assertEquals(DataLoadState.PENDING, dataLoaderService.getState());
+        assertEquals(0, dataLoaderService.getProgressPercent());
+    }
+
+    @Test
+    @DisplayName("Should skip the import when the database already has data and sync is disabled")
+    void testSkipWhenDataPresent() throws Exception {
+        // Arrange
+        loaderProperties.setExistingData("skip");
+        when(wifiPointRepository.count()).thenReturn(35344L);
+
+        // Act
+        dataLoaderService.loadData();
+
+        // Assert
+        assertEquals(DataLoadState.READY, dataLoaderService.getState());
+        assertEquals(100, dataLoaderService.getProgressPercent());
+        verify(importPipeline, never()).run(any(), any());
+        verify(synchronizer, never()).sync(any(), any());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    @DisplayName("Should synchronize when the database already has data")
+    void testSyncWhenDataPresent() throws Exception {
+        // Arrange
+        when(wifiPointRepository.count()).thenReturn(35344L);
+        when(synchronizer.sync(any(), any(ImportProgress.class))).thenReturn(new SyncResult(35300, 40, 4));
+
+        // Act
+        dataLoaderService.loadData();
+
+        // Assert
+        assertEquals(DataLoadState.READY, dataLoaderService.getState());
+        verify(importPipeline, never()).run(any(), any());
+        verify(eventPublisher).publishEvent(new WifiPointsLoadedEvent(44L));
+        verify(wifiPointStore).saveSnapshot(anyString());
+    }
+
+    @Test
+    @DisplayName("Should skip the sync when the dataset was restored from a snapshot of the current file")
+    void testSkipSyncWithCurrentSnapshot() throws Exception {
+        // Arrange
+        when(wifiPointRepository.count()).thenReturn(35344L);
+        when(wifiPointStore.isSnapshotOf(anyString())).thenReturn(true);
+
+        // Act
+        dataLoaderService.loadData();
+
+        // Assert
+        assertEquals(DataLoadState.READY, dataLoaderService.getState());
+        verify(synchronizer, never()).sync(any(), any());
+        verify(wifiPointStore, never()).saveSnapshot(any());
+    }
+
+    @Test
+    @DisplayName("Should keep the data and not notify listeners when the sync finds no changes")
+    void testSyncWithoutChanges() throws Exception {
+        // Arrange
+        when(wifiPointRepository.count()).thenReturn(35344L);
+        when(synchronizer.sync(any(), any(ImportProgress.class))).thenReturn(new SyncResult(35344, 0, 0));
+
+        // Act
+        dataLoaderService.loadData();
+
+        // Assert
+        assertEquals(DataLoadState.READY, dataLoaderService.getState());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+        verify(wifiPointRepository, never()).deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Should report LOADING while importing and publish an event when done")
+    void testLoadingThenReady() throws Exception {
+        // Arrange
+        when(wifiPointRepository.count()).thenReturn(0L);
+        when(importPipeline.run(any(), any(ImportProgress.class))).thenAnswer(invocation -> {
+            assertEquals(DataLoadState.LOADING, dataLoaderService.getState());
+            return 35344L;
+        });
+
+        // Act
+        dataLoaderService.loadData();
+
+        // Assert
+        assertEquals(DataLoadState.READY, dataLoaderService.getState());
+        verify(eventPublisher).publishEvent(new WifiPointsLoadedEvent(35344L));
+    }
+
+    @Test
+    @DisplayName("Should discard the partial load and report FAILED when the import fails")
+    void testFailedLoad() throws Exception {
+        // Arrange
+        when(wifiPointRepository.count()).thenReturn(0L);
+        when(importPipeline.run(any(), any(ImportProgress.class))).thenThrow(new IOException("Cannot parse Excel file"));
+
+        // Act
+        dataLoaderService.loadData();
+
+        // Assert
+        assertEquals(DataLoadState.FAILED, dataLoaderService.getState());
+        verify(wifiPointRepository).deleteAllInBatch();
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    @DisplayName("Should synchronize on reload even when sync is disabled at startup, and stay READY throughout")
+    void testReloadKeepsServing() throws Exception {
+        // Arrange
+        loaderProperties.setExistingData("skip");
+        when(wifiPointRepository.count()).thenReturn(35344L);
+        dataLoaderService.loadData();
+        when(synchronizer.sync(any(), any(ImportProgress.class))).thenAnswer(invocation -> {
+            assertEquals(DataLoadState.READY, dataLoaderService.getState());
+            assertTrue(dataLoaderService.isRunning());
+            return new SyncResult(35300, 40, 4);
+        });
+
+        // Act
+        boolean started = dataLoaderService.reload();
+
+        // Assert
+        assertTrue(started);
+        assertFalse(dataLoaderService.isRunning());
+        assertEquals(DataLoadState.READY, dataLoaderService.getState());
+        verify(eventPublisher).publishEvent(new WifiPointsLoadedEvent(44L));
+    }
+
+    @Test
+    @DisplayName("Should keep the served data READY when a reload fails")
+    void testFailedReload() throws Exception {
+        // Arrange
+        when(wifiPointRepository.count()).thenReturn(35344L);
+        when(synchronizer.sync(any(), any(ImportProgress.class)))
+                .thenReturn(new SyncResult(35344, 0, 0))
+                .thenThrow(new IOException("Cannot parse Excel file"));
+        dataLoaderService.loadData();
+
+        // Act
+        dataLoaderService.reload();
+
+        // Assert
+        assertEquals(DataLoadState.READY, dataLoaderService.getState());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    @DisplayName("Should reject a reload while another load is running")
+    void testReloadWhileRunning() throws Exception {
+        // Arrange
+        when(wifiPointRepository.count()).thenReturn(35344L);
+        boolean[] nested = new boolean[1];
+        when(synchronizer.sync(any(), any(ImportProgress.class))).thenAnswer(invocation -> {
+            nested[0] = dataLoaderService.reload();
+            return new SyncResult(35344, 0, 0);
+        });
+
+        // Act
+        boolean started = dataLoaderService.reload();
+
+        // Assert
+        assertTrue(started);
+        assertFalse(nested[0]);
+        verify(synchronizer, times(1)).sync(any(), any());
+    }
+}
@@ -1,28 +1,52 @@
 package com.wificdmx.wifiapi.service;
 
+import com.wificdmx.wifiapi.cache.CountCache;
+import com.wificdmx.wifiapi.cache.NearbyResultCache;
+import com.wificdmx.wifiapi.cache.WifiPointCache;
+import com.wificdmx.wifiapi.config.LoaderProperties;
+import com.wificdmx.wifiapi.config.WifiCacheProperties;
+import com.wificdmx.wifiapi.config.WifiStoreProperties;
+import com.wificdmx.wifiapi.dto.NearbyBatchResultDTO;
+import com.wificdmx.wifiapi.dto.NearbyOriginDTO;
+import com.wificdmx.wifiapi.dto.WifiAreaStatisticsDTO;
+import com.wificdmx.wifiapi.dto.WifiClusterResponseDTO;
+import com.wificdmx.wifiapi.dto.WifiDensityDTO;
+import com.wificdmx.wifiapi.dto.WifiPointBatchResponseDTO;
 import com.wificdmx.wifiapi.dto.WifiPointDTO;
 import com.wificdmx.wifiapi.dto.WifiPointResponseDTO;
+import com.wificdmx.wifiapi.dto.WifiPointWithinResponseDTO;
+import com.wificdmx.wifiapi.dto.WifiStatisticsDTO;
 import com.wificdmx.wifiapi.exception.ResourceNotFoundException;
 import com.wificdmx.wifiapi.model.WifiPoint;
 import com.wificdmx.wifiapi.repository.WifiPointRepository;
+import com.wificdmx.wifiapi.search.NearbySearchEngine;
+import com.wificdmx.wifiapi.store.WifiPointStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -37,6 +61,23 @@ class WifiPointServiceTest {
     @Mock
     private WifiPointRepository wifiPointRepository;
 
+    @Mock
+    private NearbySearchEngine nearbySearchEngine;
+
+    @Spy
+    private WifiPointCache wifiPointCache = new WifiPointCache(new WifiCacheProperties());
+
+    @Spy
+    private NearbyResultCache nearbyResultCache = new NearbyResultCache(nearbyCacheDisabled());
+
+    @Spy
+    private CountCache countCache = new CountCache(new WifiCacheProperties());
+
+    // Never built here, so queries go to the mocked repository
+    @Spy
+    private WifiPointStore wifiPointStore = new WifiPointStore(mock(WifiPointRepository.class), new WifiStoreProperties(),
+            new LoaderProperties(), new DefaultResourceLoader());
+
     @InjectMocks
     private WifiPointService wifiPointService;
 
@@ -73,9 +114,10 @@ class WifiPointServiceTest {
     void testFindAll() {
         // Arrange
         List<WifiPoint> wifiPoints = Arrays.asList(wifiPoint1, wifiPoint2, wifiPoint3);
-        Page<WifiPoint> page = new PageImpl<>(wifiPoints, PageRequest.of(0, 20), wifiPoints.size());
 
-        when(wifiPointRepository.findAll(any(Pageable.class))).thenReturn(page);
+        when(wifiPointRepository.findAllInIdOrder(any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(wifiPoints, PageRequest.of(0, 20), false));
+        when(wifiPointRepository.count()).thenReturn(3L);
 
         // Act
         WifiPointResponseDTO response = wifiPointService.findAll(PageRequest.of(0, 20));
@@ -89,7 +131,362 @@ class WifiPointServiceTest {
         assertTrue(response.isFirst());
         assertTrue(response.isLast());
 
-        verify(wifiPointRepository, times(1)).findAll(any(Pageable.class));
+        verify(wifiPointRepository, times(1)).findAllInIdOrder(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should read ID-ordered pages with the byte-order query and keep other sorts as requested")
+    void testFindAllFallbackOrder() {
+        // Arrange
+        Pageable byId = PageRequest.of(1, 2, Sort.by("puntoId"));
+        Pageable byPrograma = PageRequest.of(1, 2, Sort.by("programa"));
+        when(wifiPointRepository.findAllInIdOrder(PageRequest.of(1, 2)))
+                .thenReturn(new SliceImpl<>(List.of(wifiPoint3), PageRequest.of(1, 2), false));
+        when(wifiPointRepository.findAllBy(byPrograma))
+                .thenReturn(new SliceImpl<>(List.of(wifiPoint1), byPrograma, false));
+
+        // Act
+        WifiPointResponseDTO idOrder = wifiPointService.findAll(byId, false);
+        WifiPointResponseDTO programaOrder = wifiPointService.findAll(byPrograma, false);
+
+        // Assert - the ID-order query sorts in SQL, so it gets the page without the sort
+        assertEquals("FARO-001", idOrder.getContent().get(0).getPuntoId());
+        assertEquals("PILARES-001", programaOrder.getContent().get(0).getPuntoId());
+        verify(wifiPointRepository, never()).findAllBy(byId);
+    }
+
+    @Test
+    @DisplayName("Should count all WiFi points once and reuse the total for later pages")
+    void testFindAllCachesCount() {
+        // Arrange
+        when(wifiPointRepository.findAllInIdOrder(any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(wifiPoint1, wifiPoint2), PageRequest.of(0, 2), true));
+        when(wifiPointRepository.count()).thenReturn(3L);
+
+        // Act
+        wifiPointService.findAll(PageRequest.of(0, 2));
+        WifiPointResponseDTO response = wifiPointService.findAll(PageRequest.of(0, 2));
+
+        // Assert
+        assertEquals(3, response.getTotalElements());
+        verify(wifiPointRepository, times(1)).count();
+
+        // A reload invalidates the cached total
+        countCache.invalidateAll();
+        wifiPointService.findAll(PageRequest.of(0, 2));
+        verify(wifiPointRepository, times(2)).count();
+    }
+
+    @Test
+    @DisplayName("Should return a page without totals and without counting when count is disabled")
+    void testFindAllWithoutTotal() {
+        // Arrange
+        when(wifiPointRepository.findAllInIdOrder(any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(wifiPoint1, wifiPoint2), PageRequest.of(0, 2), true));
+
+        // Act
+        WifiPointResponseDTO response = wifiPointService.findAll(PageRequest.of(0, 2), false);
+
+        // Assert
+        assertEquals(2, response.getContent().size());
+        assertNull(response.getTotalElements());
+        assertNull(response.getTotalPages());
+        assertEquals(0, response.getCurrentPage());
+        assertTrue(response.isFirst());
+        assertFalse(response.isLast());
+        verify(wifiPointRepository, never()).count();
+    }
+
+    @Test
+    @DisplayName("Should page by keyset and return a cursor that continues after the last ID")
+    void testFindAllAfter() {
+        // Arrange - one row more than the page size means another page follows
+        when(wifiPointRepository.findAfterInIdOrder("", 3))
+                .thenReturn(Arrays.asList(wifiPoint1, wifiPoint2, wifiPoint3));
+        when(wifiPointRepository.findAfterInIdOrder("PILARES-002", 3))
+                .thenReturn(List.of(wifiPoint3));
+
+        // Act
+        WifiPointResponseDTO firstPage = wifiPointService.findAllAfter("", 2);
+        WifiPointResponseDTO lastPage = wifiPointService.findAllAfter(firstPage.getNextCursor(), 2);
+
+        // Assert
+        assertEquals(2, firstPage.getContent().size());
+        assertTrue(firstPage.isFirst());
+        assertFalse(firstPage.isLast());
+        assertNotNull(firstPage.getNextCursor());
+        assertNull(firstPage.getTotalElements());
+
+        assertEquals(1, lastPage.getContent().size());
+        assertEquals("FARO-001", lastPage.getContent().get(0).getPuntoId());
+        assertFalse(lastPage.isFirst());
+        assertTrue(lastPage.isLast());
+        assertNull(lastPage.getNextCursor());
+        verify(wifiPointRepository, never()).count();
+    }
+
+    @Test
+    @DisplayName("Should reject an invalid keyset cursor")
+    void testFindAllAfterInvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> wifiPointService.findAllAfter("not a cursor!", 20));
+        verifyNoInteractions(wifiPointRepository);
+    }
+
+    @Test
+    @DisplayName("Should serve ID, batch, list, alcaldia and viewport queries from the store once it is built")
+    void testServedFromStore() {
+        // Arrange - the store loads through its own repository, so store hits are told apart from queries
+        WifiPointRepository storeRepository = mock(WifiPointRepository.class);
+        when(storeRepository.findAll()).thenReturn(Arrays.asList(wifiPoint1, wifiPoint2, wifiPoint3));
+        WifiPointStore store = new WifiPointStore(storeRepository, new WifiStoreProperties(),
+                new LoaderProperties(), new DefaultResourceLoader());
+        store.rebuild();
+        WifiPointService wifiPointService = new WifiPointService(wifiPointRepository, nearbySearchEngine,
+                wifiPointCache, nearbyResultCache, countCache, store);
+
+        // Act
+        WifiPointDTO byId = wifiPointService.findById("PILARES-002");
+        WifiPointResponseDTO all = wifiPointService.findAll(PageRequest.of(0, 2, Sort.by("puntoId")));
+        WifiPointResponseDTO byAlcaldia = wifiPointService.findByAlcaldia("IZTAPALAPA", PageRequest.of(0, 20));
+        WifiPointResponseDTO firstKeyset = wifiPointService.findAllAfter("", 2);
+        WifiPointResponseDTO secondKeyset = wifiPointService.findAllAfter(firstKeyset.getNextCursor(), 2);
+        WifiPointBatchResponseDTO batch = wifiPointService.findByIds(List.of("PILARES-002", "NONEXISTENT-ID", "FARO-001"));
+        WifiPointWithinResponseDTO within = wifiPointService.findWithin(19.43, -99.14, 19.44, -99.13, 10);
+
+        // Assert
+        assertEquals("PILARES-002", byId.getPuntoId());
+        assertEquals(3, all.getTotalElements());
+        assertEquals(List.of("FARO-001", "PILARES-001"), all.getContent().stream().map(WifiPointDTO::getPuntoId).toList());
+        assertFalse(all.isLast());
+        assertEquals(2, byAlcaldia.getTotalElements());
+        assertEquals("PILARES-002", secondKeyset.getContent().get(0).getPuntoId());
+        assertTrue(secondKeyset.isLast());
+        assertThrows(ResourceNotFoundException.class, () -> wifiPointService.findById("NONEXISTENT-ID"));
+        assertEquals(List.of("PILARES-002", "FARO-001"), batch.getContent().stream().map(WifiPointDTO::getPuntoId).toList());
+        assertEquals(List.of("NONEXISTENT-ID"), batch.getMissing());
+        assertEquals(List.of("PILARES-001", "PILARES-002"),
+                within.getContent().stream().map(WifiPointDTO::getPuntoId).sorted().toList());
+        assertFalse(within.isTruncated());
+        verifyNoInteractions(wifiPointRepository);
+    }
+
+    @Test
+    @DisplayName("Should look up a batch of IDs with one query, in request order, reporting missing IDs")
+    void testFindByIds() {
+        // Arrange - the database returns rows in its own order
+        when(wifiPointRepository.findByPuntoIdIn(any(String[].class)))
+                .thenReturn(Arrays.asList(wifiPoint1, wifiPoint3));
+
+        // Act
+        WifiPointBatchResponseDTO response = wifiPointService.findByIds(
+                List.of("FARO-001", "NONEXISTENT-ID", "PILARES-001", "FARO-001"));
+
+        // Assert
+        assertEquals(List.of("FARO-001", "PILARES-001"),
+                response.getContent().stream().map(WifiPointDTO::getPuntoId).toList());
+        assertEquals(List.of("NONEXISTENT-ID"), response.getMissing());
+        assertEquals(3, response.getRequested());
+        assertEquals(2, response.getFound());
+        verify(wifiPointRepository, times(1))
+                .findByPuntoIdIn(new String[]{"FARO-001", "NONEXISTENT-ID", "PILARES-001"});
+        verifyNoMoreInteractions(wifiPointRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject an empty batch, blank IDs and too many IDs")
+    void testFindByIdsInvalid() {
+        List<String> tooMany = IntStream.rangeClosed(0, WifiPointService.MAX_BATCH_IDS)
+                .mapToObj(i -> "ID-" + i)
+                .toList();
+
+        assertThrows(IllegalArgumentException.class, () -> wifiPointService.findByIds(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> wifiPointService.findByIds(Arrays.asList("PILARES-001", " ")));
+        assertThrows(IllegalArgumentException.class, () -> wifiPointService.findByIds(tooMany));
+        verifyNoInteractions(wifiPointRepository);
+    }
+
+    @Test
+    @DisplayName("Should return the points inside a rectangle and flag results cut by the limit")
+    void testFindWithin() {
+        // Arrange - the repository is asked for one row more than the limit
+        when(wifiPointRepository.findByLatitudBetweenAndLongitudBetween(19.40, 19.44, -99.15, -99.13, Limit.of(3)))
+                .thenReturn(Arrays.asList(wifiPoint1, wifiPoint2, wifiPoint3));
+
+        // Act
+        WifiPointWithinResponseDTO response = wifiPointService.findWithin(19.40, -99.15, 19.44, -99.13, 2);
+
+        // Assert
+        assertEquals(2, response.getCount());
+        assertEquals(2, response.getContent().size());
+        assertTrue(response.isTruncated());
+        assertThrows(IllegalArgumentException.class, () -> wifiPointService.findWithin(19.44, -99.15, 19.40, -99.13, 2));
+        assertThrows(IllegalArgumentException.class, () -> wifiPointService.findWithin(19.40, -99.15, 19.44, -99.13, 0));
+        assertThrows(IllegalArgumentException.class, () -> wifiPointService.findWithin(19.40, -199.0, 19.44, -99.13, 2));
+    }
+
+    @Test
+    @DisplayName("Should return clusters from the dataset and single points beyond the deepest clustered zoom")
+    void testFindClustersFromDataset() {
+        // Arrange
+        WifiPointRepository storeRepository = mock(WifiPointRepository.class);
+        when(storeRepository.findAll()).thenReturn(Arrays.asList(wifiPoint1, wifiPoint2, wifiPoint3));
+        WifiPointStore store = new WifiPointStore(storeRepository, new WifiStoreProperties(),
+                new LoaderProperties(), new DefaultResourceLoader());
+        store.rebuild();
+        WifiPointService wifiPointService = new WifiPointService(wifiPointRepository, nearbySearchEngine,
+                wifiPointCache, nearbyResultCache, countCache, store);
+
+        // Act
+        WifiClusterResponseDTO world = wifiPointService.findClusters(-85.0, -180.0, 85.0, 180.0, 0, 10);
+        WifiClusterResponseDTO street = wifiPointService.findClusters(19.40, -99.16, 19.44, -99.13, 16, 2);
+        WifiClusterResponseDTO points = wifiPointService.findClusters(19.40, -99.16, 19.44, -99.13, 20, 10);
+
+        // Assert
+        assertEquals(1, world.getCount());
+        assertEquals(3, world.getContent().get(0).getCount());
+        assertNull(world.getContent().get(0).getPoint());
+        assertEquals((19.4326 + 19.4350 + 19.4200) / 3, world.getContent().get(0).getLatitud(), 1e-9);
+        assertTrue(world.isClustered());
+        assertEquals(2, street.getCount());
+        assertTrue(street.isTruncated());
+        assertNotNull(street.getContent().get(0).getPoint());
+        assertFalse(points.isClustered());
+        assertEquals(3, points.getPoints());
+        assertEquals(List.of("FARO-001", "PILARES-001", "PILARES-002"),
+                points.getContent().stream().map(cluster -> cluster.getPoint().getPuntoId()).sorted().toList());
+        assertThrows(IllegalArgumentException.class, () -> wifiPointService.findClusters(19.40, -99.16, 19.44, -99.13, 23, 10));
+        assertThrows(IllegalArgumentException.class, () -> wifiPointService.findClusters(19.40, -99.16, 19.44, -99.13, -1, 10));
+        verifyNoInteractions(wifiPointRepository);
+    }
+
+    @Test
+    @DisplayName("Should count points per grid cell from the dataset, in total and per programa")
+    void testFindDensity() {
+        // Arrange
+        WifiPointRepository storeRepository = mock(WifiPointRepository.class);
+        when(storeRepository.findAll()).thenReturn(Arrays.asList(wifiPoint1, wifiPoint2, wifiPoint3));
+        WifiPointStore store = new WifiPointStore(storeRepository, new WifiStoreProperties(),
+                new LoaderProperties(), new DefaultResourceLoader());
+        store.rebuild();
+        WifiPointService wifiPointService = new WifiPointService(wifiPointRepository, nearbySearchEngine,
+                wifiPointCache, nearbyResultCache, countCache, store);
+
+        // Act
+        WifiDensityDTO all = wifiPointService.findDensity(19.40, -99.16, 19.44, -99.13, 4, null);
+        WifiDensityDTO pilares = wifiPointService.findDensity(19.40, -99.16, 19.44, -99.13, 4, " PILARES ");
+        WifiDensityDTO single = wifiPointService.findDensity(19.42, -99.15, 19.42, -99.15, 1, "faros");
+
+        // Assert
+        assertEquals(3, all.getTotal());
+        assertEquals(all.getRows() * all.getCols(), all.getCounts().length);
+        assertEquals(0.01, all.getCellDegrees(), 1e-12);
+        assertTrue(all.getMinLat() <= 19.40 && 19.44 < all.getMaxLat());
+        assertTrue(all.getMinLon() <= -99.16 && -99.13 < all.getMaxLon());
+        assertNull(all.getPrograma());
+        assertEquals(2, pilares.getTotal());
+        assertEquals("PILARES", pilares.getPrograma());
+        assertArrayEquals(new int[]{1}, single.getCounts());
+        assertThrows(IllegalArgumentException.class, () -> wifiPointService.findDensity(19.40, -99.16, 19.44, -99.13, 4, "Desconocido"));
+        assertThrows(IllegalArgumentException.class, () -> wifiPointService.findDensity(19.40, -99.16, 19.44, -99.13, 0, null));
+        assertThrows(IllegalArgumentException.class, () -> wifiPointService.findDensity(-90.0, -180.0, 90.0, 180.0, 1, null));
+        assertThrows(IllegalArgumentException.class, () -> wifiPointService.findDensity(19.44, -99.16, 19.40, -99.13, 4, null));
+        verifyNoInteractions(wifiPointRepository);
+    }
+
+    @Test
+    @DisplayName("Should count points per grid cell from the dataset even when the store is disabled")
+    void testFindDensityStoreDisabled() {
+        // Arrange
+        WifiPointService wifiPointService = new WifiPointService(wifiPointRepository, nearbySearchEngine,
+                wifiPointCache, nearbyResultCache, countCache, disabledStore());
+
+        // Act
+        WifiDensityDTO density = wifiPointService.findDensity(19.40, -99.16, 19.44, -99.13, 4, null);
+
+        // Assert
+        assertEquals(3, density.getTotal());
+        verifyNoInteractions(wifiPointRepository);
+    }
+
+    @Test
+    @DisplayName("Should return the statistics computed with the dataset, and the same ones from the database before it")
+    void testGetStatistics() {
+        // Arrange
+        WifiPointRepository storeRepository = mock(WifiPointRepository.class);
+        when(storeRepository.findAll()).thenReturn(Arrays.asList(wifiPoint1, wifiPoint2, wifiPoint3));
+        WifiPointStore store = new WifiPointStore(storeRepository, new WifiStoreProperties(),
+                new LoaderProperties(), new DefaultResourceLoader());
+        store.rebuild();
+        WifiPointService fromDataset = new WifiPointService(mock(WifiPointRepository.class), nearbySearchEngine,
+                wifiPointCache, nearbyResultCache, countCache, store);
+        when(wifiPointRepository.summarizeByAlcaldiaAndPrograma()).thenReturn(List.of(
+                new Object[]{"Iztapalapa", "Pilares", 2L, 19.4326, 19.4350, -99.1400, -99.1332, 19.4326 + 19.4350, -99.1332 - 99.1400},
+                new Object[]{"BENITO JUÁREZ", "Faros", 1L, 19.4200, 19.4200, -99.1500, -99.1500, 19.4200, -99.1500}));
+
+        // Act
+        WifiStatisticsDTO dataset = fromDataset.getStatistics();
+        WifiStatisticsDTO database = wifiPointService.getStatistics();
+
+        // Assert
+        assertSame(dataset, fromDataset.getStatistics());
+        assertEquals("dataset", dataset.getSource());
+        assertEquals(1L, dataset.getVersion());
+        assertEquals("database", database.getSource());
+        assertNull(database.getVersion());
+        for (WifiStatisticsDTO statistics : List.of(dataset, database)) {
+            assertEquals(3, statistics.getTotal().getCount());
+            assertEquals(19.4200, statistics.getTotal().getMinLat());
+            assertEquals(-99.1332, statistics.getTotal().getMaxLon());
+            assertEquals((19.4326 + 19.4350 + 19.4200) / 3, statistics.getTotal().getLatitud(), 1e-12);
+            assertEquals(2, statistics.getAlcaldias().size());
+            WifiAreaStatisticsDTO iztapalapa = statistics.getAlcaldias().get(0);
+            assertEquals("Iztapalapa", iztapalapa.getName());
+            assertEquals(2, iztapalapa.getCount());
+            assertEquals(Map.of("Pilares", 2L), iztapalapa.getProgramas());
+            assertEquals((-99.1332 - 99.1400) / 2, iztapalapa.getLongitud(), 1e-12);
+            assertEquals(List.of("Pilares", "Faros"),
+                    statistics.getProgramas().stream().map(WifiAreaStatisticsDTO::getName).toList());
+            assertNull(statistics.getProgramas().get(0).getProgramas());
+        }
+        verify(wifiPointRepository, times(1)).summarizeByAlcaldiaAndPrograma();
+    }
+
+    @Test
+    @DisplayName("Should group points in the database when the store is disabled")
+    void testGetStatisticsStoreDisabled() {
+        // Arrange
+        WifiPointService wifiPointService = new WifiPointService(wifiPointRepository, nearbySearchEngine,
+                wifiPointCache, nearbyResultCache, countCache, disabledStore());
+        when(wifiPointRepository.summarizeByAlcaldiaAndPrograma()).thenReturn(List.of());
+
+        // Act
+        WifiStatisticsDTO statistics = wifiPointService.getStatistics();
+
+        // Assert
+        assertEquals("database", statistics.getSource());
+        verify(wifiPointRepository).summarizeByAlcaldiaAndPrograma();
+    }
+
+    @Test
+    @DisplayName("Should group points in the database before the dataset is built")
+    void testFindClustersFromDatabase() {
+        // Arrange - one cluster of two points and one single point
+        when(wifiPointRepository.findClusters(anyDouble(), anyInt(), anyInt(), anyInt(), anyInt(), anyDouble(),
+                anyDouble(), anyDouble(), anyDouble(), eq(19.40), eq(19.44), eq(-99.16), eq(-99.13), eq(11)))
+                .thenReturn(List.of(
+                        new Object[]{2L, 19.4338, -99.1366, "PILARES-001", "Pilares", "Iztapalapa"},
+                        new Object[]{1L, 19.4200, -99.1500, "FARO-001", "Faros", "Benito Juarez"}));
+
+        // Act
+        WifiClusterResponseDTO response = wifiPointService.findClusters(19.40, -99.16, 19.44, -99.13, 12, 10);
+
+        // Assert
+        assertEquals(2, response.getCount());
+        assertEquals(3, response.getPoints());
+        assertFalse(response.isTruncated());
+        assertNull(response.getContent().get(0).getPoint());
+        assertEquals("FARO-001", response.getContent().get(1).getPoint().getPuntoId());
+        assertEquals(19.4200, response.getContent().get(1).getPoint().getLatitud());
     }
 
     @Test
@@ -128,14 +525,48 @@ class WifiPointServiceTest {
         verify(wifiPointRepository, times(1)).findById("NONEXISTENT-ID");
     }
 
+    @Test
+    @DisplayName("Should serve repeated findById calls from the cache until it is invalidated")
+    void testFindByIdCached() {
+        // Arrange
+        when(wifiPointRepository.findById("PILARES-001")).thenReturn(Optional.of(wifiPoint1));
+
+        // Act
+        WifiPointDTO first = wifiPointService.findById("PILARES-001");
+        WifiPointDTO second = wifiPointService.findById("PILARES-001");
+        wifiPointCache.invalidateAll();
+        wifiPointService.findById("PILARES-001");
+
+        // Assert
+        assertSame(first, second);
+        verify(wifiPointRepository, times(2)).findById("PILARES-001");
+        assertEquals(1L, wifiPointService.getCacheStats().get("hits"));
+        assertEquals(2L, wifiPointService.getCacheStats().get("misses"));
+    }
+
+    @Test
+    @DisplayName("Should not cache IDs that are not found")
+    void testFindByIdNotFoundNotCached() {
+        // Arrange
+        when(wifiPointRepository.findById("NONEXISTENT-ID")).thenReturn(Optional.empty());
+
+        // Act
+        assertThrows(ResourceNotFoundException.class, () -> wifiPointService.findById("NONEXISTENT-ID"));
+        assertThrows(ResourceNotFoundException.class, () -> wifiPointService.findById("NONEXISTENT-ID"));
+
+        // Assert
+        verify(wifiPointRepository, times(2)).findById("NONEXISTENT-ID");
+        assertEquals(0L, wifiPointService.getCacheStats().get("size"));
+    }
+
     @Test
     @DisplayName("Should find WiFi points by alcaldia with pagination")
     void testFindByAlcaldia() {
         // Arrange
         List<WifiPoint> iztapalapaPoints = Arrays.asList(wifiPoint1, wifiPoint2);
-        Page<WifiPoint> page = new PageImpl<>(iztapalapaPoints, PageRequest.of(0, 20), iztapalapaPoints.size());
-
-        when(wifiPointRepository.findByAlcaldiaIgnoreCase(anyString(), any(Pageable.class))).thenReturn(page);
+        when(wifiPointRepository.findByAlcaldiaKeyInIdOrder(anyString(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(iztapalapaPoints, PageRequest.of(0, 20), false));
+        when(wifiPointRepository.countByAlcaldiaKey("iztapalapa")).thenReturn(2L);
 
         // Act
         WifiPointResponseDTO response = wifiPointService.findByAlcaldia("Iztapalapa", PageRequest.of(0, 20));
@@ -148,7 +579,7 @@ class WifiPointServiceTest {
 
         response.getContent().forEach(dto -> assertEquals("Iztapalapa", dto.getAlcaldia()));
 
-        verify(wifiPointRepository, times(1)).findByAlcaldiaIgnoreCase("Iztapalapa", PageRequest.of(0, 20));
+        verify(wifiPointRepository, times(1)).findByAlcaldiaKeyInIdOrder("iztapalapa", PageRequest.of(0, 20));
     }
 
     @Test
@@ -211,12 +642,138 @@ class WifiPointServiceTest {
         verify(wifiPointRepository, never()).findNearby(anyDouble(), anyDouble(), anyInt(), anyInt());
     }
 
+    @Test
+    @DisplayName("Should delegate valid nearby queries to the search engine")
+    void testFindNearbyDelegatesToEngine() {
+        // Arrange
+        WifiPointDTO nearest = WifiPointDTO.builder()
+                .puntoId("PILARES-001")
+                .latitud(19.4326)
+                .longitud(-99.1332)
+                .distancia(0.0)
+                .build();
+        Page<WifiPointDTO> page = new PageImpl<>(List.of(nearest), PageRequest.of(0, 1), 3);
+        when(nearbySearchEngine.findNearby(19.4326, -99.1332, null, PageRequest.of(0, 1))).thenReturn(page);
+
+        // Act
+        Page<WifiPointDTO> result = wifiPointService.findNearby(19.4326, -99.1332, PageRequest.of(0, 1));
+
+        // Assert
+        assertEquals(1, result.getContent().size());
+        assertEquals("PILARES-001", result.getContent().get(0).getPuntoId());
+        assertEquals(3, result.getTotalElements());
+        verify(nearbySearchEngine, times(1)).findNearby(19.4326, -99.1332, null, PageRequest.of(0, 1));
+    }
+
+    @Test
+    @DisplayName("Should answer many origins from the dataset index in request order")
+    void testFindNearbyBatchFromDataset() {
+        // Arrange - more origins than one chunk, alternating between two places
+        WifiPointRepository storeRepository = mock(WifiPointRepository.class);
+        when(storeRepository.findAll()).thenReturn(Arrays.asList(wifiPoint1, wifiPoint2, wifiPoint3));
+        WifiPointStore store = new WifiPointStore(storeRepository, new WifiStoreProperties(),
+                new LoaderProperties(), new DefaultResourceLoader());
+        store.rebuild();
+        WifiPointService wifiPointService = new WifiPointService(wifiPointRepository, nearbySearchEngine,
+                wifiPointCache, nearbyResultCache, countCache, store);
+        List<NearbyOriginDTO> origins = IntStream.range(0, 600)
+                .mapToObj(i -> i % 2 == 0
+                        ? NearbyOriginDTO.builder().lat(19.4326).lon(-99.1332).build()
+                        : NearbyOriginDTO.builder().lat(19.4200).lon(-99.1500).k(3).radiusKm(1.0).build())
+                .toList();
+
+        // Act
+        List<NearbyBatchResultDTO> results = wifiPointService.findNearbyBatch(origins).toList();
+
+        // Assert
+        assertEquals(600, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            NearbyBatchResultDTO result = results.get(i);
+            assertEquals(i, result.getIndex());
+            List<String> ids = result.getResults().stream().map(WifiPointDTO::getPuntoId).toList();
+            assertEquals(i % 2 == 0 ? List.of("PILARES-001") : List.of("FARO-001"), ids);
+        }
+        assertEquals(0.0, results.get(1).getResults().get(0).getDistancia(), 1e-9);
+        verifyNoInteractions(nearbySearchEngine, wifiPointRepository);
+    }
+
+    @Test
+    @DisplayName("Should answer many origins through the engine before the dataset is built")
+    void testFindNearbyBatchFromEngine() {
+        // Arrange
+        WifiPointDTO nearest = WifiPointDTO.builder().puntoId("PILARES-001").distancia(0.0).build();
+        when(nearbySearchEngine.getName()).thenReturn("native");
+        when(nearbySearchEngine.findNearby(anyDouble(), anyDouble(), any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(nearest)));
+        List<NearbyOriginDTO> origins = List.of(
+                NearbyOriginDTO.builder().lat(19.4326).lon(-99.1332).build(),
+                NearbyOriginDTO.builder().lat(19.4200).lon(-99.1500).k(5).radiusKm(2.0).build());
+
+        // Act
+        List<NearbyBatchResultDTO> results = wifiPointService.findNearbyBatch(origins).toList();
+
+        // Assert
+        assertEquals(2, results.size());
+        assertEquals("PILARES-001", results.get(1).getResults().get(0).getPuntoId());
+        verify(nearbySearchEngine).findNearby(19.4326, -99.1332, null, PageRequest.of(0, 1));
+        verify(nearbySearchEngine).findNearby(19.4200, -99.1500, 2.0, PageRequest.of(0, 5));
+    }
+
+    @Test
+    @DisplayName("Should answer many origins through the engine when the store is disabled")
+    void testFindNearbyBatchStoreDisabled() {
+        // Arrange
+        WifiPointService wifiPointService = new WifiPointService(wifiPointRepository, nearbySearchEngine,
+                wifiPointCache, nearbyResultCache, countCache, disabledStore());
+        when(nearbySearchEngine.getName()).thenReturn("native");
+        when(nearbySearchEngine.findNearby(anyDouble(), anyDouble(), any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of()));
+
+        // Act
+        List<NearbyBatchResultDTO> results = wifiPointService.findNearbyBatch(
+                List.of(NearbyOriginDTO.builder().lat(19.4326).lon(-99.1332).build())).toList();
+
+        // Assert
+        assertEquals(1, results.size());
+        verify(nearbySearchEngine).findNearby(19.4326, -99.1332, null, PageRequest.of(0, 1));
+    }
+
+    @Test
+    @DisplayName("Should reject a multi-origin search with no origins or an invalid origin before searching")
+    void testFindNearbyBatchInvalid() {
+        List<NearbyOriginDTO> invalidK = List.of(
+                NearbyOriginDTO.builder().lat(19.4326).lon(-99.1332).build(),
+                NearbyOriginDTO.builder().lat(19.4326).lon(-99.1332).k(0).build());
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> wifiPointService.findNearbyBatch(invalidK));
+        assertTrue(exception.getMessage().startsWith("Origin 1:"));
+        assertThrows(IllegalArgumentException.class, () -> wifiPointService.findNearbyBatch(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> wifiPointService.findNearbyBatch(
+                List.of(NearbyOriginDTO.builder().lat(91.0).lon(-99.1332).build())));
+        verifyNoInteractions(nearbySearchEngine);
+    }
+
+    @Test
+    @DisplayName("Should reject non-positive radius in findNearby")
+    void testFindNearbyInvalidRadius() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> wifiPointService.findNearby(19.4326, -99.1332, 0.0, PageRequest.of(0, 20))
+        );
+        assertTrue(exception.getMessage().contains("Radius must be greater than 0"));
+
+        verifyNoInteractions(nearbySearchEngine);
+    }
+
     @Test
     @DisplayName("Should handle empty results gracefully")
     void testFindAllEmptyResults() {
         // Arrange
-        Page<WifiPoint> emptyPage = new PageImpl<>(Arrays.asList(), PageRequest.of(0, 20), 0);
-        when(wifiPointRepository.findAll(any(Pageable.class))).thenReturn(emptyPage);
+        when(wifiPointRepository.findAllInIdOrder(any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 20), false));
+        when(wifiPointRepository.count()).thenReturn(0L);
 
         // Act
         WifiPointResponseDTO response = wifiPointService.findAll(PageRequest.of(0, 20));
@@ -235,9 +792,10 @@ class WifiPointServiceTest {
     void testFindAllWithMultiplePages() {
         // Arrange - Page 1 of 2
         List<WifiPoint> firstPagePoints = Arrays.asList(wifiPoint1, wifiPoint2);
-        Page<WifiPoint> firstPage = new PageImpl<>(firstPagePoints, PageRequest.of(0, 2), 3);
 
-        when(wifiPointRepository.findAll(any(Pageable.class))).thenReturn(firstPage);
+        when(wifiPointRepository.findAllInIdOrder(any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(firstPagePoints, PageRequest.of(0, 2), true));
+        when(wifiPointRepository.count()).thenReturn(3L);
 
         // Act
         WifiPointResponseDTO response = wifiPointService.findAll(PageRequest.of(0, 2));
@@ -251,4 +809,23 @@ class WifiPointServiceTest {
         assertTrue(response.isFirst());
         assertFalse(response.isLast());
     }
+
+    private WifiPointStore disabledStore() {
+        // The dataset is built but may not serve the queries PostgreSQL can answer
+        WifiPointRepository storeRepository = mock(WifiPointRepository.class);
+        when(storeRepository.findAll()).thenReturn(Arrays.asList(wifiPoint1, wifiPoint2, wifiPoint3));
+        WifiStoreProperties properties = new WifiStoreProperties();
+        properties.setEnabled(false);
+        WifiPointStore store = new WifiPointStore(storeRepository, properties, new LoaderProperties(),
+                new DefaultResourceLoader());
+        store.rebuild();
+        return store;
+    }
+
+    private static WifiCacheProperties nearbyCacheDisabled() {
+        // Nearby searches go straight to the mocked engine; the cache has its own tests
+        WifiCacheProperties properties = new WifiCacheProperties();
+        properties.getNearby().setEnabled(false);
+        return properties;
+    }
 }
@@ -0,0 +1,103 @@
+package com.wificdmx.wifiapi.spatial;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ClusterIndex.
+ * Every level is checked against grouping the points by their cell at that zoom directly.
+ */
+@DisplayName("ClusterIndex Tests")
+class ClusterIndexTest {
+
+    private static final BoundingBox WORLD = new BoundingBox(-90, -180, 90, 180);
+
+    @Test
+    @DisplayName("Should build every level as the direct grouping of the points by cell")
+    void testLevelsMatchDirectGrouping() {
+        // Arrange - random points over the CDMX bounding box
+        Random random = new Random(7);
+        int n = 3000;
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        for (int i = 0; i < n; i++) {
+            lat[i] = 19.05 + random.nextDouble() * 0.55;
+            lon[i] = -99.36 + random.nextDouble() * 0.40;
+        }
+
+        // Act
+        ClusterIndex index = new ClusterIndex(lat, lon);
+
+        // Assert
+        for (int zoom = 0; zoom <= ClusterIndex.MAX_ZOOM; zoom++) {
+            Map<Long, double[]> expected = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                long cell = (long) ClusterIndex.cellX(lon[i], zoom) << 32 | ClusterIndex.cellY(lat[i], zoom);
+                double[] sums = expected.computeIfAbsent(cell, key -> new double[3]);
+                sums[0] += lat[i];
+                sums[1] += lon[i];
+                sums[2]++;
+            }
+
+            ClusterIndex.Level level = index.level(zoom);
+            assertEquals(expected.size(), level.size(), "zoom " + zoom);
+            assertEquals(level.size(), level.within(WORLD, n).length);
+            for (int c = 0; c < level.size(); c++) {
+                long cell = (long) ClusterIndex.cellX(lon[level.row(c)], zoom) << 32 | ClusterIndex.cellY(lat[level.row(c)], zoom);
+                double[] sums = expected.get(cell);
+                assertEquals(sums[2], level.count(c), "zoom " + zoom);
+                assertEquals(sums[0] / sums[2], level.lat(c), 1e-9);
+                assertEquals(sums[1] / sums[2], level.lon(c), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep the point of single-point clusters and find clusters by position")
+    void testSinglePointsAndViewport() {
+        // Arrange - two points 100 m apart and one 10 km away
+        double[] lat = {19.4326, 19.4335, 19.5200};
+        double[] lon = {-99.1332, -99.1332, -99.1332};
+
+        // Act
+        ClusterIndex index = new ClusterIndex(lat, lon);
+        ClusterIndex.Level city = index.level(10);
+        ClusterIndex.Level street = index.level(ClusterIndex.MAX_ZOOM);
+
+        // Assert
+        assertEquals(1, index.level(0).size());
+        assertEquals(3, index.level(0).count(0));
+        assertEquals(2, city.size());
+        int[] center = city.within(new BoundingBox(19.40, -99.20, 19.45, -99.10), 10);
+        assertEquals(1, center.length);
+        assertEquals(2, city.count(center[0]));
+        assertEquals((19.4326 + 19.4335) / 2, city.lat(center[0]), 1e-12);
+        assertEquals(3, street.size());
+        int[] single = street.within(new BoundingBox(19.51, -99.14, 19.53, -99.13), 10);
+        assertEquals(1, single.length);
+        assertEquals(2, street.row(single[0]));
+        assertEquals(0, new ClusterIndex(new double[0], new double[0]).level(5).size());
+        assertThrows(IllegalArgumentException.class, () -> index.level(ClusterIndex.MAX_ZOOM + 1));
+    }
+
+    @Test
+    @DisplayName("Should map cell edges back to coordinates")
+    void testCellEdges() {
+        // Arrange
+        int zoom = 12;
+        int x = ClusterIndex.cellX(-99.1332, zoom);
+        int y = ClusterIndex.cellY(19.4326, zoom);
+
+        // Act & Assert - the point lies between the edges of its cell
+        assertTrue(ClusterIndex.cellLon(x, zoom) <= -99.1332 && -99.1332 < ClusterIndex.cellLon(x + 1, zoom));
+        assertTrue(ClusterIndex.cellLat(y + 1, zoom) < 19.4326 && 19.4326 <= ClusterIndex.cellLat(y, zoom));
+        assertEquals(0, ClusterIndex.cellX(-180, zoom));
+        assertEquals(ClusterIndex.cellsPerAxis(zoom) - 1, ClusterIndex.cellY(-90, zoom));
+    }
+}
@@ -0,0 +1,108 @@
+package com.wificdmx.wifiapi.spatial;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DensityGrid.
+ * Windows are checked against counting the points of each cell directly.
+ */
+@DisplayName("DensityGrid Tests")
+class DensityGridTest {
+
+    private static final double CELL = 0.0025;
+
+    @Test
+    @DisplayName("Should count every layer of every window as a direct count of the points per cell")
+    void testWindowsMatchDirectCount() {
+        // Arrange - random points over the CDMX bounding box, in three layers; enough to split the count
+        Random random = new Random(11);
+        int n = 40_000;
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        int[] layer = new int[n];
+        for (int i = 0; i < n; i++) {
+            lat[i] = 19.05 + random.nextDouble() * 0.55;
+            lon[i] = -99.36 + random.nextDouble() * 0.40;
+            layer[i] = random.nextInt(3);
+        }
+        BoundingBox[] boxes = {
+                new BoundingBox(19.40, -99.20, 19.45, -99.10),
+                new BoundingBox(18.90, -99.50, 19.70, -98.80),
+                new BoundingBox(19.43, -99.14, 19.43, -99.14)
+        };
+
+        // Act
+        DensityGrid grid = new DensityGrid(lat, lon, layer, 3, CELL);
+
+        // Assert
+        assertEquals(CELL, grid.cellDegrees());
+        assertEquals(3, grid.layers());
+        for (BoundingBox box : boxes) {
+            for (int step : new int[]{1, 3, 8}) {
+                for (int l = DensityGrid.ALL; l < 3; l++) {
+                    DensityGrid.Window window = grid.window(box, step, l, 1_000_000);
+                    assertArrayEquals(directCount(lat, lon, layer, l, window), window.counts(),
+                            "box " + box + ", step " + step + ", layer " + l);
+                    assertTrue(window.minLat() <= box.minLat() && box.maxLat() < window.minLat() + window.rows() * window.cellDegrees());
+                    assertTrue(window.minLon() <= box.minLon() && box.maxLon() < window.minLon() + window.cols() * window.cellDegrees());
+                }
+            }
+        }
+        assertEquals(n, sum(grid.window(boxes[1], 1, DensityGrid.ALL, 1_000_000).counts()));
+    }
+
+    @Test
+    @DisplayName("Should coarsen cells that would not fit and reject windows that are too large")
+    void testLimits() {
+        // Arrange - two points on opposite sides of the world
+        double[] lat = {-60, 60};
+        double[] lon = {-170, 170};
+
+        // Act
+        DensityGrid grid = new DensityGrid(lat, lon, new int[2], 1, 0.001);
+        DensityGrid empty = new DensityGrid(new double[0], new double[0], new int[0], 0, CELL);
+
+        // Assert
+        assertTrue(grid.cellDegrees() > 0.001);
+        assertTrue(grid.estimatedBytes() <= 4 * DensityGrid.MAX_TABLE_ENTRIES);
+        BoundingBox world = new BoundingBox(-90, -180, 90, 180);
+        int step = (int) Math.ceil(30 / grid.cellDegrees());
+        assertEquals(2, sum(grid.window(world, step, DensityGrid.ALL, 1000).counts()));
+        assertEquals(2, sum(grid.window(world, step, 0, 1000).counts()));
+        assertThrows(IllegalArgumentException.class, () -> grid.window(world, 1, DensityGrid.ALL, 1000));
+        assertThrows(IllegalArgumentException.class, () -> grid.window(world, 0, DensityGrid.ALL, 1000));
+        assertEquals(0, sum(empty.window(new BoundingBox(19.40, -99.20, 19.45, -99.10), 1, DensityGrid.ALL, 1000).counts()));
+        assertThrows(IllegalArgumentException.class, () -> new DensityGrid(lat, lon, new int[2], 1, 0));
+    }
+
+    private static int[] directCount(double[] lat, double[] lon, int[] layer, int only, DensityGrid.Window window) {
+        int[] counts = new int[window.rows() * window.cols()];
+        int step = (int) Math.round(window.cellDegrees() / CELL);
+        long south = Math.round(window.minLat() / window.cellDegrees());
+        long west = Math.round(window.minLon() / window.cellDegrees());
+        for (int i = 0; i < lat.length; i++) {
+            if (only != DensityGrid.ALL && layer[i] != only) {
+                continue;
+            }
+            long row = Math.floorDiv((long) Math.floor(lat[i] / CELL), step) - south;
+            long col = Math.floorDiv((long) Math.floor(lon[i] / CELL), step) - west;
+            if (row >= 0 && row < window.rows() && col >= 0 && col < window.cols()) {
+                counts[(int) ((window.rows() - 1 - row) * window.cols() + col)]++;
+            }
+        }
+        return counts;
+    }
+
+    private static long sum(int[] counts) {
+        long sum = 0;
+        for (int count : counts) {
+            sum += count;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,41 @@
+package com.wificdmx.wifiapi.spatial;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Geohash.
+ */
+@DisplayName("Geohash Tests")
+class GeohashTest {
+
+    @Test
+    @DisplayName("Should encode coordinates to the known geohash")
+    void testEncode() {
+        // Zócalo, Ciudad de México
+        assertEquals("9g3w81t", Geohash.encode(19.4326, -99.1332, 7));
+        assertEquals("9g3w", Geohash.encode(19.4326, -99.1332, 4));
+    }
+
+    @Test
+    @DisplayName("Should decode a geohash to a cell containing the encoded coordinates")
+    void testBoundsContainCoordinates() {
+        // Act
+        BoundingBox cell = Geohash.bounds(Geohash.encode(19.4326, -99.1332, 7));
+
+        // Assert
+        assertTrue(cell.minLat() <= 19.4326 && 19.4326 < cell.maxLat());
+        assertTrue(cell.minLon() <= -99.1332 && -99.1332 < cell.maxLon());
+        assertEquals(180.0 / (1 << 17), cell.maxLat() - cell.minLat(), 1e-12);
+        assertEquals(360.0 / (1 << 18), cell.maxLon() - cell.minLon(), 1e-12);
+    }
+
+    @Test
+    @DisplayName("Should reject invalid precision and characters")
+    void testInvalidInput() {
+        assertThrows(IllegalArgumentException.class, () -> Geohash.encode(19.4, -99.1, 0));
+        assertThrows(IllegalArgumentException.class, () -> Geohash.bounds("9g3a"));
+    }
+}
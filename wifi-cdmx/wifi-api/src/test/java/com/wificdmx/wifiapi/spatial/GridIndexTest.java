@@ -0,0 +1,67 @@
+package com.wificdmx.wifiapi.spatial;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for GridIndex.
+ * Results are checked against a brute-force scan of the rectangle.
+ */
+@DisplayName("GridIndex Tests")
+class GridIndexTest {
+
+    @Test
+    @DisplayName("Should return the same points as a brute-force scan of the rectangle")
+    void testWithinMatchesBruteForce() {
+        // Arrange - random points over the CDMX bounding box, plus one far outlier
+        Random random = new Random(42);
+        int n = 5000;
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        for (int i = 0; i < n - 1; i++) {
+            lat[i] = 19.05 + random.nextDouble() * 0.55;
+            lon[i] = -99.36 + random.nextDouble() * 0.40;
+        }
+        lat[n - 1] = 20.5;
+        lon[n - 1] = -98.0;
+        GridIndex grid = new GridIndex(lat, lon);
+
+        for (int q = 0; q < 100; q++) {
+            double south = 19.0 + random.nextDouble() * 0.6;
+            double west = -99.4 + random.nextDouble() * 0.45;
+            BoundingBox box = new BoundingBox(south, west, south + random.nextDouble() * 0.2, west + random.nextDouble() * 0.2);
+
+            // Act
+            int[] within = grid.within(box, n);
+
+            // Assert
+            int[] expected = IntStream.range(0, n).filter(i -> box.contains(lat[i], lon[i])).toArray();
+            int[] actual = within.clone();
+            Arrays.sort(actual);
+            assertArrayEquals(expected, actual);
+        }
+    }
+
+    @Test
+    @DisplayName("Should include points on the edges and stop at the limit")
+    void testEdgesAndLimit() {
+        // Arrange
+        double[] lat = {19.40, 19.41, 19.42, 19.43, 19.50};
+        double[] lon = {-99.10, -99.11, -99.12, -99.13, -99.20};
+        GridIndex grid = new GridIndex(lat, lon);
+        BoundingBox box = new BoundingBox(19.40, -99.13, 19.43, -99.10);
+
+        // Act & Assert
+        assertEquals(4, grid.within(box, 10).length);
+        assertEquals(2, grid.within(box, 2).length);
+        assertEquals(5, grid.within(new BoundingBox(-90, -180, 90, 180), 10).length);
+        assertEquals(0, grid.within(new BoundingBox(10, 10, 11, 11), 10).length);
+        assertEquals(0, new GridIndex(new double[0], new double[0]).within(box, 10).length);
+    }
+}
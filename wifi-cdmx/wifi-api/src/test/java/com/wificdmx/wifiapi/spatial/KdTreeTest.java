@@ -0,0 +1,133 @@
+package com.wificdmx.wifiapi.spatial;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for KdTree.
+ * Results are checked against a brute-force Haversine ranking.
+ */
+@DisplayName("KdTree Tests")
+class KdTreeTest {
+
+    @Test
+    @DisplayName("Should return the same k nearest points as a brute-force scan")
+    void testNearestMatchesBruteForce() {
+        // Arrange - random points spread over the CDMX bounding box
+        Random random = new Random(42);
+        int n = 5000;
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        for (int i = 0; i < n; i++) {
+            lat[i] = 19.05 + random.nextDouble() * 0.55;
+            lon[i] = -99.36 + random.nextDouble() * 0.40;
+        }
+        KdTree tree = new KdTree(lat, lon);
+
+        for (int q = 0; q < 50; q++) {
+            double qLat = 19.05 + random.nextDouble() * 0.55;
+            double qLon = -99.36 + random.nextDouble() * 0.40;
+
+            // Act
+            int[] nearest = tree.nearest(qLat, qLon, 25);
+
+            // Assert
+            double[] expected = IntStream.range(0, n)
+                    .mapToDouble(i -> GeoUtils.haversineKm(qLat, qLon, lat[i], lon[i]))
+                    .sorted()
+                    .limit(25)
+                    .toArray();
+            double[] actual = Arrays.stream(nearest)
+                    .mapToDouble(i -> GeoUtils.haversineKm(qLat, qLon, lat[i], lon[i]))
+                    .toArray();
+            assertArrayEquals(expected, actual, 1e-9);
+        }
+    }
+
+    @Test
+    @DisplayName("Should return points ordered by ascending distance")
+    void testNearestOrdering() {
+        // Arrange
+        double[] lat = {19.4326, 19.4350, 19.4200, 19.5000};
+        double[] lon = {-99.1332, -99.1400, -99.1500, -99.2000};
+        KdTree tree = new KdTree(lat, lon);
+
+        // Act
+        int[] nearest = tree.nearest(19.4326, -99.1332, 10);
+
+        // Assert
+        assertEquals(4, nearest.length);
+        assertEquals(0, nearest[0]);
+        Integer[] boxed = Arrays.stream(nearest).boxed().toArray(Integer[]::new);
+        Integer[] sorted = boxed.clone();
+        Arrays.sort(sorted, Comparator.comparingDouble(i -> GeoUtils.haversineKm(19.4326, -99.1332, lat[i], lon[i])));
+        assertArrayEquals(sorted, boxed);
+    }
+
+    @Test
+    @DisplayName("Should restrict results and counts to the given radius")
+    void testRadiusBoundedQueries() {
+        // Arrange
+        Random random = new Random(7);
+        int n = 3000;
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        for (int i = 0; i < n; i++) {
+            lat[i] = 19.05 + random.nextDouble() * 0.55;
+            lon[i] = -99.36 + random.nextDouble() * 0.40;
+        }
+        KdTree tree = new KdTree(lat, lon);
+        double qLat = 19.4326;
+        double qLon = -99.1332;
+        double radiusKm = 2.5;
+
+        long expectedCount = IntStream.range(0, n)
+                .filter(i -> GeoUtils.haversineKm(qLat, qLon, lat[i], lon[i]) <= radiusKm)
+                .count();
+
+        // Act
+        int[] nearest = tree.nearest(qLat, qLon, n, radiusKm);
+        int count = tree.countWithin(qLat, qLon, radiusKm);
+
+        // Assert
+        assertEquals(expectedCount, count);
+        assertEquals(expectedCount, nearest.length);
+        for (int i : nearest) {
+            assertTrue(GeoUtils.haversineKm(qLat, qLon, lat[i], lon[i]) <= radiusKm + 1e-9);
+        }
+    }
+
+    @Test
+    @DisplayName("Should compute a bounding box that contains the whole circle")
+    void testBoundingBoxContainsCircle() {
+        // Arrange
+        BoundingBox box = GeoUtils.boundingBox(19.4326, -99.1332, 1.0);
+
+        // Act & Assert - points 1 km away at every bearing stay inside
+        for (int bearing = 0; bearing < 360; bearing += 15) {
+            double angular = 1.0 / GeoUtils.EARTH_RADIUS_KM;
+            double b = Math.toRadians(bearing);
+            double lat1 = Math.toRadians(19.4326);
+            double lat2 = Math.asin(Math.sin(lat1) * Math.cos(angular) + Math.cos(lat1) * Math.sin(angular) * Math.cos(b));
+            double lon2 = Math.toRadians(-99.1332) + Math.atan2(Math.sin(b) * Math.sin(angular) * Math.cos(lat1),
+                    Math.cos(angular) - Math.sin(lat1) * Math.sin(lat2));
+            assertTrue(box.contains(Math.toDegrees(lat2), Math.toDegrees(lon2)), "bearing " + bearing);
+        }
+    }
+
+    @Test
+    @DisplayName("Should handle an empty tree")
+    void testEmptyTree() {
+        KdTree tree = new KdTree(new double[0], new double[0]);
+
+        assertEquals(0, tree.size());
+        assertEquals(0, tree.nearest(19.4326, -99.1332, 5).length);
+    }
+}
@@ -0,0 +1,97 @@
+package com.wificdmx.wifiapi.store;
+
+import com.wificdmx.wifiapi.dto.WifiPointDTO;
+import com.wificdmx.wifiapi.model.WifiPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PointTable.
+ * Lookups are checked against the sorted list of IDs they were built from.
+ */
+@DisplayName("PointTable Tests")
+class PointTableTest {
+
+    private static final String[] ALCALDIAS = {"Iztapalapa", "Álvaro Obregón", "Alvaro Obregon", "Tlalpan"};
+    private static final String[] PROGRAMAS = {"Pilares", "Sitios Publicos", "Escuelas"};
+
+    private List<WifiPoint> wifiPoints;
+    private PointTable table;
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(3);
+        wifiPoints = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            WifiPoint wifiPoint = new WifiPoint();
+            wifiPoint.setPuntoId("ID-" + random.nextInt(1_000_000) + "-" + i);
+            wifiPoint.setPrograma(PROGRAMAS[i % PROGRAMAS.length]);
+            wifiPoint.setLatitud(19.05 + random.nextDouble() * 0.55);
+            wifiPoint.setLongitud(-99.36 + random.nextDouble() * 0.40);
+            wifiPoint.setAlcaldia(ALCALDIAS[i % ALCALDIAS.length]);
+            wifiPoints.add(wifiPoint);
+        }
+        table = PointTable.of(wifiPoints);
+    }
+
+    @Test
+    @DisplayName("Should keep every value of every point, in ID order")
+    void testRoundTrip() {
+        // Arrange
+        List<WifiPoint> sorted = new ArrayList<>(wifiPoints);
+        sorted.sort((a, b) -> a.getPuntoId().compareTo(b.getPuntoId()));
+
+        // Assert
+        assertEquals(sorted.size(), table.size());
+        assertEquals(ALCALDIAS.length + PROGRAMAS.length, table.dictionarySize());
+        for (int row = 0; row < table.size(); row++) {
+            WifiPoint expected = sorted.get(row);
+            WifiPointDTO actual = table.toDTO(row);
+            assertEquals(expected.getPuntoId(), actual.getPuntoId());
+            assertEquals(expected.getPrograma(), actual.getPrograma());
+            assertEquals(expected.getLatitud(), actual.getLatitud());
+            assertEquals(expected.getLongitud(), actual.getLongitud());
+            assertEquals(expected.getAlcaldia(), actual.getAlcaldia());
+            assertEquals(row, table.indexOf(expected.getPuntoId()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should find the first ID after any string, stored or not")
+    void testFirstAfter() {
+        String[] ids = wifiPoints.stream().map(WifiPoint::getPuntoId).sorted().toArray(String[]::new);
+
+        assertEquals(0, table.firstAfter(""));
+        assertEquals(1, table.firstAfter(ids[0]));
+        assertEquals(ids.length, table.firstAfter(ids[ids.length - 1]));
+        assertEquals(-1, table.indexOf(ids[10] + "0"));
+        assertEquals(11, table.firstAfter(ids[10] + "0"));
+        assertEquals(-1, table.indexOf("ZZZ"));
+    }
+
+    @Test
+    @DisplayName("Should group spellings of an alcaldia under one key, in ID order")
+    void testRowsOfAlcaldia() {
+        // Act
+        int[] rows = table.rowsOfAlcaldia("alvaro obregon");
+
+        // Assert - two of the four spellings share the key
+        assertEquals(1000, rows.length);
+        for (int i = 1; i < rows.length; i++) {
+            assertTrue(table.puntoId(rows[i - 1]).compareTo(table.puntoId(rows[i])) < 0);
+        }
+        assertTrue(Arrays.stream(rows).allMatch(row -> table.alcaldia(row).startsWith("lvaro", 1)));
+        assertEquals(0, table.rowsOfAlcaldia("coyoacan").length);
+
+        String middle = table.puntoId(rows[500]);
+        assertEquals(501, table.firstAfter(rows, middle));
+    }
+}
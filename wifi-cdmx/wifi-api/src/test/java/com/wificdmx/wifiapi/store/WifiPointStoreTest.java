@@ -0,0 +1,159 @@
+package com.wificdmx.wifiapi.store;
+
+import com.wificdmx.wifiapi.config.LoaderProperties;
+import com.wificdmx.wifiapi.config.WifiStoreProperties;
+import com.wificdmx.wifiapi.loader.SourceFingerprint;
+import com.wificdmx.wifiapi.model.WifiPoint;
+import com.wificdmx.wifiapi.repository.WifiPointRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for WifiPointStore.
+ * Rebuilds are checked to publish a new snapshot without touching the one a reader holds, and the
+ * snapshot file to restore the same dataset, or to be ignored when it is stale or corrupt.
+ */
+@DisplayName("WifiPointStore Tests")
+class WifiPointStoreTest {
+
+    @Test
+    @DisplayName("Should swap in a new versioned snapshot and leave the previous one intact")
+    void testRebuildSwapsSnapshot() {
+        // Arrange
+        WifiPointRepository repository = mock(WifiPointRepository.class);
+        when(repository.findAll())
+                .thenReturn(List.of(wifiPoint("A-1", 19.40), wifiPoint("A-2", 19.41)))
+                .thenReturn(List.of(wifiPoint("A-1", 19.40), wifiPoint("B-1", 19.50), wifiPoint("B-2", 19.51)));
+        WifiPointStore store = new WifiPointStore(repository, new WifiStoreProperties(),
+                new LoaderProperties(), new DefaultResourceLoader());
+        assertTrue(store.snapshot().isEmpty());
+
+        // Act
+        store.rebuild();
+        WifiDataset held = store.snapshot().orElseThrow();
+        store.rebuild();
+        WifiDataset next = store.snapshot().orElseThrow();
+
+        // Assert
+        assertEquals(1, held.version());
+        assertEquals(2, next.version());
+        assertEquals(2, held.size());
+        assertEquals(2, held.tree().size());
+        assertTrue(held.findById("A-2").isPresent());
+        assertTrue(held.findById("B-1").isEmpty());
+        assertEquals(3, next.size());
+        assertEquals(3, next.tree().size());
+        assertEquals("B-1", next.findAllAfter("A-1", 1).get(0).getPuntoId());
+        assertEquals("B-2", next.table().puntoId(next.tree().nearest(19.51, -99.1, 1)[0]));
+    }
+
+    @Test
+    @DisplayName("Should build the dataset but not serve queries when the store is disabled")
+    void testDisabled() {
+        // Arrange
+        WifiPointRepository repository = mock(WifiPointRepository.class);
+        when(repository.findAll()).thenReturn(List.of(wifiPoint("A-1", 19.40)));
+        WifiStoreProperties properties = new WifiStoreProperties();
+        properties.setEnabled(false);
+        WifiPointStore store = new WifiPointStore(repository, properties,
+                new LoaderProperties(), new DefaultResourceLoader());
+
+        // Act
+        store.rebuild();
+
+        // Assert
+        assertEquals(1, store.current().size());
+        assertTrue(store.snapshot().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should restore the dataset from the snapshot of the current Excel file without the database")
+    void testRestoreSnapshot(@TempDir Path directory) throws Exception {
+        // Arrange
+        LoaderProperties loaderProperties = new LoaderProperties();
+        String source = SourceFingerprint.of(new DefaultResourceLoader().getResource(loaderProperties.getSource()));
+        WifiStoreProperties properties = snapshotAt(directory.resolve("points.bin"));
+        WifiPointRepository repository = mock(WifiPointRepository.class);
+        when(repository.findAll()).thenReturn(List.of(wifiPoint("A-1", 19.40), wifiPoint("Á-2", 19.41)));
+        WifiPointStore writer = new WifiPointStore(repository, properties,
+                loaderProperties, new DefaultResourceLoader());
+        writer.rebuild();
+        writer.saveSnapshot(source);
+        WifiPointRepository unused = mock(WifiPointRepository.class);
+        WifiPointStore restored = new WifiPointStore(unused, properties, loaderProperties, new DefaultResourceLoader());
+
+        // Act
+        restored.restoreSnapshot();
+        restored.initialize();
+
+        // Assert
+        assertTrue(restored.isSnapshotOf(source));
+        assertEquals("snapshot", restored.getStats().get("origin"));
+        WifiDataset dataset = restored.snapshot().orElseThrow();
+        assertEquals(2, dataset.size());
+        assertEquals(writer.current().findById("Á-2"), dataset.findById("Á-2"));
+        assertEquals(2, dataset.countByAlcaldia("iztapalapa"));
+        verifyNoInteractions(unused);
+    }
+
+    @Test
+    @DisplayName("Should ignore a stale or corrupt snapshot and build from the database")
+    void testIgnoreInvalidSnapshot(@TempDir Path directory) throws Exception {
+        // Arrange
+        Path path = directory.resolve("points.bin");
+        WifiStoreProperties properties = snapshotAt(path);
+        WifiPointRepository repository = mock(WifiPointRepository.class);
+        when(repository.findAll()).thenReturn(List.of(wifiPoint("A-1", 19.40)));
+        PointTable table = PointTable.of(List.of(wifiPoint("OLD-1", 19.40)));
+        String source = SourceFingerprint.of(new DefaultResourceLoader().getResource(new LoaderProperties().getSource()));
+
+        // Act - another version of the Excel file
+        SnapshotFile.write(path, "0".repeat(64), table);
+        WifiPointStore stale = new WifiPointStore(repository, properties,
+                new LoaderProperties(), new DefaultResourceLoader());
+        stale.restoreSnapshot();
+        stale.initialize();
+
+        // Act - a flipped byte in the table
+        SnapshotFile.write(path, source, table);
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(path, bytes);
+        WifiPointStore corrupt = new WifiPointStore(repository, properties,
+                new LoaderProperties(), new DefaultResourceLoader());
+        corrupt.restoreSnapshot();
+        corrupt.initialize();
+
+        // Assert
+        assertThrows(IOException.class, () -> SnapshotFile.read(path));
+        assertEquals("A-1", stale.current().table().puntoId(0));
+        assertEquals("A-1", corrupt.current().table().puntoId(0));
+        assertEquals("database", corrupt.getStats().get("origin"));
+    }
+
+    private static WifiStoreProperties snapshotAt(Path path) {
+        WifiStoreProperties properties = new WifiStoreProperties();
+        properties.getSnapshot().setPath(path.toString());
+        return properties;
+    }
+
+    private static WifiPoint wifiPoint(String id, double lat) {
+        WifiPoint wifiPoint = new WifiPoint();
+        wifiPoint.setPuntoId(id);
+        wifiPoint.setPrograma("Pilares");
+        wifiPoint.setLatitud(lat);
+        wifiPoint.setLongitud(-99.1);
+        wifiPoint.setAlcaldia("Iztapalapa");
+        return wifiPoint;
+    }
+}
@@ -0,0 +1,279 @@
+package com.wificdmx.wifiapi.tile;
+
+import com.wificdmx.wifiapi.cache.VectorTileCache;
+import com.wificdmx.wifiapi.config.LoaderProperties;
+import com.wificdmx.wifiapi.config.WifiCacheProperties;
+import com.wificdmx.wifiapi.config.WifiStoreProperties;
+import com.wificdmx.wifiapi.model.WifiPoint;
+import com.wificdmx.wifiapi.repository.WifiPointRepository;
+import com.wificdmx.wifiapi.spatial.WebMercator;
+import com.wificdmx.wifiapi.store.WifiPointStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.data.domain.Limit;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for VectorTileService and the MVT encoding.
+ * Tiles are decoded with a minimal protocol buffers reader and checked against the points' coordinates.
+ */
+@DisplayName("VectorTileService Tests")
+class VectorTileServiceTest {
+
+    private static final int ZOOM = 12;
+
+    private final List<WifiPoint> points = List.of(
+            wifiPoint("PILARES-002", "Pilares", 19.4350, -99.1400, "Iztapalapa"),
+            wifiPoint("FARO-001", "Faros", 19.4200, -99.1410, "Benito Juarez"),
+            wifiPoint("PILARES-001", "Pilares", 19.4326, -99.1332, "Iztapalapa"),
+            wifiPoint("LEJOS-001", "Pilares", 19.2000, -99.0000, "Tlahuac"));
+
+    @Test
+    @DisplayName("Should encode the points of the tile and its buffer in ID order with their properties")
+    void testEncodeTile() {
+        // Arrange
+        VectorTileService service = service(store(), mock(WifiPointRepository.class));
+        int x = tileX(-99.1400);
+        int y = tileY(19.4350);
+
+        // Act
+        VectorTile tile = service.getTile(ZOOM, x, y);
+
+        // Assert
+        Layer layer = Layer.decode(tile.data());
+        assertEquals(VectorTileService.LAYER, layer.name);
+        assertEquals(MvtEncoder.EXTENT, layer.extent);
+        assertEquals(List.of("puntoId", "programa", "alcaldia"), layer.keys);
+        assertEquals(3, tile.points());
+        assertEquals(List.of("FARO-001", "PILARES-001", "PILARES-002"), layer.features.stream().map(f -> f.properties.get(0)).toList());
+        assertEquals(List.of("Pilares", "Iztapalapa"), layer.features.get(2).properties.subList(1, 3));
+        Feature pilares = layer.features.get(2);
+        assertEquals(Math.round((WebMercator.x(-99.1400) * (1 << ZOOM) - x) * MvtEncoder.EXTENT), pilares.x);
+        assertEquals(Math.round((WebMercator.y(19.4350) * (1 << ZOOM) - y) * MvtEncoder.EXTENT), pilares.y);
+        assertTrue(layer.features.get(0).x < 0, "FARO-001 lies in the buffer west of the tile");
+        assertEquals(7, layer.values.size(), "repeated values are stored once");
+        assertTrue(tile.etag().matches("\"[0-9a-f]{32}\""));
+        assertEquals(0, service.getTile(ZOOM, 0, 0).data().length);
+    }
+
+    @Test
+    @DisplayName("Should cache tiles per dataset version and match the tiles built from the database")
+    void testCacheAndDatabaseFallback() {
+        // Arrange
+        WifiPointRepository repository = mock(WifiPointRepository.class);
+        when(repository.findByLatitudBetweenAndLongitudBetween(anyDouble(), anyDouble(), anyDouble(), anyDouble(),
+                any(Limit.class))).thenReturn(points.subList(0, 3));
+        WifiPointStore store = store();
+        VectorTileService fromDataset = service(store, repository);
+        WifiPointStore empty = new WifiPointStore(mock(WifiPointRepository.class), new WifiStoreProperties(),
+                new LoaderProperties(), new DefaultResourceLoader());
+        VectorTileService fromDatabase = service(empty, repository);
+        int x = tileX(-99.1400);
+        int y = tileY(19.4350);
+
+        // Act
+        VectorTile first = fromDataset.getTile(ZOOM, x, y);
+        VectorTile cached = fromDataset.getTile(ZOOM, x, y);
+        store.rebuild();
+        VectorTile rebuilt = fromDataset.getTile(ZOOM, x, y);
+        VectorTile database = fromDatabase.getTile(ZOOM, x, y);
+
+        // Assert
+        assertSame(first, cached);
+        assertNotSame(first, rebuilt);
+        assertEquals(first.etag(), rebuilt.etag());
+        assertArrayEquals(first.data(), database.data());
+        assertEquals(first.etag(), database.etag());
+        assertEquals(1L, fromDataset.getCacheStats().get("hits"));
+        verify(repository, times(1)).findByLatitudBetweenAndLongitudBetween(anyDouble(), anyDouble(), anyDouble(),
+                anyDouble(), any(Limit.class));
+    }
+
+    @Test
+    @DisplayName("Should reject tile coordinates out of range")
+    void testInvalidTile() {
+        // Arrange
+        VectorTileService service = service(store(), mock(WifiPointRepository.class));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> service.getTile(-1, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> service.getTile(VectorTileService.MAX_ZOOM + 1, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> service.getTile(2, 4, 0));
+        assertThrows(IllegalArgumentException.class, () -> service.getTile(2, 0, -1));
+        assertEquals(4, service.getTile(0, 0, 0).points());
+    }
+
+    private WifiPointStore store() {
+        WifiPointRepository repository = mock(WifiPointRepository.class);
+        when(repository.findAll()).thenReturn(points);
+        WifiPointStore store = new WifiPointStore(repository, new WifiStoreProperties(),
+                new LoaderProperties(), new DefaultResourceLoader());
+        store.rebuild();
+        return store;
+    }
+
+    private static VectorTileService service(WifiPointStore store, WifiPointRepository repository) {
+        return new VectorTileService(store, repository, new VectorTileCache(new WifiCacheProperties()));
+    }
+
+    private static int tileX(double lon) {
+        return (int) Math.floor(WebMercator.x(lon) * (1 << ZOOM));
+    }
+
+    private static int tileY(double lat) {
+        return (int) Math.floor(WebMercator.y(lat) * (1 << ZOOM));
+    }
+
+    private static WifiPoint wifiPoint(String id, String programa, double lat, double lon, String alcaldia) {
+        WifiPoint wifiPoint = new WifiPoint();
+        wifiPoint.setPuntoId(id);
+        wifiPoint.setPrograma(programa);
+        wifiPoint.setLatitud(lat);
+        wifiPoint.setLongitud(lon);
+        wifiPoint.setAlcaldia(alcaldia);
+        return wifiPoint;
+    }
+
+    /**
+     * Point feature with its property values in key order.
+     */
+    private record Feature(long x, long y, List<String> properties) {
+    }
+
+    /**
+     * The single layer of a tile, decoded.
+     */
+    private static final class Layer {
+
+        String name;
+        long extent;
+        final List<String> keys = new ArrayList<>();
+        final List<String> values = new ArrayList<>();
+        final List<long[]> tags = new ArrayList<>();
+        final List<long[]> geometries = new ArrayList<>();
+        final List<Feature> features = new ArrayList<>();
+
+        static Layer decode(byte[] tile) {
+            Reader reader = new Reader(tile);
+            assertEquals(3, reader.field());
+            Reader fields = reader.message();
+            assertFalse(reader.hasMore(), "one layer");
+
+            Layer layer = new Layer();
+            while (fields.hasMore()) {
+                switch (fields.field()) {
+                    case 15 -> assertEquals(2, fields.varint());
+                    case 1 -> layer.name = fields.string();
+                    case 2 -> layer.decodeFeature(fields.message());
+                    case 3 -> layer.keys.add(fields.string());
+                    case 4 -> {
+                        Reader value = fields.message();
+                        assertEquals(1, value.field());
+                        layer.values.add(value.string());
+                    }
+                    case 5 -> layer.extent = fields.varint();
+                    default -> fail("Unexpected layer field");
+                }
+            }
+            for (int i = 0; i < layer.tags.size(); i++) {
+                long[] tags = layer.tags.get(i);
+                List<String> properties = new ArrayList<>();
+                for (int t = 0; t < tags.length; t += 2) {
+                    assertEquals(t / 2, tags[t]);
+                    properties.add(layer.values.get((int) tags[t + 1]));
+                }
+                long[] geometry = layer.geometries.get(i);
+                assertEquals(3, geometry.length);
+                assertEquals(9, geometry[0], "MoveTo(1)");
+                layer.features.add(new Feature(unZigZag(geometry[1]), unZigZag(geometry[2]), properties));
+            }
+            return layer;
+        }
+
+        private void decodeFeature(Reader feature) {
+            while (feature.hasMore()) {
+                switch (feature.field()) {
+                    case 2 -> tags.add(feature.packed());
+                    case 3 -> assertEquals(1, feature.varint(), "POINT");
+                    case 4 -> geometries.add(feature.packed());
+                    default -> fail("Unexpected feature field");
+                }
+            }
+        }
+
+        private static long unZigZag(long value) {
+            return value >>> 1 ^ -(value & 1);
+        }
+    }
+
+    /**
+     * Minimal protocol buffers reader for varint and length-delimited fields.
+     */
+    private static final class Reader {
+
+        private final byte[] data;
+        private int position;
+        private final int end;
+
+        Reader(byte[] data) {
+            this(data, 0, data.length);
+        }
+
+        private Reader(byte[] data, int from, int to) {
+            this.data = data;
+            this.position = from;
+            this.end = to;
+        }
+
+        boolean hasMore() {
+            return position < end;
+        }
+
+        int field() {
+            return (int) (varint() >>> 3);
+        }
+
+        long varint() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = data[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+
+        Reader message() {
+            int length = (int) varint();
+            Reader message = new Reader(data, position, position + length);
+            position += length;
+            return message;
+        }
+
+        String string() {
+            int length = (int) varint();
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        long[] packed() {
+            Reader values = message();
+            List<Long> list = new ArrayList<>();
+            while (values.hasMore()) {
+                list.add(values.varint());
+            }
+            return list.stream().mapToLong(Long::longValue).toArray();
+        }
+    }
+}